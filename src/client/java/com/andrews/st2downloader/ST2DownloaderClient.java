@@ -1,9 +1,12 @@
 package com.andrews.st2downloader;
 
 import com.andrews.st2downloader.gui.LitematicDownloaderScreen;
+import com.andrews.st2downloader.gui.NetworkDebugScreen;
 import com.andrews.st2downloader.keybind.ModKeybindings;
+import com.andrews.st2downloader.network.ArchivePrewarmer;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.client.Minecraft;
 
@@ -12,6 +15,7 @@ public class ST2DownloaderClient implements ClientModInitializer {
 	public void onInitializeClient() {
 		ModKeybindings.register();
 		registerScreenToggleHandler();
+		ClientLifecycleEvents.CLIENT_STARTED.register(client -> ArchivePrewarmer.start());
 	}
 
 	private static void registerScreenToggleHandler() {
@@ -19,6 +23,9 @@ public class ST2DownloaderClient implements ClientModInitializer {
 			if (ModKeybindings.openMenuKey.isDown()) {
 				toggleLitematicDownloaderScreen(Minecraft.getInstance());
 			}
+			while (ModKeybindings.networkDebugKey.consumeClick()) {
+				toggleNetworkDebugScreen(Minecraft.getInstance());
+			}
 		});
 	}
 
@@ -29,4 +36,12 @@ public class ST2DownloaderClient implements ClientModInitializer {
 			client.setScreen(new LitematicDownloaderScreen());
 		}
 	}
+
+	private static void toggleNetworkDebugScreen(Minecraft client) {
+		if (client.screen instanceof NetworkDebugScreen) {
+			client.setScreen(null);
+		} else {
+			client.setScreen(new NetworkDebugScreen());
+		}
+	}
 }
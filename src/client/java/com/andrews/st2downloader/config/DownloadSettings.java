@@ -2,6 +2,8 @@ package com.andrews.st2downloader.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import net.fabricmc.loader.api.FabricLoader;
@@ -11,11 +13,18 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DownloadSettings {
 	private static final String CONFIG_FILE = "st2-downloader-settings.json";
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 	private static final String KEY_JOINED_DISCORD_SERVERS = "joinedDiscordServers";
+	private static final String KEY_ARCHIVE_MIRRORS = "archiveMirrors";
+	// Mirrors listed under this key in archiveMirrors apply to every server.
+	private static final String ALL_SERVERS_KEY = "*";
+	// Set by the performance harness, which runs the client outside the game against a scratch directory.
+	public static final String GAME_DIR_PROPERTY = "st2downloader.gameDir";
 	private static DownloadSettings INSTANCE;
 
 	private JsonObject config;
@@ -54,11 +63,21 @@ public class DownloadSettings {
 		setDefault("infoToastsEnabled", false);
 		setDefault("warningToastsEnabled", true);
 		setDefault("sortOption", "newest");
+		setDefault("dateFilter", "any");
 		setDefault("itemsPerPage", 20);
+		setDefault("prewarmOnStartup", true);
+		setDefault("indexMemoryBudgetMb", 64);
+		setDefault("shardedIndexLoading", true);
+		setDefault("detailStoreMb", 64);
+		setDefault("mirrorParallelDownloads", 4);
+		setDefault("http2Enabled", true);
+		setDefault("httpMaxConnectionsPerHost", 6);
+		setDefault("maxConcurrentRequests", 12);
 		setDefault("tagFilter", "");
 		setDefault("joinedDiscord", false);
 		setDefault("selectedServerId", getDefaultServerId());
 		ensureJoinedDiscordMap();
+		ensureArchiveMirrorMap();
 	}
 
 	private void setDefault(String key, Object value) {
@@ -102,12 +121,20 @@ public class DownloadSettings {
 	}
 
 	public String getAbsoluteDownloadPath(ServerEntry server) {
-		Path gamePath = FabricLoader.getInstance().getGameDir();
+		Path gamePath = gameDir();
 		return gamePath.resolve(getDownloadPathForServer(server)).toString();
 	}
 
 	public String getGameDirectory() {
-		return FabricLoader.getInstance().getGameDir().toString();
+		return gameDir().toString();
+	}
+
+	/**
+	 * The game directory, or the one named by {@link #GAME_DIR_PROPERTY} when running outside the game.
+	 */
+	public static Path gameDir() {
+		String override = System.getProperty(GAME_DIR_PROPERTY);
+		return override != null ? Path.of(override) : FabricLoader.getInstance().getGameDir();
 	}
 
 	private boolean isToastEnabled(String type) {
@@ -118,10 +145,46 @@ public class DownloadSettings {
 		return config.get("sortOption").getAsString();
 	}
 
+	public String getDateFilter() {
+		return config.get("dateFilter").getAsString();
+	}
+
 	public int getItemsPerPage() {
 		return config.get("itemsPerPage").getAsInt();
 	}
 
+	public boolean isPrewarmOnStartupEnabled() {
+		return config.get("prewarmOnStartup").getAsBoolean();
+	}
+
+	public long getIndexMemoryBudgetBytes() {
+		return Math.max(1, config.get("indexMemoryBudgetMb").getAsInt()) * 1024L * 1024L;
+	}
+
+	public long getDetailStoreBytes() {
+		return Math.max(1, config.get("detailStoreMb").getAsInt()) * 1024L * 1024L;
+	}
+
+	public int getMirrorParallelDownloads() {
+		return Math.max(1, Math.min(16, config.get("mirrorParallelDownloads").getAsInt()));
+	}
+
+	public boolean isHttp2Enabled() {
+		return config.get("http2Enabled").getAsBoolean();
+	}
+
+	public int getHttpMaxConnectionsPerHost() {
+		return Math.max(1, Math.min(32, config.get("httpMaxConnectionsPerHost").getAsInt()));
+	}
+
+	public int getMaxConcurrentRequests() {
+		return Math.max(4, Math.min(64, config.get("maxConcurrentRequests").getAsInt()));
+	}
+
+	public boolean isShardedIndexLoadingEnabled() {
+		return config.get("shardedIndexLoading").getAsBoolean();
+	}
+
 	public String getTagFilter() {
 		return config.get("tagFilter").getAsString();
 	}
@@ -177,10 +240,46 @@ public class DownloadSettings {
 		set("sortOption", sortOption);
 	}
 
+	public void setDateFilter(String dateFilter) {
+		set("dateFilter", dateFilter != null ? dateFilter : "any");
+	}
+
 	public void setItemsPerPage(int itemsPerPage) {
 		set("itemsPerPage", itemsPerPage);
 	}
 
+	public void setPrewarmOnStartupEnabled(boolean enabled) {
+		set("prewarmOnStartup", enabled);
+	}
+
+	public void setIndexMemoryBudgetMb(int megabytes) {
+		set("indexMemoryBudgetMb", Math.max(1, megabytes));
+	}
+
+	public void setDetailStoreMb(int megabytes) {
+		set("detailStoreMb", Math.max(1, megabytes));
+	}
+
+	public void setMirrorParallelDownloads(int downloads) {
+		set("mirrorParallelDownloads", Math.max(1, Math.min(16, downloads)));
+	}
+
+	public void setHttp2Enabled(boolean enabled) {
+		set("http2Enabled", enabled);
+	}
+
+	public void setHttpMaxConnectionsPerHost(int connections) {
+		set("httpMaxConnectionsPerHost", Math.max(1, Math.min(32, connections)));
+	}
+
+	public void setMaxConcurrentRequests(int requests) {
+		set("maxConcurrentRequests", Math.max(4, Math.min(64, requests)));
+	}
+
+	public void setShardedIndexLoadingEnabled(boolean enabled) {
+		set("shardedIndexLoading", enabled);
+	}
+
 	public void setTagFilter(String tagFilter) {
 		set("tagFilter", tagFilter != null ? tagFilter : "");
 	}
@@ -212,6 +311,39 @@ public class DownloadSettings {
 		save();
 	}
 
+	/**
+	 * Extra base URLs {@code server}'s archive may be downloaded from, in addition to those on its
+	 * {@link ServerEntry}: its own list followed by the ones set for every server.
+	 */
+	public List<String> getArchiveMirrors(ServerEntry server) {
+		ServerEntry target = server != null ? server : ServerDictionary.getDefaultServer();
+		JsonObject map = ensureArchiveMirrorMap();
+		List<String> mirrors = new ArrayList<>();
+		for (String key : List.of(getServerKey(target), ALL_SERVERS_KEY)) {
+			JsonElement list = map.get(key);
+			if (list == null || !list.isJsonArray()) {
+				continue;
+			}
+			for (JsonElement url : list.getAsJsonArray()) {
+				if (url.isJsonPrimitive()) {
+					mirrors.add(url.getAsString());
+				}
+			}
+		}
+		return mirrors;
+	}
+
+	public void setArchiveMirrors(ServerEntry server, List<String> mirrors) {
+		JsonObject map = ensureArchiveMirrorMap();
+		JsonArray list = new JsonArray();
+		if (mirrors != null) {
+			mirrors.forEach(list::add);
+		}
+		map.add(server != null ? getServerKey(server) : ALL_SERVERS_KEY, list);
+		config.add(KEY_ARCHIVE_MIRRORS, map);
+		save();
+	}
+
 	public ServerEntry getSelectedServer() {
 		String id = config.has("selectedServerId") ? config.get("selectedServerId").getAsString() : getDefaultServerId();
 		return ServerDictionary.findById(id).orElse(ServerDictionary.getDefaultServer());
@@ -225,7 +357,9 @@ public class DownloadSettings {
 	}
 
 	private File getConfigFile() {
-		Path configDir = FabricLoader.getInstance().getConfigDir();
+		Path configDir = System.getProperty(GAME_DIR_PROPERTY) != null
+			? gameDir().resolve("config")
+			: FabricLoader.getInstance().getConfigDir();
 		return configDir.resolve(CONFIG_FILE).toFile();
 	}
 
@@ -236,6 +370,13 @@ public class DownloadSettings {
 		return config.getAsJsonObject(KEY_JOINED_DISCORD_SERVERS);
 	}
 
+	private JsonObject ensureArchiveMirrorMap() {
+		if (!config.has(KEY_ARCHIVE_MIRRORS) || !config.get(KEY_ARCHIVE_MIRRORS).isJsonObject()) {
+			config.add(KEY_ARCHIVE_MIRRORS, new JsonObject());
+		}
+		return config.getAsJsonObject(KEY_ARCHIVE_MIRRORS);
+	}
+
 	private String getServerKey(ServerEntry server) {
 		if (server == null) return "default";
 		if (server.id() != null && !server.id().isBlank()) {
@@ -18,7 +18,10 @@ public final class ServerDictionary {
         String description,
         String discordInviteUrl,
         String submissionsUrl,
-        String downloadFolder
+        String downloadFolder,
+        // Extra base URLs serving the same files as the raw GitHub branch, tried in order when it
+        // is slow or down. {owner}, {repo} and {branch} are filled in from the fields above.
+        List<String> mirrorBaseUrls
     ) {}
 
     private static final List<ServerEntry> SERVERS = List.of(
@@ -31,7 +34,8 @@ public final class ServerDictionary {
             "Official Storage Tech 2 archive",
             "https://discord.gg/hztJMTsx2m",
             "https://discord.com/channels/1375556143186837695/1375575317007040654",
-            "st2"
+            "st2",
+            List.of()
         ),
         new ServerEntry(
             "soon",
@@ -42,7 +46,8 @@ public final class ServerDictionary {
             "Encoded storage community archives",
             "https://discord.gg/dkSM2PyzJe",
             "https://discord.com/channels/1325008017015701504/1390380935148601426",
-            "soon"
+            "soon",
+            List.of()
         ),
         new ServerEntry(
             "wither",
@@ -53,7 +58,8 @@ public final class ServerDictionary {
             "Wither technology",
             "https://discord.gg/wd594eEtfm",
             "https://discord.com/channels/913065809096638494/1391650300510867487",
-            "wither"
+            "wither",
+            List.of()
         ),
         new ServerEntry(
             "autocraft",
@@ -64,7 +70,8 @@ public final class ServerDictionary {
             "Autocrafting community",
             "https://discord.gg/guZdbQ9KQe",
             "https://discord.com/channels/856232076252282890/1452066872366206977",
-            "autocraft"
+            "autocraft",
+            List.of()
         )
     );
 
@@ -9,13 +9,16 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import com.andrews.st2downloader.config.DownloadSettings;
 import com.andrews.st2downloader.config.ServerDictionary;
 import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import com.andrews.st2downloader.gui.theme.UITheme;
+import com.andrews.st2downloader.gui.widget.AuthorFilterWidget;
 import com.andrews.st2downloader.gui.widget.ChannelDescriptionWidget;
 import com.andrews.st2downloader.gui.widget.ChannelFilterPanel;
 import com.andrews.st2downloader.gui.widget.CustomButton;
@@ -24,11 +27,16 @@ import com.andrews.st2downloader.gui.widget.DiscordJoinPopup;
 import com.andrews.st2downloader.gui.widget.LoadingSpinner;
 import com.andrews.st2downloader.gui.widget.PostDetailPanel;
 import com.andrews.st2downloader.gui.widget.PostGridWidget;
+import com.andrews.st2downloader.gui.widget.SuggestionDropdown;
 import com.andrews.st2downloader.gui.widget.TagFilterWidget;
 import com.andrews.st2downloader.models.ArchiveChannel;
+import com.andrews.st2downloader.models.ArchiveDateFilter;
 import com.andrews.st2downloader.models.ArchivePostSummary;
 import com.andrews.st2downloader.models.ArchiveSearchResult;
+import com.andrews.st2downloader.models.ArchiveSuggestion;
 import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.network.ArchiveNetworkManager.IndexHandle;
+import com.andrews.st2downloader.network.ArchiveVisitDiff;
 import com.andrews.st2downloader.util.RenderUtil;
 import com.andrews.st2downloader.util.TagUtil;
 
@@ -38,16 +46,26 @@ public class LitematicDownloaderScreen extends Screen {
     private static final int SIDEBAR_WIDTH = 200;
     private static final String DISCORD_INVITE_URL = "https://discord.gg/hztJMTsx2m";
     private static final String SUBMISSIONS_URL = "https://discord.com/channels/1375556143186837695/1375575317007040654";
+    private static final int FILTER_CONTROL_HEIGHT = 20;
+    private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+    private static final List<String> SORT_OPTIONS = List.of("newest", "name", "code");
+    private static final int MAX_LISTED_AUTHORS = 100;
+    private static final int MAX_SUGGESTIONS = 8;
     private ServerEntry selectedServer = DownloadSettings.getInstance().getSelectedServer();
 
     private CustomTextField searchField;
+    private final SuggestionDropdown suggestionDropdown = new SuggestionDropdown();
     private PostGridWidget postGrid;
     private PostDetailPanel detailPanel;
     private ChannelFilterPanel channelPanel;
     private ChannelDescriptionWidget channelDescriptionWidget;
     private TagFilterWidget tagFilterWidget;
+    private AuthorFilterWidget authorFilterWidget;
     private CustomButton serverButton;
     private CustomButton channelToggleButton;
+    private CustomButton sortButton;
+    private CustomButton dateButton;
+    private CustomButton changesButton;
     private CustomButton closeButton;
     private CustomButton submissionsButton;
     private CustomButton detailCloseButton;
@@ -63,21 +81,80 @@ public class LitematicDownloaderScreen extends Screen {
     private boolean isLoadingMore = false;
     private String currentSearchQuery = "";
     private String currentTagFilter = "";
-    private String selectedSort = "newest";
+    private String selectedSort = DownloadSettings.getInstance().getSortOption();
+    private DatePreset selectedDatePreset = DatePreset.fromId(DownloadSettings.getInstance().getDateFilter());
     private String selectedChannelPath = null;
     private boolean noResultsFound = false;
     private boolean initialized = false;
     private List<ArchiveChannel> channels = new ArrayList<>();
     private List<ArchivePostSummary> currentPosts = new ArrayList<>();
+    // Pins the index version the current result set came from, so later pages and details match it.
+    private IndexHandle searchHandle;
+    // Bumped by every search that acquires its own handle; only the latest one's handle is adopted.
+    private int searchGeneration = 0;
+    // Set once the screen is gone, so handles that arrive afterwards are released instead of kept.
+    private boolean closed = false;
+    private ArchiveVisitDiff visitDiff;
+    private boolean showChangesOnly = false;
     private boolean showDetailOverlay = false;
     private boolean showChannelPanel = false;
     private boolean showServerDropdown = false;
     private ArchiveChannel hoveredChannel = null;
     private ServerEntry hoveredServer = null;
     private enum TagState { INCLUDE, EXCLUDE }
+    private enum DatePreset {
+        ANY("any", "Any time"),
+        UPDATED_7D("updated_7d", "Updated 7d"),
+        UPDATED_30D("updated_30d", "Updated 30d"),
+        UPDATED_1Y("updated_1y", "Updated 1y"),
+        UPDATED_BEFORE_1Y("updated_before_1y", "Updated 1y+ ago"),
+        ARCHIVED_30D("archived_30d", "Archived 30d"),
+        ARCHIVED_1Y("archived_1y", "Archived 1y+ ago"),
+        // Older builds that were reworked recently; bounds both timestamps at once.
+        ARCHIVED_1Y_UPDATED_30D("archived_1y_updated_30d", "Old, updated 30d");
+
+        private final String id;
+        private final String label;
+
+        DatePreset(String id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        private ArchiveDateFilter toFilter(long now) {
+            return switch (this) {
+                case ANY -> ArchiveDateFilter.NONE;
+                case UPDATED_7D -> ArchiveDateFilter.updatedAfter(now - 7 * DAY_MILLIS);
+                case UPDATED_30D -> ArchiveDateFilter.updatedAfter(now - 30 * DAY_MILLIS);
+                case UPDATED_1Y -> ArchiveDateFilter.updatedAfter(now - 365 * DAY_MILLIS);
+                case UPDATED_BEFORE_1Y -> ArchiveDateFilter.updatedBefore(now - 365 * DAY_MILLIS);
+                case ARCHIVED_30D -> ArchiveDateFilter.archivedAfter(now - 30 * DAY_MILLIS);
+                case ARCHIVED_1Y -> ArchiveDateFilter.archivedBefore(now - 365 * DAY_MILLIS);
+                case ARCHIVED_1Y_UPDATED_30D -> ArchiveDateFilter.archivedBefore(now - 365 * DAY_MILLIS)
+                    .withUpdated(now - 30 * DAY_MILLIS, Long.MAX_VALUE);
+            };
+        }
+
+        private DatePreset next() {
+            DatePreset[] values = values();
+            return values[(ordinal() + 1) % values.length];
+        }
+
+        private static DatePreset fromId(String id) {
+            for (DatePreset preset : values()) {
+                if (preset.id.equals(id)) {
+                    return preset;
+                }
+            }
+            return ANY;
+        }
+    }
     private final Map<String, TagState> tagStates = new HashMap<>();
     private final Map<String, Integer> tagCounts = new HashMap<>();
     private final Map<String, Integer> channelCounts = new HashMap<>();
+    private final Map<String, String> selectedAuthors = new LinkedHashMap<>();
+    private final Map<String, Integer> authorCounts = new HashMap<>();
+    private List<String> displayedAuthors = new ArrayList<>();
 
     public LitematicDownloaderScreen() {
         super(Component.nullToEmpty("Litematic Downloader"));
@@ -135,12 +212,32 @@ public class LitematicDownloaderScreen extends Screen {
                 Component.nullToEmpty("Search")
             );
             searchField.setHint(Component.nullToEmpty("Search posts, codes, tags"));
-            searchField.setOnEnterPressed(this::performSearch);
+            searchField.setOnEnterPressed(() -> {
+                ArchiveSuggestion highlighted = suggestionDropdown.getHighlighted();
+                if (highlighted != null) {
+                    acceptSuggestion(highlighted);
+                } else {
+                    suggestionDropdown.clear();
+                    performSearch();
+                }
+            });
             searchField.setOnClearPressed(this::performSearch);
             searchField.setOnChanged(() -> {
                 currentPage = 1;
                 performSearch();
+                updateSuggestions();
+            });
+            searchField.setOnNavigate(suggestionDropdown::moveHighlight);
+            searchField.setOnTabPressed(() -> {
+                if (!suggestionDropdown.isVisible()) return;
+                ArchiveSuggestion highlighted = suggestionDropdown.getHighlighted();
+                if (highlighted == null) {
+                    suggestionDropdown.moveHighlight(1);
+                    highlighted = suggestionDropdown.getHighlighted();
+                }
+                acceptSuggestion(highlighted);
             });
+            suggestionDropdown.setPosition(startX, PADDING + SEARCH_BAR_HEIGHT, searchBarWidth);
             if (!previousSearchText.isEmpty()) {
                 searchField.setValue(previousSearchText);
             }
@@ -175,10 +272,12 @@ public class LitematicDownloaderScreen extends Screen {
             postGrid = new PostGridWidget(PADDING / 2, gridY, gridWidth, gridHeight, this::onPostClick);
             postGrid.setOnEndReached(this::loadNextPage);
             postGrid.setServer(selectedServer);
+            postGrid.setVisitDiff(visitDiff);
         } else {
             postGrid.setDimensions(PADDING / 2, gridY, gridWidth, gridHeight);
             postGrid.setOnEndReached(this::loadNextPage);
             postGrid.setServer(selectedServer);
+            postGrid.setVisitDiff(visitDiff);
         }
 
         if (detailPanel == null) {
@@ -220,8 +319,10 @@ public class LitematicDownloaderScreen extends Screen {
                     performSearch();
                 });
                 channelPanel.setOnHoverChanged(channel -> hoveredChannel = channel);
+                channelPanel.setServer(selectedServer);
                 channelPanel.setChannels(channels);
                 channelPanel.setChannelCounts(channelCounts);
+                channelPanel.setSelectedChannelPath(selectedChannelPath);
             } else {
                 channelPanel.setDimensions(PADDING, PADDING * 2 + SEARCH_BAR_HEIGHT, SIDEBAR_WIDTH - PADDING, channelHeight);
                 channelPanel.setChannelCounts(channelCounts);
@@ -244,6 +345,29 @@ public class LitematicDownloaderScreen extends Screen {
                     performSearch();
                 });
             }
+            if (authorFilterWidget == null) {
+                authorFilterWidget = new AuthorFilterWidget();
+                authorFilterWidget.setOnToggle((author, selected) -> {
+                    if (author == null || author.isEmpty()) return;
+                    if (selected) {
+                        selectedAuthors.put(author.toLowerCase(), author);
+                    } else {
+                        selectedAuthors.remove(author.toLowerCase());
+                    }
+                    refreshDisplayedAuthors();
+                    currentPage = 1;
+                    performSearch();
+                });
+            }
+            if (sortButton == null) {
+                sortButton = new CustomButton(0, 0, 100, FILTER_CONTROL_HEIGHT, Component.nullToEmpty(getSortButtonLabel()), button -> cycleSort());
+            }
+            if (dateButton == null) {
+                dateButton = new CustomButton(0, 0, 100, FILTER_CONTROL_HEIGHT, Component.nullToEmpty(getDateButtonLabel()), button -> cycleDatePreset());
+            }
+            if (changesButton == null) {
+                changesButton = new CustomButton(0, 0, 100, FILTER_CONTROL_HEIGHT, Component.nullToEmpty(getChangesButtonLabel()), button -> toggleChangesOnly());
+            }
         }
 
         closeButton = new CustomButton(
@@ -258,6 +382,7 @@ public class LitematicDownloaderScreen extends Screen {
         if (!initialized) {
             initialized = true;
             loadChannels();
+            loadVisitDiff();
             performSearch();
         } else {
             updatePaginationButtons();
@@ -303,8 +428,25 @@ public class LitematicDownloaderScreen extends Screen {
         List<String> channelFilter = selectedChannelPath != null ? List.of(selectedChannelPath) : null;
         List<String> includeTags = getTagList(TagState.INCLUDE);
         List<String> excludeTags = getTagList(TagState.EXCLUDE);
-
-        ArchiveNetworkManager.searchPosts(requestServer, currentSearchQuery, selectedSort, currentTagFilter, includeTags, excludeTags, channelFilter, currentPage, itemsPerPage)
+        List<String> authorFilter = selectedAuthors.isEmpty() ? null : new ArrayList<>(selectedAuthors.values());
+
+        ArchiveDateFilter dateFilter = selectedDatePreset.toFilter(System.currentTimeMillis());
+
+        String query = currentSearchQuery;
+        String sort = selectedSort;
+        String tag = currentTagFilter;
+        int page = currentPage;
+        boolean changesOnly = showChangesOnly;
+        CompletableFuture<ArchiveSearchResult> request;
+        if (append && searchHandle != null) {
+            request = ArchiveNetworkManager.searchPosts(searchHandle, query, sort, tag, includeTags, excludeTags, channelFilter, authorFilter, dateFilter, changesOnly, page, itemsPerPage);
+        } else {
+            int generation = ++searchGeneration;
+            request = ArchiveNetworkManager.acquireIndex(requestServer, channelFilter)
+                .thenCompose(handle -> ArchiveNetworkManager.searchPosts(handle, query, sort, tag, includeTags, excludeTags, channelFilter, authorFilter, dateFilter, changesOnly, page, itemsPerPage)
+                    .whenComplete((result, throwable) -> adoptSearchHandle(handle, generation)));
+        }
+        request
             .thenAccept(result -> handleSearchResponse(requestServer, result))
             .exceptionally(throwable -> {
                 if (this.minecraft != null) {
@@ -339,6 +481,39 @@ public class LitematicDownloaderScreen extends Screen {
             });
     }
 
+    private void adoptSearchHandle(IndexHandle handle, int generation) {
+        if (this.minecraft == null) {
+            handle.close();
+            return;
+        }
+        this.minecraft.execute(() -> {
+            // A search that finishes after the screen closed, or after a newer search was issued,
+            // would otherwise pin its index version with nothing left to release it.
+            if (closed || generation != searchGeneration || !isActiveServer(handle.server())) {
+                handle.close();
+                return;
+            }
+            IndexHandle previous = searchHandle;
+            searchHandle = handle;
+            if (detailPanel != null) {
+                detailPanel.setIndexHandle(handle);
+            }
+            if (previous != null) {
+                previous.close();
+            }
+        });
+    }
+
+    private void releaseSearchHandle() {
+        if (detailPanel != null) {
+            detailPanel.setIndexHandle(null);
+        }
+        if (searchHandle != null) {
+            searchHandle.close();
+            searchHandle = null;
+        }
+    }
+
     private void handleSearchResponse(ServerEntry responseServer, ArchiveSearchResult response) {
         if (this.minecraft != null) {
             if (!isActiveServer(responseServer)) {
@@ -385,6 +560,11 @@ public class LitematicDownloaderScreen extends Screen {
                     channelPanel.setChannelCounts(channelCounts);
                 }
                 updateTagCounts(response.tagCounts());
+                authorCounts.clear();
+                if (response.authorCounts() != null) {
+                    authorCounts.putAll(response.authorCounts());
+                }
+                refreshDisplayedAuthors();
 
                 isLoading = false;
                 isLoadingMore = false;
@@ -454,6 +634,7 @@ public class LitematicDownloaderScreen extends Screen {
             showServerDropdown = false;
             return;
         }
+        ArchiveNetworkManager.markVisited(selectedServer != null ? selectedServer : ServerDictionary.getDefaultServer());
         selectedServer = target;
         showServerDropdown = false;
         hoveredServer = null;
@@ -462,6 +643,10 @@ public class LitematicDownloaderScreen extends Screen {
         tagStates.clear();
         tagCounts.clear();
         channelCounts.clear();
+        selectedAuthors.clear();
+        suggestionDropdown.clear();
+        authorCounts.clear();
+        displayedAuthors = new ArrayList<>();
         channels = new ArrayList<>();
         currentPosts.clear();
         currentPage = 1;
@@ -473,6 +658,7 @@ public class LitematicDownloaderScreen extends Screen {
 
         DownloadSettings.getInstance().setSelectedServer(target);
         if (channelPanel != null) {
+            channelPanel.setServer(target);
             channelPanel.setChannels(channels);
             channelPanel.setChannelCounts(channelCounts);
         }
@@ -487,8 +673,12 @@ public class LitematicDownloaderScreen extends Screen {
             detailPanel.setServer(target);
             detailPanel.clear();
         }
+        releaseSearchHandle();
+        setVisitDiff(null);
+        showChangesOnly = false;
 
         loadChannels();
+        loadVisitDiff();
         performSearch();
     }
 
@@ -522,6 +712,37 @@ public class LitematicDownloaderScreen extends Screen {
             });
     }
 
+    private void loadVisitDiff() {
+        ServerEntry requestServer = selectedServer != null ? selectedServer : ServerDictionary.getDefaultServer();
+        ArchiveNetworkManager.getChangesSinceLastVisit(requestServer)
+            .thenAccept(diff -> {
+                if (!isActiveServer(requestServer)) {
+                    return;
+                }
+                if (this.minecraft != null) {
+                    this.minecraft.execute(() -> {
+                        if (isActiveServer(requestServer)) {
+                            setVisitDiff(diff);
+                        }
+                    });
+                }
+            })
+            .exceptionally(throwable -> {
+                System.err.println("Failed to compare with last visit: " + throwable.getMessage());
+                return null;
+            });
+    }
+
+    private void setVisitDiff(ArchiveVisitDiff diff) {
+        visitDiff = diff;
+        if (postGrid != null) {
+            postGrid.setVisitDiff(diff);
+        }
+        if (changesButton != null) {
+            changesButton.setMessage(Component.nullToEmpty(getChangesButtonLabel()));
+        }
+    }
+
     private void onPostClick(ArchivePostSummary post) {
         if (detailPanel != null && post != null) {
             detailPanel.setDimensions(PADDING, PADDING, this.width - PADDING * 2, this.height - PADDING * 2);
@@ -582,6 +803,9 @@ public class LitematicDownloaderScreen extends Screen {
 
         if (searchField != null) {
             searchField.render(context, mouseX, mouseY, delta);
+            if (searchField.isFocused() && !showDetailOverlay) {
+                suggestionDropdown.render(context, this.font, mouseX, mouseY);
+            }
         }
 
         if (showServerDropdown) {
@@ -673,12 +897,21 @@ public class LitematicDownloaderScreen extends Screen {
             return true;
         }
 
+        if (button == 0 && searchField != null && searchField.isFocused()) {
+            ArchiveSuggestion clicked = suggestionDropdown.getSuggestionAt(mouseX, mouseY);
+            if (clicked != null) {
+                acceptSuggestion(clicked);
+                return true;
+            }
+        }
+
         if (button == 0 && searchField != null) {
             if (searchField.isMouseOver(mouseX, mouseY)) {
                 searchField.setFocused(true);
                 return true;
             } else {
                 searchField.setFocused(false);
+                suggestionDropdown.clear();
             }
         }
 
@@ -688,9 +921,33 @@ public class LitematicDownloaderScreen extends Screen {
             if (channelPanel != null && channelPanel.mouseClicked(mouseX, mouseY, button)) {
                 return true;
             }
+            if (button == 0 && isMouseOverButton(sortButton, mouseX, mouseY)) {
+                if (this.minecraft != null) {
+                    sortButton.playDownSound(this.minecraft.getSoundManager());
+                }
+                cycleSort();
+                return true;
+            }
+            if (button == 0 && isMouseOverButton(dateButton, mouseX, mouseY)) {
+                if (this.minecraft != null) {
+                    dateButton.playDownSound(this.minecraft.getSoundManager());
+                }
+                cycleDatePreset();
+                return true;
+            }
+            if (button == 0 && isMouseOverButton(changesButton, mouseX, mouseY)) {
+                if (this.minecraft != null) {
+                    changesButton.playDownSound(this.minecraft.getSoundManager());
+                }
+                toggleChangesOnly();
+                return true;
+            }
             if (tagFilterWidget != null && tagFilterWidget.handleClick(mouseX, mouseY)) {
                 return true;
             }
+            if (authorFilterWidget != null && authorFilterWidget.handleClick(mouseX, mouseY)) {
+                return true;
+            }
             showChannelPanel = false;
             return true;
         }
@@ -766,6 +1023,9 @@ public class LitematicDownloaderScreen extends Screen {
             if (tagFilterWidget != null && tagFilterWidget.handleScroll(mouseX, mouseY, verticalAmount)) {
                 return true;
             }
+            if (authorFilterWidget != null && authorFilterWidget.handleScroll(mouseX, mouseY, verticalAmount)) {
+                return true;
+            }
             return true;
         }
         if (showDetailOverlay && detailPanel != null && detailPanel.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount)) {
@@ -811,10 +1071,21 @@ public class LitematicDownloaderScreen extends Screen {
     @Override
     public void onClose() {
         clearDiscordPopup();
+        closed = true;
+        releaseSearchHandle();
+        ArchiveNetworkManager.markVisited(selectedServer != null ? selectedServer : ServerDictionary.getDefaultServer());
         ArchiveNetworkManager.clearCache();
         super.onClose();
     }
 
+    @Override
+    public void removed() {
+        // Closing through the keybinding replaces the screen without calling onClose.
+        closed = true;
+        releaseSearchHandle();
+        super.removed();
+    }
+
     private void renderChannelDescription(GuiGraphics context, int mouseX, int mouseY, float delta) {
         if (channelPanel == null) return;
         ArchiveChannel channel = hoveredChannel != null ? hoveredChannel : channels.stream()
@@ -838,14 +1109,112 @@ public class LitematicDownloaderScreen extends Screen {
             channelDescriptionWidget.render(context, this.font);
         }
 
-        int tagY = boxY + boxHeight + UITheme.Dimensions.PADDING;
-        int tagHeight = this.height - tagY - PADDING;
+        int controlsY = boxY + boxHeight + UITheme.Dimensions.PADDING;
+        int controlGap = UITheme.Dimensions.PADDING;
+        int controlWidth = (boxWidth - controlGap) / 2;
+        if (sortButton != null) {
+            sortButton.setX(boxX);
+            sortButton.setY(controlsY);
+            sortButton.setWidth(controlWidth);
+            sortButton.render(context, mouseX, mouseY, delta);
+        }
+        if (dateButton != null) {
+            dateButton.setX(boxX + controlWidth + controlGap);
+            dateButton.setY(controlsY);
+            dateButton.setWidth(boxWidth - controlWidth - controlGap);
+            dateButton.render(context, mouseX, mouseY, delta);
+        }
+
+        int changesY = controlsY + FILTER_CONTROL_HEIGHT + UITheme.Dimensions.PADDING;
+        if (changesButton != null) {
+            changesButton.setX(boxX);
+            changesButton.setY(changesY);
+            changesButton.setWidth(boxWidth);
+            changesButton.render(context, mouseX, mouseY, delta);
+        }
+
+        int tagY = changesY + FILTER_CONTROL_HEIGHT + UITheme.Dimensions.PADDING;
+        int filterSpace = this.height - tagY - PADDING;
+        int tagHeight = filterSpace;
+        long windowHandle = this.minecraft != null ? this.minecraft.getWindow().handle() : 0L;
         if (tagFilterWidget != null) {
-            tagFilterWidget.setBounds(boxX, tagY, boxWidth, tagHeight);
             tagFilterWidget.setData(getDisplayedTags(), tagCounts, convertTagStates());
-            long windowHandle = this.minecraft != null ? this.minecraft.getWindow().handle() : 0L;
+            tagHeight = Math.min(tagFilterWidget.getPreferredHeight(), filterSpace / 2);
+            tagFilterWidget.setBounds(boxX, tagY, boxWidth, tagHeight);
             tagFilterWidget.render(context, this.font, mouseX, mouseY, delta, windowHandle);
         }
+
+        int authorY = tagY + tagHeight + UITheme.Dimensions.PADDING;
+        if (authorFilterWidget != null) {
+            authorFilterWidget.setBounds(boxX, authorY, boxWidth, this.height - authorY - PADDING);
+            authorFilterWidget.setData(displayedAuthors, authorCounts, selectedAuthors.keySet());
+            authorFilterWidget.render(context, this.font, mouseX, mouseY, delta, windowHandle);
+        }
+    }
+
+    private void refreshDisplayedAuthors() {
+        List<String> authors = new ArrayList<>(selectedAuthors.values());
+        authorCounts.entrySet().stream()
+            .filter(entry -> entry.getKey() != null && !selectedAuthors.containsKey(entry.getKey().toLowerCase()))
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER)))
+            .limit(MAX_LISTED_AUTHORS)
+            .forEach(entry -> authors.add(entry.getKey()));
+        displayedAuthors = authors;
+    }
+
+    private void cycleSort() {
+        int index = SORT_OPTIONS.indexOf(selectedSort);
+        selectedSort = SORT_OPTIONS.get((index + 1) % SORT_OPTIONS.size());
+        DownloadSettings.getInstance().setSortOption(selectedSort);
+        if (sortButton != null) {
+            sortButton.setMessage(Component.nullToEmpty(getSortButtonLabel()));
+        }
+        currentPage = 1;
+        performSearch();
+    }
+
+    private void cycleDatePreset() {
+        selectedDatePreset = selectedDatePreset.next();
+        DownloadSettings.getInstance().setDateFilter(selectedDatePreset.id);
+        if (dateButton != null) {
+            dateButton.setMessage(Component.nullToEmpty(getDateButtonLabel()));
+        }
+        currentPage = 1;
+        performSearch();
+    }
+
+    private void toggleChangesOnly() {
+        showChangesOnly = !showChangesOnly;
+        if (changesButton != null) {
+            changesButton.setMessage(Component.nullToEmpty(getChangesButtonLabel()));
+        }
+        currentPage = 1;
+        performSearch();
+    }
+
+    private String getChangesButtonLabel() {
+        String prefix = showChangesOnly ? "Only changes" : "Since last visit";
+        if (visitDiff == null) {
+            return prefix + ": ...";
+        }
+        if (!visitDiff.hasBaseline()) {
+            return prefix + ": first visit";
+        }
+        return prefix + ": " + visitDiff.newCount() + " new, " + visitDiff.updatedCount() + " updated, "
+            + visitDiff.removedCount() + " removed";
+    }
+
+    private String getSortButtonLabel() {
+        String label = switch (selectedSort != null ? selectedSort : "") {
+            case "name" -> "Name";
+            case "code" -> "Code";
+            default -> "Newest";
+        };
+        return "Sort: " + label;
+    }
+
+    private String getDateButtonLabel() {
+        return selectedDatePreset.label;
     }
 
     private void renderServerDropdown(GuiGraphics context, int mouseX, int mouseY, float delta) {
@@ -1001,6 +1370,56 @@ public class LitematicDownloaderScreen extends Screen {
         return list;
     }
 
+    private void updateSuggestions() {
+        if (searchField == null) return;
+        String text = searchField.getValue();
+        if (text.isBlank()) {
+            suggestionDropdown.clear();
+            return;
+        }
+        ServerEntry server = selectedServer;
+        ArchiveNetworkManager.getSuggestions(server, text, MAX_SUGGESTIONS)
+            .thenAccept(suggestions -> {
+                if (this.minecraft == null) return;
+                this.minecraft.execute(() -> {
+                    if (searchField != null && text.equals(searchField.getValue()) && server == selectedServer) {
+                        suggestionDropdown.setSuggestions(suggestions);
+                    }
+                });
+            })
+            .exceptionally(throwable -> {
+                System.err.println("Failed to load suggestions: " + throwable.getMessage());
+                return null;
+            });
+    }
+
+    private void acceptSuggestion(ArchiveSuggestion suggestion) {
+        if (suggestion == null || searchField == null) return;
+        suggestionDropdown.clear();
+        switch (suggestion.type()) {
+            case TAG -> {
+                tagStates.put(suggestion.value().toLowerCase(), TagState.INCLUDE);
+                searchField.setValue("");
+            }
+            case AUTHOR -> {
+                selectedAuthors.put(suggestion.value().toLowerCase(), suggestion.value());
+                refreshDisplayedAuthors();
+                searchField.setValue("");
+            }
+            case CHANNEL -> {
+                selectedChannelPath = suggestion.value();
+                resetTagStatesForChannel(selectedChannelPath);
+                if (channelPanel != null) {
+                    channelPanel.setSelectedChannelPath(selectedChannelPath);
+                }
+                searchField.setValue("");
+            }
+            case TITLE -> searchField.setValue(suggestion.value());
+        }
+        currentPage = 1;
+        performSearch();
+    }
+
     private void resetTagStatesForChannel(String path) {
         tagStates.clear();
         updateTagCounts();
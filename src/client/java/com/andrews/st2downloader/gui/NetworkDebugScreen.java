@@ -0,0 +1,161 @@
+package com.andrews.st2downloader.gui;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.andrews.st2downloader.config.ServerDictionary;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+import com.andrews.st2downloader.gui.theme.UITheme;
+import com.andrews.st2downloader.gui.widget.CustomButton;
+import com.andrews.st2downloader.models.ArchiveNetworkStats;
+import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.network.ArchiveSourceSelector;
+import com.andrews.st2downloader.network.ArchiveSourceSelector.SourceStatus;
+import com.andrews.st2downloader.util.RenderUtil;
+
+/**
+ * Shows which source each server's archive is downloaded from, how fast every source answered its
+ * last probe, and the shared HTTP client's counters.
+ */
+public class NetworkDebugScreen extends Screen {
+    private static final int PADDING = 10;
+    private static final int BUTTON_WIDTH = 70;
+
+    private CustomButton probeButton;
+    private CustomButton closeButton;
+
+    public NetworkDebugScreen() {
+        super(Component.nullToEmpty("ST2 Network"));
+    }
+
+    @Override
+    protected void init() {
+        int buttonHeight = UITheme.Dimensions.BUTTON_HEIGHT;
+        probeButton = new CustomButton(
+            this.width - PADDING * 2 - BUTTON_WIDTH - buttonHeight,
+            PADDING,
+            BUTTON_WIDTH,
+            buttonHeight,
+            Component.nullToEmpty("Re-probe"),
+            button -> probeAll()
+        );
+        closeButton = new CustomButton(
+            this.width - PADDING - buttonHeight,
+            PADDING,
+            buttonHeight,
+            buttonHeight,
+            Component.nullToEmpty("X"),
+            button -> this.onClose()
+        );
+        closeButton.setRenderAsXIcon(true);
+    }
+
+    @Override
+    public void render(GuiGraphics context, int mouseX, int mouseY, float delta) {
+        super.render(context, mouseX, mouseY, delta);
+        RenderUtil.fillRect(context, 0, 0, this.width, this.height, UITheme.Colors.PANEL_BG);
+
+        int lineHeight = UITheme.Typography.LINE_HEIGHT;
+        int y = PADDING + 6;
+        RenderUtil.drawString(context, this.font, "Archive sources", PADDING, y, UITheme.Colors.TEXT_PRIMARY);
+        y += lineHeight + 8;
+
+        long now = System.currentTimeMillis();
+        for (ServerEntry server : ServerDictionary.getServers()) {
+            RenderUtil.drawString(context, this.font, server.name(), PADDING, y, UITheme.Colors.TEXT_SUBTITLE);
+            y += lineHeight;
+            List<SourceStatus> sources = ArchiveSourceSelector.getStatus(server);
+            for (SourceStatus source : sources) {
+                String marker = source.selected() ? "▶ " : "   ";
+                int color = !source.healthy() ? UITheme.Colors.ERROR_TEXT
+                    : source.selected() ? UITheme.Colors.TOGGLE_ON
+                    : UITheme.Colors.TEXT_PRIMARY;
+                RenderUtil.drawString(context, this.font, marker + source.baseUrl(), PADDING + 8, y, color);
+                String detail = describe(source, now);
+                RenderUtil.drawString(context, this.font, detail, this.width - PADDING - this.font.width(detail), y, UITheme.Colors.TEXT_MUTED);
+                y += lineHeight;
+            }
+            if (sources.size() == 1) {
+                RenderUtil.drawString(context, this.font, "No mirrors configured", PADDING + 8, y, UITheme.Colors.TEXT_DISABLED);
+                y += lineHeight;
+            }
+            y += 4;
+        }
+
+        y += 4;
+        RenderUtil.fillRect(context, PADDING, y, this.width - PADDING, y + 1, UITheme.Colors.PANEL_BORDER);
+        y += 8;
+        RenderUtil.drawString(context, this.font, "Requests", PADDING, y, UITheme.Colors.TEXT_PRIMARY);
+        y += lineHeight + 4;
+        for (String line : statLines(ArchiveNetworkManager.getStats())) {
+            RenderUtil.drawString(context, this.font, line, PADDING + 8, y, UITheme.Colors.TEXT_SUBTITLE);
+            y += lineHeight;
+        }
+
+        if (probeButton != null) {
+            probeButton.render(context, mouseX, mouseY, delta);
+        }
+        if (closeButton != null) {
+            closeButton.render(context, mouseX, mouseY, delta);
+        }
+    }
+
+    private static String describe(SourceStatus source, long now) {
+        String latency = source.latencyMillis() >= 0 ? source.latencyMillis() + " ms" : "-";
+        String health = source.healthy() ? "ok" : "down";
+        if (source.failures() > 0) {
+            health += " (" + source.failures() + " failed)";
+        }
+        String checked = source.checkedAt() > 0 ? ((now - source.checkedAt()) / 1000) + "s ago" : "not probed";
+        return latency + "  " + health + "  " + checked;
+    }
+
+    private static List<String> statLines(ArchiveNetworkStats stats) {
+        return List.of(
+            "HTTP requests: " + stats.httpRequests() + "  (HTTP/2 responses: " + stats.http2Responses() + ")",
+            "TLS handshakes: " + stats.tlsHandshakes() + "  reused connections: " + stats.connectionsReused(),
+            "Queued: " + stats.requestsQueued() + "  promoted: " + stats.requestsPromoted(),
+            "Retried: " + stats.requestsRetried() + "  hedged: " + stats.requestsHedged() + "  rate limited: " + stats.rateLimited(),
+            "Source failovers: " + stats.sourceFailovers(),
+            "Loads issued: " + stats.requestsIssued() + "  coalesced: " + stats.requestsCoalesced(),
+            String.format(Locale.ROOT, "Index versions: live %d, pinned handles %d, resident %d (%.1f MB)",
+                stats.liveSnapshots(), stats.openHandles(), stats.residentIndexes(), stats.residentIndexBytes() / (1024.0 * 1024.0))
+        );
+    }
+
+    private static void probeAll() {
+        for (ServerEntry server : ServerDictionary.getServers()) {
+            ArchiveSourceSelector.probe(server);
+        }
+    }
+
+    @Override
+    public boolean mouseClicked(net.minecraft.client.input.MouseButtonEvent click, boolean doubled) {
+        if (click.button() == 0) {
+            for (CustomButton button : new CustomButton[] {probeButton, closeButton}) {
+                if (isMouseOverButton(button, click.x(), click.y())) {
+                    if (this.minecraft != null) {
+                        button.playDownSound(this.minecraft.getSoundManager());
+                    }
+                    button.onPress(click);
+                    return true;
+                }
+            }
+        }
+        return super.mouseClicked(click, doubled);
+    }
+
+    private static boolean isMouseOverButton(CustomButton button, double mouseX, double mouseY) {
+        return button != null && mouseX >= button.getX() && mouseX < button.getX() + button.getWidth()
+            && mouseY >= button.getY() && mouseY < button.getY() + button.getHeight();
+    }
+
+    @Override
+    public boolean isPauseScreen() {
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package com.andrews.st2downloader.gui.widget;
+
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import com.andrews.st2downloader.gui.theme.UITheme;
+import com.andrews.st2downloader.util.RenderUtil;
+
+public class AuthorFilterWidget {
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private final int rowHeight = 18;
+    private ScrollBar scrollBar;
+    private int lastBoxHeight = 0;
+    private double scrollOffset = 0;
+    private int contentHeight = 0;
+    private List<String> authors = new ArrayList<>();
+    private Map<String, Integer> counts = new HashMap<>();
+    private Set<String> selected = new HashSet<>();
+    private final List<AuthorHitbox> hitboxes = new ArrayList<>();
+    private BiConsumer<String, Boolean> onToggle;
+
+    public void setBounds(int x, int y, int width, int height) {
+        boolean needsNewScrollBar = this.scrollBar == null || this.width != width || this.height != height
+                || this.x != x || this.y != y;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        if (needsNewScrollBar) {
+            this.scrollBar = new ScrollBar(
+                    x + width - UITheme.Dimensions.SCROLLBAR_WIDTH - UITheme.Dimensions.BORDER_WIDTH,
+                    y + this.rowHeight, height - this.rowHeight - UITheme.Dimensions.PADDING);
+        }
+    }
+
+    /**
+     * @param authors  authors to list, selected ones first
+     * @param counts   matching post count per author name
+     * @param selected lowercase names of the authors currently filtered on
+     */
+    public void setData(List<String> authors, Map<String, Integer> counts, Set<String> selected) {
+        this.authors = authors != null ? authors : new ArrayList<>();
+        this.counts = counts != null ? counts : new HashMap<>();
+        this.selected = selected != null ? selected : new HashSet<>();
+    }
+
+    public void setOnToggle(BiConsumer<String, Boolean> callback) {
+        this.onToggle = callback;
+    }
+
+    public void render(GuiGraphics context, Font font, int mouseX, int mouseY, float delta, long windowHandle) {
+        if (height <= rowHeight) {
+            hitboxes.clear();
+            return;
+        }
+        if (scrollBar == null) {
+            scrollBar = new ScrollBar(x + width - UITheme.Dimensions.SCROLLBAR_WIDTH - UITheme.Dimensions.BORDER_WIDTH,
+                    y + rowHeight, height - rowHeight - UITheme.Dimensions.PADDING);
+        }
+        hitboxes.clear();
+        contentHeight = rowHeight + Math.max(1, authors.size()) * rowHeight + UITheme.Dimensions.PADDING;
+        int boxHeight = Math.min(height, contentHeight);
+        lastBoxHeight = boxHeight;
+        double maxScroll = Math.max(0, contentHeight - boxHeight);
+        scrollOffset = Math.max(0, Math.min(scrollOffset, maxScroll));
+
+        RenderUtil.fillRect(context, x, y, x + width, y + boxHeight, UITheme.Colors.PANEL_BG_SECONDARY);
+        RenderUtil.fillRect(context, x, y, x + width, y + UITheme.Dimensions.BORDER_WIDTH, UITheme.Colors.BUTTON_BORDER);
+        RenderUtil.fillRect(context, x, y, x + UITheme.Dimensions.BORDER_WIDTH, y + boxHeight, UITheme.Colors.BUTTON_BORDER);
+        RenderUtil.fillRect(context, x + width - UITheme.Dimensions.BORDER_WIDTH, y, x + width, y + boxHeight,
+                UITheme.Colors.BUTTON_BORDER);
+        RenderUtil.fillRect(context, x, y + boxHeight - UITheme.Dimensions.BORDER_WIDTH, x + width, y + boxHeight,
+                UITheme.Colors.BUTTON_BORDER);
+
+        RenderUtil.drawScaledString(context, "Authors", x + UITheme.Dimensions.PADDING, y + 4, UITheme.Colors.TEXT_PRIMARY,
+                0.9f);
+
+        int clipTop = y + rowHeight;
+        int clipBottom = y + boxHeight - UITheme.Dimensions.PADDING;
+        int currentY = y + rowHeight - (int) scrollOffset;
+        int textHeight = (int) (font.lineHeight * 0.85f);
+        int centerOffset = (rowHeight - textHeight) / 2;
+        RenderUtil.enableScissor(context, x + 1, clipTop, x + width - 1, clipBottom);
+
+        if (authors.isEmpty()) {
+            RenderUtil.drawScaledString(context, "No authors", x + UITheme.Dimensions.PADDING, currentY + centerOffset,
+                    UITheme.Colors.TEXT_MUTED, 0.85f);
+        }
+
+        int scrollbarWidth = scrollBar.isVisible() ? UITheme.Dimensions.SCROLLBAR_WIDTH : 0;
+
+        for (String author : authors) {
+            boolean isSelected = selected.contains(author.toLowerCase());
+            if (currentY + rowHeight >= clipTop && currentY <= clipBottom) {
+                int bgColor = isSelected ? 0x5532cd32 : UITheme.Colors.PANEL_BG;
+                RenderUtil.fillRect(context, x + 1, currentY, x + width - 1, currentY + rowHeight, bgColor);
+                RenderUtil.drawScaledString(context, author, x + UITheme.Dimensions.PADDING, currentY + centerOffset,
+                        UITheme.Colors.TEXT_PRIMARY, 0.85f, width - 50);
+
+                String countText = String.valueOf(counts.getOrDefault(author, 0));
+                RenderUtil.drawString(context, font, countText,
+                        x + width - UITheme.Dimensions.PADDING - font.width(countText) - scrollbarWidth,
+                        currentY + 4, UITheme.Colors.TEXT_SUBTITLE);
+            }
+
+            hitboxes.add(new AuthorHitbox(author, x + 1, Math.max(currentY, clipTop), x + width - 1,
+                    Math.min(currentY + rowHeight, clipBottom)));
+            currentY += rowHeight;
+        }
+
+        RenderUtil.disableScissor(context);
+
+        scrollBar.setScrollData(contentHeight, boxHeight);
+        if (maxScroll <= 0) {
+            scrollBar.setScrollPercentage(0);
+            scrollOffset = 0;
+        } else {
+            scrollBar.setScrollPercentage(scrollOffset / maxScroll);
+        }
+        boolean changed = false;
+        if (windowHandle != 0L) {
+            changed = scrollBar.updateAndRender(context, mouseX, mouseY, delta, windowHandle);
+        } else {
+            scrollBar.render(context, mouseX, mouseY, delta);
+        }
+        if (changed || scrollBar.isDragging()) {
+            scrollOffset = scrollBar.getScrollPercentage() * maxScroll;
+        }
+    }
+
+    public boolean handleClick(double mouseX, double mouseY) {
+        if (scrollBar != null && scrollBar.mouseClicked(mouseX, mouseY, 0)) {
+            double maxScroll = Math.max(0, contentHeight - lastBoxHeight);
+            scrollOffset = scrollBar.getScrollPercentage() * maxScroll;
+            return true;
+        }
+        for (AuthorHitbox hit : hitboxes) {
+            if (hit.contains(mouseX, mouseY)) {
+                boolean nowSelected = !selected.contains(hit.author().toLowerCase());
+                if (onToggle != null) {
+                    onToggle.accept(hit.author(), nowSelected);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean handleScroll(double mouseX, double mouseY, double verticalAmount) {
+        if (mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height) {
+            double maxScroll = Math.max(0, contentHeight - lastBoxHeight);
+            scrollOffset = Math.max(0, Math.min(scrollOffset - verticalAmount * 12, maxScroll));
+            if (scrollBar != null && maxScroll > 0) {
+                scrollBar.setScrollPercentage(scrollOffset / maxScroll);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private record AuthorHitbox(String author, int x1, int y1, int x2, int y2) {
+        boolean contains(double px, double py) {
+            return py < y2 && px >= x1 && px <= x2 && py >= y1;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.andrews.st2downloader.gui.widget;
 
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import com.andrews.st2downloader.gui.theme.UITheme;
 import com.andrews.st2downloader.models.ArchiveChannel;
+import com.andrews.st2downloader.network.ArchiveChannelMirror;
 import com.andrews.st2downloader.util.RenderUtil;
 import com.mojang.blaze3d.platform.cursor.CursorTypes;
 
@@ -37,6 +39,7 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
     private final Map<String, Integer> channelCounts = new HashMap<>();
 
     private ArchiveChannel hovered = null;
+    private ServerEntry server;
 
     public ChannelFilterPanel(int x, int y, int width, int height) {
         this.client = Minecraft.getInstance();
@@ -59,6 +62,10 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
         }
     }
 
+    public void setServer(ServerEntry server) {
+        this.server = server;
+    }
+
     public void setOnSelectionChanged(Consumer<String> callback) {
         this.onSelectionChanged = callback;
     }
@@ -93,6 +100,10 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
         return selectedPath;
     }
 
+    public void setSelectedChannelPath(String path) {
+        this.selectedPath = path;
+    }
+
     public void clearSelection() {
         selectedPath = null;
         if (onSelectionChanged != null) {
@@ -127,6 +138,11 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
         int resetY = y + UITheme.Dimensions.PADDING + 2;
         RenderUtil.drawScaledString(context, reset, resetX, resetY, UITheme.Colors.TEXT_PRIMARY, scale);
 
+        String mirror = mirrorLabel();
+        int mirrorX = resetX - (int) (client.font.width(mirror) * scale) - UITheme.Dimensions.PADDING;
+        int mirrorColor = server != null && selectedPath != null ? UITheme.Colors.TEXT_PRIMARY : UITheme.Colors.TEXT_DISABLED;
+        RenderUtil.drawScaledString(context, mirror, mirrorX, resetY, mirrorColor, scale);
+
         int listStartY = y + HEADER_HEIGHT - (int) scrollOffset;
         contentHeight = HEADER_HEIGHT;
 
@@ -156,7 +172,9 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
 
                 RenderUtil.drawScaledString(context, channel.code(), x + UITheme.Dimensions.PADDING, currentY + 6, UITheme.Colors.TEXT_MUTED, textScale);
                 RenderUtil.drawScaledString(context, channel.name(), x + UITheme.Dimensions.PADDING + codeWidth, currentY + 6, UITheme.Colors.TEXT_PRIMARY, textScale);
-                RenderUtil.drawScaledString(context, countText, x + width - scrollbarWidth - UITheme.Dimensions.PADDING - countWidth - 6, currentY + 6, UITheme.Colors.TEXT_SUBTITLE, textScale);
+                int countX = x + width - scrollbarWidth - UITheme.Dimensions.PADDING - countWidth - 6;
+                RenderUtil.drawScaledString(context, countText, countX, currentY + 6, UITheme.Colors.TEXT_SUBTITLE, textScale);
+                drawMirrorStatus(context, path, countX, currentY + 6, textScale);
 
                 currentY += ITEM_HEIGHT;
                 contentHeight += ITEM_HEIGHT;
@@ -205,6 +223,14 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
             return true;
         }
 
+        String mirror = mirrorLabel();
+        int mirrorWidth = client.font.width(mirror);
+        int mirrorX = resetX - mirrorWidth - UITheme.Dimensions.PADDING;
+        if (mouseX >= mirrorX && mouseX <= mirrorX + mirrorWidth && mouseY >= resetY && mouseY <= resetY + UITheme.Typography.TEXT_HEIGHT) {
+            toggleMirror();
+            return true;
+        }
+
         int listStartY = y + HEADER_HEIGHT - (int) scrollOffset;
         int currentY = listStartY;
 
@@ -237,6 +263,45 @@ public class ChannelFilterPanel implements Renderable, GuiEventListener {
         return false;
     }
 
+    private String mirrorLabel() {
+        return server != null && selectedPath != null && ArchiveChannelMirror.isRunning(server, selectedPath) ? "Stop" : "Mirror";
+    }
+
+    private void toggleMirror() {
+        if (server == null || selectedPath == null) {
+            return;
+        }
+        if (ArchiveChannelMirror.isRunning(server, selectedPath)) {
+            ArchiveChannelMirror.cancel(server, selectedPath);
+        } else {
+            ArchiveChannelMirror.mirror(server, selectedPath);
+        }
+    }
+
+    private void drawMirrorStatus(GuiGraphics context, String path, int countX, int textY, float textScale) {
+        if (server == null) {
+            return;
+        }
+        ArchiveChannelMirror.Progress progress = ArchiveChannelMirror.getProgress(server, path);
+        if (progress == null) {
+            return;
+        }
+        String status;
+        int color;
+        if (progress.running()) {
+            status = (int) (progress.fraction() * 100) + "%";
+            color = UITheme.Colors.TEXT_SUBTITLE;
+        } else if (progress.isComplete()) {
+            status = "✓";
+            color = UITheme.Colors.TOGGLE_ON;
+        } else {
+            status = (int) ((float) progress.entriesDone() / Math.max(1, progress.entriesTotal()) * 100) + "%";
+            color = UITheme.Colors.TEXT_MUTED;
+        }
+        int statusWidth = (int) (client.font.width(status) * textScale);
+        RenderUtil.drawScaledString(context, status, countX - statusWidth - 6, textY, color, textScale);
+    }
+
     public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
         if (mouseX >= x && mouseX < x + width && mouseY >= y && mouseY < y + height) {
             scrollOffset = Math.max(0, Math.min(scrollOffset - verticalAmount * 12, Math.max(0, contentHeight - height)));
@@ -6,6 +6,8 @@ import net.minecraft.client.gui.components.EditBox;
 import net.minecraft.network.chat.Component;
 import org.lwjgl.glfw.GLFW;
 
+import java.util.function.IntConsumer;
+
 import com.andrews.st2downloader.gui.theme.UITheme;
 import com.andrews.st2downloader.util.RenderUtil;
 
@@ -20,6 +22,8 @@ public class CustomTextField extends EditBox {
 	private Runnable onEnterPressed;
 	private Runnable onChanged;
 	private Runnable onClearPressed;
+	private IntConsumer onNavigate;
+	private Runnable onTabPressed;
 	private Component placeholderText;
 
 	private boolean wasEnterDown = false;
@@ -33,6 +37,9 @@ public class CustomTextField extends EditBox {
 	private final KeyRepeatState deleteState = new KeyRepeatState();
 	private final KeyRepeatState leftState = new KeyRepeatState();
 	private final KeyRepeatState rightState = new KeyRepeatState();
+	private final KeyRepeatState upState = new KeyRepeatState();
+	private final KeyRepeatState downState = new KeyRepeatState();
+	private boolean wasTabPressed = false;
 	private boolean wasHomePressed = false;
 	private boolean wasEndPressed = false;
 
@@ -87,6 +94,17 @@ public class CustomTextField extends EditBox {
 		this.onClearPressed = callback;
 	}
 
+	/**
+	 * Called with -1 for the up arrow and +1 for the down arrow while the field is focused.
+	 */
+	public void setOnNavigate(IntConsumer callback) {
+		this.onNavigate = callback;
+	}
+
+	public void setOnTabPressed(Runnable callback) {
+		this.onTabPressed = callback;
+	}
+
 	@Override
 	public void setFocused(boolean focused) {
 		super.setFocused(focused);
@@ -307,6 +325,22 @@ public class CustomTextField extends EditBox {
 			this.moveCursorTo(cursorPos + 1, false);
 		}
 
+		boolean isUpDown = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_UP) == GLFW.GLFW_PRESS;
+		if (upState.shouldTrigger(currentTime, isUpDown) && onNavigate != null) {
+			onNavigate.accept(-1);
+		}
+
+		boolean isDownDown = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_DOWN) == GLFW.GLFW_PRESS;
+		if (downState.shouldTrigger(currentTime, isDownDown) && onNavigate != null) {
+			onNavigate.accept(1);
+		}
+
+		boolean isTabDown = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_TAB) == GLFW.GLFW_PRESS;
+		if (isTabDown && !wasTabPressed && onTabPressed != null) {
+			onTabPressed.run();
+		}
+		wasTabPressed = isTabDown;
+
 		boolean isHomeDown = GLFW.glfwGetKey(windowHandle, GLFW.GLFW_KEY_HOME) == GLFW.GLFW_PRESS;
 		if (isHomeDown && !wasHomePressed) {
 			this.moveCursorTo(0, false);
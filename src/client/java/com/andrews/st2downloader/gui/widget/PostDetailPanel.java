@@ -8,6 +8,7 @@ import com.andrews.st2downloader.models.ArchivePostDetail;
 import com.andrews.st2downloader.models.ArchivePostSummary;
 import com.andrews.st2downloader.models.ArchiveRecordSection;
 import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.network.ArchiveNetworkManager.IndexHandle;
 import com.andrews.st2downloader.util.AttachmentManager;
 import com.andrews.st2downloader.util.RenderUtil;
 import com.andrews.st2downloader.util.TagUtil;
@@ -30,6 +31,9 @@ import net.minecraft.util.Util;
 
 public class PostDetailPanel implements Renderable, GuiEventListener {
     private static final int MAX_IMAGE_SIZE = 120;
+    private static final int SIMILAR_POST_LIMIT = 4;
+    private static final int SIMILAR_CARD_HEIGHT = 30;
+    private static final int SIMILAR_CARD_MIN_WIDTH = 90;
 
     private int x;
     private int y;
@@ -54,9 +58,12 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
 
     private ScrollBar scrollBar;
     private final List<AttachmentHitbox> attachmentHitboxes = new ArrayList<>();
+    private List<ArchivePostSummary> similarPosts = List.of();
+    private final List<SimilarHitbox> similarHitboxes = new ArrayList<>();
 
     private Consumer<String> discordLinkOpener;
     private ServerEntry server = ServerDictionary.getDefaultServer();
+    private IndexHandle indexHandle;
 
     public PostDetailPanel(int x, int y, int width, int height) {
         this.x = x;
@@ -88,6 +95,14 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
         this.attachmentManager.setServer(this.server);
     }
 
+    /**
+     * Resolves details and similar posts against the index version {@code handle} pins. The caller
+     * owns the handle and must clear it here before releasing it.
+     */
+    public void setIndexHandle(IndexHandle handle) {
+        this.indexHandle = handle;
+    }
+
     private int getDisplayImageWidth() {
         return width - 10;
     }
@@ -192,8 +207,31 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
         this.isLoadingDetails = true;
         this.scrollOffset = 0;
         this.attachmentHitboxes.clear();
+        this.similarPosts = List.of();
+        this.similarHitboxes.clear();
+        imageController.setImages(List.of());
 
-        ArchiveNetworkManager.getPostDetails(server, post)
+        IndexHandle handle = indexHandle != null && !indexHandle.isReleased() ? indexHandle : null;
+        (handle != null
+                ? ArchiveNetworkManager.getSimilarPosts(handle, post, SIMILAR_POST_LIMIT)
+                : ArchiveNetworkManager.getSimilarPosts(server, post, SIMILAR_POST_LIMIT))
+                .thenAccept(similar -> {
+                    if (client != null) {
+                        client.execute(() -> {
+                            if (this.postInfo == post) {
+                                this.similarPosts = similar != null ? similar : List.of();
+                            }
+                        });
+                    }
+                })
+                .exceptionally(throwable -> {
+                    System.err.println("[PostDetailPanel] Failed to find similar posts: " + throwable.getMessage());
+                    return null;
+                });
+
+        (handle != null
+                ? ArchiveNetworkManager.getPostDetails(handle, post)
+                : ArchiveNetworkManager.getPostDetails(server, post))
                 .thenAccept(this::handlePostDetailLoaded)
                 .exceptionally(throwable -> {
                     if (client != null) {
@@ -205,12 +243,11 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
                     }
                     return null;
                 });
-
-        imageController.setImages(List.of());
     }
 
     private void handlePostDetailLoaded(ArchivePostDetail detail) {
         if (client != null) {
+            // Runs inline when the details were prefetched, so the panel opens already populated.
             client.execute(() -> {
                 this.postDetail = detail;
                 this.isLoadingDetails = false;
@@ -234,6 +271,8 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
         this.postDetail = null;
         this.isLoadingDetails = false;
         this.scrollOffset = 0;
+        this.similarPosts = List.of();
+        this.similarHitboxes.clear();
         imageController.clear();
         clearDownloadState();
     }
@@ -388,6 +427,7 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
         int currentY = contentStartY + UITheme.Dimensions.PADDING - (int) scrollOffset;
         contentHeight = 0;
         attachmentHitboxes.clear();
+        similarHitboxes.clear();
 
         int containerWidth = getDisplayImageWidth();
         int containerHeight = getDisplayImageHeight();
@@ -627,6 +667,12 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
             contentHeight += UITheme.Dimensions.BUTTON_HEIGHT + 10;
         }
 
+        if (!similarPosts.isEmpty()) {
+            int stripHeight = renderSimilarPosts(context, currentY, renderMouseX, renderMouseY);
+            currentY += stripHeight;
+            contentHeight += stripHeight;
+        }
+
         contentHeight += UITheme.Dimensions.PADDING * 2;
 
         RenderUtil.disableScissor(context);
@@ -648,6 +694,40 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
 
     }
 
+    private int renderSimilarPosts(GuiGraphics context, int startY, int mouseX, int mouseY) {
+        int currentY = startY + 4;
+        RenderUtil.drawString(context, client.font, "Similar designs:", x + UITheme.Dimensions.PADDING, currentY,
+                UITheme.Colors.TEXT_SUBTITLE);
+        currentY += 12;
+
+        int rowWidth = width - UITheme.Dimensions.PADDING * 2;
+        int gap = 4;
+        int columns = Math.max(1, Math.min(similarPosts.size(), (rowWidth + gap) / (SIMILAR_CARD_MIN_WIDTH + gap)));
+        int cardWidth = (rowWidth - gap * (columns - 1)) / columns;
+        int cardX = x + UITheme.Dimensions.PADDING;
+
+        for (int i = 0; i < columns; i++) {
+            ArchivePostSummary similar = similarPosts.get(i);
+            boolean isHover = mouseX >= cardX && mouseX <= cardX + cardWidth &&
+                    mouseY >= currentY && mouseY <= currentY + SIMILAR_CARD_HEIGHT;
+            int bgColor = isHover ? UITheme.Colors.BUTTON_BG_HOVER : UITheme.Colors.BUTTON_BG;
+            RenderUtil.fillRect(context, cardX, currentY, cardX + cardWidth, currentY + SIMILAR_CARD_HEIGHT, bgColor);
+
+            String title = similar.title() != null ? similar.title() : "Untitled";
+            RenderUtil.drawScaledString(context, title, cardX + 4, currentY + 4, UITheme.Colors.TEXT_PRIMARY, 0.85f,
+                    cardWidth - 8);
+            String code = similar.code() != null ? similar.code() : "";
+            RenderUtil.drawScaledString(context, code, cardX + 4, currentY + 17, UITheme.Colors.TEXT_SUBTITLE, 0.75f,
+                    cardWidth - 8);
+
+            similarHitboxes.add(new SimilarHitbox(cardX, currentY, cardX + cardWidth, currentY + SIMILAR_CARD_HEIGHT, similar));
+            cardX += cardWidth + gap;
+        }
+
+        currentY += SIMILAR_CARD_HEIGHT + 6;
+        return currentY - startY;
+    }
+
     public boolean hasImageViewerOpen() {
         return imageController.hasImageViewerOpen();
     }
@@ -687,6 +767,12 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
         }
     }
 
+    private record SimilarHitbox(int x1, int y1, int x2, int y2, ArchivePostSummary post) {
+        boolean contains(double px, double py) {
+            return px >= x1 && px <= x2 && py >= y1 && py <= y2;
+        }
+    }
+
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
         if (imageController.hasImageViewerOpen()) {
             return imageController.mouseClicked(mouseX, mouseY, button);
@@ -777,6 +863,15 @@ public class PostDetailPanel implements Renderable, GuiEventListener {
             }
         }
 
+        if (button == 0 && !similarHitboxes.isEmpty()) {
+            for (SimilarHitbox hit : similarHitboxes) {
+                if (hit.contains(mouseX, mouseY) && hit.post() != null) {
+                    setPost(hit.post());
+                    return true;
+                }
+            }
+        }
+
         return true;
     }
 
@@ -4,24 +4,18 @@ import com.andrews.st2downloader.config.ServerDictionary;
 import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import com.andrews.st2downloader.gui.theme.UITheme;
 import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.network.ArchiveDetailPrefetcher;
 import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.network.ArchiveVisitDiff;
 import com.andrews.st2downloader.util.RenderUtil;
 import com.andrews.st2downloader.util.TagUtil;
 import com.mojang.blaze3d.platform.NativeImage;
 import java.io.ByteArrayInputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
-import java.util.HashSet;
-import java.util.Set;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -48,19 +42,24 @@ public class PostGridWidget implements Renderable, GuiEventListener {
     private ScrollBar scrollBar;
     private List<ArchivePostSummary> posts = new ArrayList<>();
     private final OnPostClickListener onPostClick;
-    private final Map<String, Identifier> imageTextures = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<?>> imageLoading = new ConcurrentHashMap<>();
-    private final Map<String, int[]> imageSizes = new ConcurrentHashMap<>();
-    private final Set<String> noImagePosts = ConcurrentHashMap.newKeySet();
-    private final Set<String> failedImagePosts = ConcurrentHashMap.newKeySet();
+    // Per-post image state indexed by the post's index ordinal. Only touched on the client thread;
+    // slotPosts records which summary owns each slot so state from another index load is discarded.
+    private ArchivePostSummary[] slotPosts = new ArchivePostSummary[0];
+    private Identifier[] imageTextures = new Identifier[0];
+    private int[] imageWidths = new int[0];
+    private int[] imageHeights = new int[0];
+    private final BitSet imageLoading = new BitSet();
+    private final BitSet noImagePosts = new BitSet();
+    private final BitSet failedImagePosts = new BitSet();
     private boolean blocked = false;
     private int expectedTotalPosts = 0;
     private Runnable onEndReached;
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .connectTimeout(Duration.ofSeconds(10))
-        .followRedirects(HttpClient.Redirect.NORMAL)
-        .build();
     private ServerEntry server = ServerDictionary.getDefaultServer();
+    private ArchiveVisitDiff visitDiff;
+    private final ArchiveDetailPrefetcher detailPrefetcher = new ArchiveDetailPrefetcher();
+    // Index range last handed to the prefetcher; -1 forces a refresh on the next frame.
+    private int prefetchStart = -1;
+    private int prefetchEnd = -1;
 
     public interface OnPostClickListener {
         void onPostClick(ArchivePostSummary post);
@@ -91,28 +90,19 @@ public class PostGridWidget implements Renderable, GuiEventListener {
     public void resetPosts(List<ArchivePostSummary> posts) {
         this.posts = posts != null ? new ArrayList<>(posts) : new ArrayList<>();
         this.scrollOffset = 0;
+        this.prefetchStart = -1;
+        detailPrefetcher.cancel();
 
-        if (this.posts.isEmpty()) {
-            imageTextures.clear();
-            imageLoading.clear();
-            imageSizes.clear();
-            noImagePosts.clear();
-            failedImagePosts.clear();
-            return;
-        }
-
-        Set<String> idsToKeep = new HashSet<>();
+        BitSet keep = new BitSet(slotPosts.length);
         for (ArchivePostSummary post : this.posts) {
-            if (post != null && post.id() != null) {
-                idsToKeep.add(post.id());
+            int ordinal = bindSlot(post);
+            if (ordinal >= 0) {
+                keep.set(ordinal);
             }
         }
-
-        imageTextures.keySet().retainAll(idsToKeep);
-        imageSizes.keySet().retainAll(idsToKeep);
-        imageLoading.keySet().removeIf(id -> !idsToKeep.contains(id));
-        noImagePosts.retainAll(idsToKeep);
-        failedImagePosts.retainAll(idsToKeep);
+        for (int ordinal = keep.nextClearBit(0); ordinal < slotPosts.length; ordinal = keep.nextClearBit(ordinal + 1)) {
+            clearSlot(ordinal);
+        }
     }
 
     public void appendPosts(List<ArchivePostSummary> posts) {
@@ -121,6 +111,9 @@ public class PostGridWidget implements Renderable, GuiEventListener {
             this.posts = new ArrayList<>();
         }
         this.posts.addAll(posts);
+        for (ArchivePostSummary post : posts) {
+            bindSlot(post);
+        }
     }
 
     public void setExpectedTotalPosts(int total) {
@@ -137,6 +130,15 @@ public class PostGridWidget implements Renderable, GuiEventListener {
 
     public void setServer(ServerEntry server) {
         this.server = server != null ? server : ServerDictionary.getDefaultServer();
+        this.prefetchStart = -1;
+    }
+
+    /**
+     * Sets the changes since the last visit used for the "New" and "Updated" card badges, or
+     * {@code null} to hide them.
+     */
+    public void setVisitDiff(ArchiveVisitDiff visitDiff) {
+        this.visitDiff = visitDiff;
     }
 
     @Override
@@ -181,6 +183,7 @@ public class PostGridWidget implements Renderable, GuiEventListener {
         }
 
         RenderUtil.disableScissor(context);
+        updatePrefetch(columns, offsetY);
         if (client != null && client.getWindow() != null) {
             if (blocked) {
                 scrollBar.render(context, mouseX, mouseY, delta);
@@ -201,6 +204,24 @@ public class PostGridWidget implements Renderable, GuiEventListener {
         }
     }
 
+    /**
+     * Queues details for the visible cards and the row below, in reading order, whenever the range
+     * changes. Rows scrolled past drop out of the queue.
+     */
+    private void updatePrefetch(int columns, int offsetY) {
+        int rowHeight = CARD_HEIGHT + GAP;
+        int firstVisibleRow = Math.max(0, offsetY / rowHeight);
+        int lastVisibleRow = (offsetY + height) / rowHeight;
+        int start = Math.min(posts.size(), firstVisibleRow * columns);
+        int end = Math.min(posts.size(), (lastVisibleRow + 2) * columns);
+        if (start == prefetchStart && end == prefetchEnd) {
+            return;
+        }
+        prefetchStart = start;
+        prefetchEnd = end;
+        detailPrefetcher.update(server, new ArrayList<>(posts.subList(start, end)));
+    }
+
     private void renderCard(GuiGraphics context, ArchivePostSummary post, int cardX, int cardY, int cardWidth, int cardHeight, int mouseX, int mouseY) {
         int bgColor = UITheme.Colors.PANEL_BG;
         boolean hovered = mouseX >= cardX && mouseX < cardX + cardWidth && mouseY >= cardY && mouseY < cardY + cardHeight;
@@ -215,15 +236,17 @@ public class PostGridWidget implements Renderable, GuiEventListener {
         int imgY = cardY + imgPadding;
         int imgW = cardWidth - imgPadding * 2;
 
-        Identifier tex = imageTextures.get(post.id());
+        int ordinal = slotOf(post);
+        Identifier tex = ordinal >= 0 ? imageTextures[ordinal] : null;
         if (tex != null) {
-            int[] dims = imageSizes.get(post.id());
+            int imageW = imageWidths[ordinal];
+            int imageH = imageHeights[ordinal];
             int drawW = imgW;
             int drawH = IMAGE_HEIGHT;
-            if (dims != null && dims[0] > 0 && dims[1] > 0) {
-                double scale = Math.min((double) imgW / dims[0], (double) IMAGE_HEIGHT / dims[1]);
-                drawW = Math.max(1, (int) (dims[0] * scale));
-                drawH = Math.max(1, (int) (dims[1] * scale));
+            if (imageW > 0 && imageH > 0) {
+                double scale = Math.min((double) imgW / imageW, (double) IMAGE_HEIGHT / imageH);
+                drawW = Math.max(1, (int) (imageW * scale));
+                drawH = Math.max(1, (int) (imageH * scale));
             }
             int drawX = imgX + (imgW - drawW) / 2;
             int drawY = imgY + (IMAGE_HEIGHT - drawH) / 2;
@@ -243,11 +266,10 @@ public class PostGridWidget implements Renderable, GuiEventListener {
             );
         } else {
             RenderUtil.fillRect(context, imgX, imgY, imgX + imgW, imgY + IMAGE_HEIGHT, UITheme.Colors.CONTAINER_BG);
-            ensureImageLoading(post);
-            boolean hasId = post != null && post.id() != null;
-            boolean failed = hasId && failedImagePosts.contains(post.id());
-            boolean noImage = hasId && noImagePosts.contains(post.id());
-            boolean loading = hasId && imageLoading.containsKey(post.id());
+            ensureImageLoading(post, ordinal);
+            boolean failed = ordinal >= 0 && failedImagePosts.get(ordinal);
+            boolean noImage = ordinal >= 0 && noImagePosts.get(ordinal);
+            boolean loading = ordinal >= 0 && imageLoading.get(ordinal);
             String status;
             if (failed) {
                 status = "Failed to load";
@@ -264,6 +286,7 @@ public class PostGridWidget implements Renderable, GuiEventListener {
             int textY = imgY + Math.max(0, (IMAGE_HEIGHT - textHeight) / 2);
             RenderUtil.drawScaledString(context, status, textX, textY, UITheme.Colors.TEXT_SUBTITLE, 0.8f);
         }
+        renderVisitBadge(context, post, imgX, imgY);
 
         String title = post.title() != null ? post.title() : "Untitled";
         int textY = imgY + IMAGE_HEIGHT + 3;
@@ -312,6 +335,26 @@ public class PostGridWidget implements Renderable, GuiEventListener {
         }
     }
 
+    private void renderVisitBadge(GuiGraphics context, ArchivePostSummary post, int imgX, int imgY) {
+        if (visitDiff == null) return;
+        String badge;
+        int color;
+        if (visitDiff.isNew(post)) {
+            badge = "NEW";
+            color = UITheme.Colors.TOAST_BG_SUCCESS;
+        } else if (visitDiff.isUpdated(post)) {
+            badge = "UPDATED";
+            color = UITheme.Colors.TOAST_BG_INFO;
+        } else {
+            return;
+        }
+        float badgeScale = 0.7f;
+        int badgeW = (int) (client.font.width(badge) * badgeScale) + 8;
+        int badgeH = 10;
+        RenderUtil.fillRect(context, imgX + 2, imgY + 2, imgX + 2 + badgeW, imgY + 2 + badgeH, color);
+        RenderUtil.drawScaledString(context, badge, imgX + 6, imgY + 4, UITheme.Colors.TEXT_PRIMARY, badgeScale);
+    }
+
     private int computeContentHeight(int columns) {
         int total = Math.max(expectedTotalPosts, posts != null ? posts.size() : 0);
         int rows = (int) Math.ceil(total / (double) Math.max(columns, 1));
@@ -400,72 +443,92 @@ public class PostGridWidget implements Renderable, GuiEventListener {
 
     private record Layout(int columns, int cardWidth, int startX) {}
 
-    private void ensureImageLoading(ArchivePostSummary post) {
-        if (post == null || post.id() == null) return;
-        if (noImagePosts.contains(post.id())) return;
-        if (failedImagePosts.contains(post.id())) return;
-        if (imageTextures.containsKey(post.id()) || imageLoading.containsKey(post.id())) return;
-
-        CompletableFuture<Void> future = ArchiveNetworkManager.getPostDetails(server, post)
-            .thenApply(detail -> {
-                if (detail == null || detail.images().isEmpty()) {
-                    noImagePosts.add(post.id());
-                    return null;
-                }
-                return detail.images().get(0);
-            })
-            .thenCompose(url -> {
-                if (url == null || url.isEmpty()) {
-                    noImagePosts.add(post.id());
-                    return CompletableFuture.completedFuture(null);
-                }
-                HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(url.replace(" ", "%20")))
-                    .timeout(Duration.ofSeconds(15))
-                    .header("User-Agent", ArchiveNetworkManager.USER_AGENT)
-                    .GET()
-                    .build();
-                return httpClient.sendAsync(req, HttpResponse.BodyHandlers.ofByteArray())
-                    .thenApply(resp -> {
-                        if (resp.statusCode() != 200 || resp.body() == null || resp.body().length == 0) {
-                            throw new RuntimeException("Image request failed with status " + resp.statusCode());
-                        }
-                        return resp.body();
-                    });
-            })
+    /**
+     * Returns the ordinal slot holding state for {@code post}, or -1 when the post has no slot.
+     */
+    private int slotOf(ArchivePostSummary post) {
+        if (post == null) return -1;
+        int ordinal = post.ordinal();
+        return ordinal >= 0 && ordinal < slotPosts.length && slotPosts[ordinal] == post ? ordinal : -1;
+    }
+
+    private int bindSlot(ArchivePostSummary post) {
+        if (post == null || post.ordinal() < 0) return -1;
+        int ordinal = post.ordinal();
+        if (ordinal >= slotPosts.length) {
+            int capacity = Math.max(ordinal + 1, slotPosts.length * 2);
+            slotPosts = Arrays.copyOf(slotPosts, capacity);
+            imageTextures = Arrays.copyOf(imageTextures, capacity);
+            imageWidths = Arrays.copyOf(imageWidths, capacity);
+            imageHeights = Arrays.copyOf(imageHeights, capacity);
+        }
+        if (slotPosts[ordinal] != post) {
+            // A different summary at this ordinal means the index was reloaded.
+            clearSlot(ordinal);
+            slotPosts[ordinal] = post;
+        }
+        return ordinal;
+    }
+
+    private void clearSlot(int ordinal) {
+        slotPosts[ordinal] = null;
+        imageTextures[ordinal] = null;
+        imageWidths[ordinal] = 0;
+        imageHeights[ordinal] = 0;
+        imageLoading.clear(ordinal);
+        noImagePosts.clear(ordinal);
+        failedImagePosts.clear(ordinal);
+    }
+
+    private void ensureImageLoading(ArchivePostSummary post, int ordinal) {
+        if (ordinal < 0) return;
+        if (noImagePosts.get(ordinal) || failedImagePosts.get(ordinal) || imageLoading.get(ordinal)) return;
+        if (imageTextures[ordinal] != null) return;
+
+        imageLoading.set(ordinal);
+        ArchiveNetworkManager.getThumbnailBytes(server, post)
             .thenAccept(bytes -> {
                 if (bytes == null) {
-                    noImagePosts.add(post.id());
+                    onSlot(post, () -> noImagePosts.set(ordinal));
                     return;
                 }
                 try {
                     NativeImage img = NativeImage.read(new ByteArrayInputStream(bytes));
                     if (img == null || img.getWidth() <= 0 || img.getHeight() <= 0) {
-                        failedImagePosts.add(post.id());
+                        onSlot(post, () -> failedImagePosts.set(ordinal));
                         return;
                     }
                     String id = UUID.randomUUID().toString().replace("-", "");
                     Identifier texId = Identifier.fromNamespaceAndPath("litematicdownloader", "grid/" + id);
-                    if (client != null) {
-                        client.execute(() -> {
-                            client.getTextureManager().register(texId, new DynamicTexture(() -> "grid_image", img));
-                            imageTextures.put(post.id(), texId);
-                            imageSizes.put(post.id(), new int[]{img.getWidth(), img.getHeight()});
-                        });
-                    }
+                    onSlot(post, () -> {
+                        client.getTextureManager().register(texId, new DynamicTexture(() -> "grid_image", img));
+                        imageTextures[ordinal] = texId;
+                        imageWidths[ordinal] = img.getWidth();
+                        imageHeights[ordinal] = img.getHeight();
+                    });
                 } catch (Exception e) {
-                    failedImagePosts.add(post.id());
+                    onSlot(post, () -> failedImagePosts.set(ordinal));
                     System.err.println("Failed to load grid image: " + e.getMessage());
                 }
             })
             .exceptionally(ex -> {
-                failedImagePosts.add(post.id());
+                onSlot(post, () -> failedImagePosts.set(ordinal));
                 System.err.println("Image load failed for " + post.id() + ": " + ex.getMessage());
                 return null;
             })
-            .whenComplete((r, t) -> imageLoading.remove(post.id()));
+            .whenComplete((r, t) -> onSlot(post, () -> imageLoading.clear(ordinal)));
+    }
 
-        imageLoading.put(post.id(), future);
+    /**
+     * Applies a load result on the client thread, unless the slot was cleared or rebound meanwhile.
+     */
+    private void onSlot(ArchivePostSummary post, Runnable update) {
+        if (client == null) return;
+        client.execute(() -> {
+            if (slotOf(post) >= 0) {
+                update.run();
+            }
+        });
     }
 
     @Override
@@ -7,11 +7,6 @@ import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -309,25 +304,8 @@ public class PostImageController {
             return CompletableFuture.completedFuture(imageCache.get(imageUrl));
         }
 
-        String encodedUrl = encodeImageUrl(imageUrl);
-
-        HttpClient httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(encodedUrl))
-                .GET()
-                .header("User-Agent", ArchiveNetworkManager.USER_AGENT)
-                .build();
-
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                .thenApply(response -> {
-                    if (response.statusCode() != 200) {
-                        throw new CompletionException(new RuntimeException("HTTP error: " + response.statusCode()));
-                    }
-
-                    byte[] imageData = response.body();
+        return ArchiveNetworkManager.getImageBytes(imageUrl)
+                .thenApply(imageData -> {
                     byte[] pngBytes;
                     try {
                         pngBytes = convertImageToPng(imageData);
@@ -381,20 +359,6 @@ public class PostImageController {
         }
     }
 
-    private String encodeImageUrl(String url) {
-        try {
-            URI uri = URI.create(url);
-            String path = uri.getPath();
-            String encodedPath = path.replace(" ", "%20");
-            return uri.getScheme() + "://" + uri.getHost() +
-                    (uri.getPort() != -1 ? ":" + uri.getPort() : "") +
-                    encodedPath +
-                    (uri.getQuery() != null ? "?" + uri.getQuery() : "");
-        } catch (Exception e) {
-            return url.replace(" ", "%20");
-        }
-    }
-
     private byte[] convertImageToPng(byte[] imageData) throws Exception {
         BufferedImage bufferedImage = null;
 
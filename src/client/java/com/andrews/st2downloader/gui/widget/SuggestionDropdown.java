@@ -0,0 +1,103 @@
+package com.andrews.st2downloader.gui.widget;
+
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.andrews.st2downloader.gui.theme.UITheme;
+import com.andrews.st2downloader.models.ArchiveSuggestion;
+import com.andrews.st2downloader.util.RenderUtil;
+
+public class SuggestionDropdown {
+    private static final int ROW_HEIGHT = 16;
+    private static final int TYPE_COLUMN_WIDTH = 44;
+
+    private int x;
+    private int y;
+    private int width;
+    private List<ArchiveSuggestion> suggestions = new ArrayList<>();
+    private int highlighted = -1;
+
+    public void setPosition(int x, int y, int width) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+    }
+
+    public void setSuggestions(List<ArchiveSuggestion> suggestions) {
+        this.suggestions = suggestions != null ? new ArrayList<>(suggestions) : new ArrayList<>();
+        this.highlighted = -1;
+    }
+
+    public void clear() {
+        setSuggestions(null);
+    }
+
+    public boolean isVisible() {
+        return !suggestions.isEmpty();
+    }
+
+    public void moveHighlight(int delta) {
+        if (suggestions.isEmpty()) return;
+        int next = highlighted + delta;
+        if (next < -1) {
+            next = suggestions.size() - 1;
+        } else if (next >= suggestions.size()) {
+            next = -1;
+        }
+        highlighted = next;
+    }
+
+    public ArchiveSuggestion getHighlighted() {
+        return highlighted >= 0 && highlighted < suggestions.size() ? suggestions.get(highlighted) : null;
+    }
+
+    public boolean contains(double mouseX, double mouseY) {
+        return isVisible() && mouseX >= x && mouseX < x + width && mouseY >= y && mouseY < y + suggestions.size() * ROW_HEIGHT;
+    }
+
+    public ArchiveSuggestion getSuggestionAt(double mouseX, double mouseY) {
+        if (!contains(mouseX, mouseY)) return null;
+        int index = (int) ((mouseY - y) / ROW_HEIGHT);
+        return index >= 0 && index < suggestions.size() ? suggestions.get(index) : null;
+    }
+
+    public void render(GuiGraphics context, Font font, int mouseX, int mouseY) {
+        if (!isVisible()) return;
+
+        int height = suggestions.size() * ROW_HEIGHT;
+        RenderUtil.fillRect(context, x, y, x + width, y + height + 1, UITheme.Colors.BUTTON_BORDER);
+
+        for (int i = 0; i < suggestions.size(); i++) {
+            ArchiveSuggestion suggestion = suggestions.get(i);
+            int rowY = y + i * ROW_HEIGHT;
+            boolean hovered = mouseX >= x && mouseX < x + width && mouseY >= rowY && mouseY < rowY + ROW_HEIGHT;
+            if (hovered) {
+                highlighted = i;
+            }
+            int bgColor = i == highlighted ? UITheme.Colors.BUTTON_BG_HOVER : UITheme.Colors.PANEL_BG_SECONDARY;
+            RenderUtil.fillRect(context, x + 1, rowY, x + width - 1, rowY + ROW_HEIGHT, bgColor);
+
+            RenderUtil.drawScaledString(context, getTypeLabel(suggestion.type()), x + 4, rowY + 5,
+                    UITheme.Colors.TEXT_MUTED, 0.75f);
+
+            String countText = String.valueOf(suggestion.count());
+            int countX = x + width - 4 - font.width(countText);
+            int labelX = x + 4 + TYPE_COLUMN_WIDTH;
+            RenderUtil.drawScaledString(context, suggestion.label(), labelX, rowY + 4, UITheme.Colors.TEXT_PRIMARY,
+                    0.9f, Math.max(10, countX - labelX - 6));
+            RenderUtil.drawString(context, font, countText, countX, rowY + 4, UITheme.Colors.TEXT_SUBTITLE);
+        }
+    }
+
+    private static String getTypeLabel(ArchiveSuggestion.Type type) {
+        return switch (type) {
+            case TAG -> "TAG";
+            case AUTHOR -> "AUTHOR";
+            case CHANNEL -> "CHANNEL";
+            case TITLE -> "POST";
+        };
+    }
+}
@@ -52,6 +52,10 @@ public class TagFilterWidget {
         this.tagStates = tagStates != null ? tagStates : new HashMap<>();
     }
 
+    public int getPreferredHeight() {
+        return rowHeight + tags.size() * rowHeight + UITheme.Dimensions.PADDING;
+    }
+
     public void setOnToggle(BiConsumer<String, TagState> callback) {
         this.onToggle = callback;
     }
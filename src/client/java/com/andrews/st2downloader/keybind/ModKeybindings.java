@@ -7,9 +7,11 @@ import org.lwjgl.glfw.GLFW;
 
 public final class ModKeybindings {
 	private static final String KEY_OPEN_MENU = "key.st2-downloader.open_menu";
+	private static final String KEY_NETWORK_DEBUG = "key.st2-downloader.network_debug";
 	private static final int DEFAULT_KEY = GLFW.GLFW_KEY_N;
 
 	public static KeyMapping openMenuKey;
+	public static KeyMapping networkDebugKey;
 
 	public static void register() {
 		openMenuKey = KeyBindingHelper.registerKeyBinding(new KeyMapping(
@@ -18,6 +20,13 @@ public final class ModKeybindings {
 				DEFAULT_KEY,
 				KeyMapping.Category.MISC
 		));
+		// Unbound by default; only needed when diagnosing slow or failing downloads.
+		networkDebugKey = KeyBindingHelper.registerKeyBinding(new KeyMapping(
+				KEY_NETWORK_DEBUG,
+				InputConstants.Type.KEYSYM,
+				GLFW.GLFW_KEY_UNKNOWN,
+				KeyMapping.Category.MISC
+		));
 	}
 
 	private ModKeybindings() {}
@@ -0,0 +1,51 @@
+package com.andrews.st2downloader.models;
+
+/**
+ * Time windows applied to a search, one on {@code updatedAt} and one on {@code archivedAt}; a post
+ * must fall inside both. Each {@code after} is inclusive and each {@code before} is exclusive, all in
+ * epoch milliseconds; an open side is {@link Long#MIN_VALUE} / {@link Long#MAX_VALUE}.
+ */
+public record ArchiveDateFilter(
+	long updatedAfter,
+	long updatedBefore,
+	long archivedAfter,
+	long archivedBefore
+) {
+	public static final ArchiveDateFilter NONE = new ArchiveDateFilter(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+	public static ArchiveDateFilter updatedAfter(long after) {
+		return NONE.withUpdated(after, Long.MAX_VALUE);
+	}
+
+	public static ArchiveDateFilter updatedBefore(long before) {
+		return NONE.withUpdated(Long.MIN_VALUE, before);
+	}
+
+	public static ArchiveDateFilter archivedAfter(long after) {
+		return NONE.withArchived(after, Long.MAX_VALUE);
+	}
+
+	public static ArchiveDateFilter archivedBefore(long before) {
+		return NONE.withArchived(Long.MIN_VALUE, before);
+	}
+
+	public ArchiveDateFilter withUpdated(long after, long before) {
+		return new ArchiveDateFilter(after, before, archivedAfter, archivedBefore);
+	}
+
+	public ArchiveDateFilter withArchived(long after, long before) {
+		return new ArchiveDateFilter(updatedAfter, updatedBefore, after, before);
+	}
+
+	public boolean isUpdatedActive() {
+		return updatedAfter != Long.MIN_VALUE || updatedBefore != Long.MAX_VALUE;
+	}
+
+	public boolean isArchivedActive() {
+		return archivedAfter != Long.MIN_VALUE || archivedBefore != Long.MAX_VALUE;
+	}
+
+	public boolean isActive() {
+		return isUpdatedActive() || isArchivedActive();
+	}
+}
@@ -0,0 +1,41 @@
+package com.andrews.st2downloader.models;
+
+/**
+ * Point-in-time counters for the archive client's caches and remote loads.
+ *
+ * @param residentIndexes     servers whose index is currently held in memory
+ * @param residentIndexBytes  estimated heap held by those indexes
+ * @param liveSnapshots       distinct index versions still reachable, current or pinned by a handle
+ * @param openHandles         index handles acquired and not yet released
+ * @param requestsIssued      entry and image loads that went to the store or network
+ * @param requestsCoalesced   loads served by sharing an identical load already in flight
+ * @param httpRequests        requests sent through the shared HTTP client
+ * @param http2Responses      responses that arrived over HTTP/2
+ * @param tlsHandshakes       TLS sessions opened, one per new connection
+ * @param connectionsReused   responses that arrived over a connection already in use
+ * @param requestsQueued      requests that waited for a free slot instead of starting at once
+ * @param requestsPromoted    queued requests moved to a higher priority by a more urgent caller
+ * @param requestsRetried     attempts repeated after a failure, timeout or retryable status
+ * @param requestsHedged      second attempts raced against a request slow to answer
+ * @param rateLimited         429 and 503 responses, each of which throttles background work
+ * @param sourceFailovers     attempts moved to another archive source after one failed
+ */
+public record ArchiveNetworkStats(
+	int residentIndexes,
+	long residentIndexBytes,
+	int liveSnapshots,
+	int openHandles,
+	long requestsIssued,
+	long requestsCoalesced,
+	long httpRequests,
+	long http2Responses,
+	long tlsHandshakes,
+	long connectionsReused,
+	long requestsQueued,
+	long requestsPromoted,
+	long requestsRetried,
+	long requestsHedged,
+	long rateLimited,
+	long sourceFailovers
+) {
+}
@@ -1,5 +1,12 @@
 package com.andrews.st2downloader.models;
 
+/**
+ * One post as listed in the archive index.
+ *
+ * @param mainImagePath the post's first image relative to its entry folder, as listed in the index;
+ *                      {@code null} when the index does not say, and the image has to be looked up
+ *                      in {@code data.json}
+ */
 public record ArchivePostSummary(
 	String id,
 	String title,
@@ -12,10 +19,23 @@ public record ArchivePostSummary(
 	String[] tags,
 	String[] authors,
 	long archivedAt,
-	long updatedAt
+	long updatedAt,
+	String mainImagePath,
+	int ordinal
 ) {
 	public ArchivePostSummary {
 		tags = tags != null ? tags : new String[0];
 		authors = authors != null ? authors : new String[0];
 	}
+
+	/**
+	 * Returns this summary placed at {@code ordinal}, its dense position in the loaded search index.
+	 * Ordinals run from zero to the index size and are only meaningful within one index load.
+	 */
+	public ArchivePostSummary withOrdinal(int ordinal) {
+		if (ordinal == this.ordinal) {
+			return this;
+		}
+		return new ArchivePostSummary(id, title, channelName, channelCode, channelCategory, channelPath, entryPath, code, tags, authors, archivedAt, updatedAt, mainImagePath, ordinal);
+	}
 }
@@ -8,6 +8,7 @@ public record ArchiveSearchResult(
     int totalPages,
     int totalItems,
     Map<String, Integer> channelCounts,
-    Map<String, Integer> tagCounts
+    Map<String, Integer> tagCounts,
+    Map<String, Integer> authorCounts
 ) {
 }
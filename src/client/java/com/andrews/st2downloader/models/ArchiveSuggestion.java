@@ -0,0 +1,19 @@
+package com.andrews.st2downloader.models;
+
+/**
+ * A search-field completion. {@code value} is what gets applied (tag name, author name, channel
+ * path or post title) and {@code label} is what gets shown.
+ */
+public record ArchiveSuggestion(
+	Type type,
+	String value,
+	String label,
+	int count
+) {
+	public enum Type {
+		TAG,
+		AUTHOR,
+		CHANNEL,
+		TITLE
+	}
+}
@@ -0,0 +1,686 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.config.ServerDictionary;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.network.ArchiveRequestScheduler.Priority;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Complete local copies of archive channels, for playing without a connection to GitHub.
+ * <p>
+ * Mirroring a channel downloads every entry's {@code data.json} and the images and attachments it
+ * references into the server's cache directory, a few entries at a time. A manifest per channel
+ * records each entry's index {@code updatedAt} and the size and CRC-32C of every file. Mirroring
+ * again resumes: entries whose version still matches and whose files still verify are skipped,
+ * and entries that have left the channel are deleted.
+ * <p>
+ * {@link ArchiveNetworkManager} and the image loaders read mirrored files before going to the
+ * network. A file is only served while it still matches its manifest.
+ */
+public final class ArchiveChannelMirror {
+	private static final String FOLDER = "mirror";
+	private static final String FILES_FOLDER = "files";
+	private static final String MANIFEST_SUFFIX = ".manifest";
+	private static final int MAGIC = 0x5354324D; // "ST2M"
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_DELAY_MILLIS = 1000;
+	private static final int FILE_TIMEOUT_SECONDS = 120;
+	// Entries finished between manifest saves; an interrupted mirror repeats at most this many.
+	private static final int SAVE_INTERVAL = 16;
+
+	private static final Map<String, Job> JOBS = new ConcurrentHashMap<>();
+	private static final Map<String, ServerMirror> MIRRORS = new ConcurrentHashMap<>();
+
+	private ArchiveChannelMirror() {
+	}
+
+	/**
+	 * A mirror's state. {@code entriesDone} counts entries that are fully mirrored.
+	 */
+	public record Progress(int entriesDone, int entriesTotal, int entriesFailed, long bytes, boolean running) {
+		public boolean isComplete() {
+			return !running && entriesFailed == 0 && entriesDone >= entriesTotal;
+		}
+
+		public float fraction() {
+			return entriesTotal > 0 ? Math.min(1f, (float) (entriesDone + entriesFailed) / entriesTotal) : 1f;
+		}
+	}
+
+	private record MirroredFile(String path, long size, int crc) {
+	}
+
+	private record MirroredEntry(long updatedAt, List<MirroredFile> files) {
+	}
+
+	/**
+	 * Mirrors {@code channelPath}, or joins the run already in progress. Completes with the final
+	 * progress once every entry has been tried.
+	 */
+	public static CompletableFuture<Progress> mirror(ServerEntry server, String channelPath) {
+		String serverKey = ArchiveNetworkManager.serverKey(server);
+		String jobKey = serverKey + "\n" + channelPath;
+		Job job = new Job(server, serverKey, channelPath);
+		Job running = JOBS.putIfAbsent(jobKey, job);
+		if (running != null) {
+			return running.result;
+		}
+		job.result.whenComplete((progress, throwable) -> JOBS.remove(jobKey, job));
+		ArchiveNetworkManager.getChannelPosts(server, channelPath)
+			.thenAcceptAsync(job::start, ForkJoinPool.commonPool())
+			.exceptionally(throwable -> {
+				System.err.println("Failed to start mirroring " + channelPath + ": " + throwable.getMessage());
+				job.result.completeExceptionally(throwable);
+				return null;
+			});
+		return job.result;
+	}
+
+	/**
+	 * Stops a running mirror after the entries in flight; what finished stays mirrored.
+	 */
+	public static void cancel(ServerEntry server, String channelPath) {
+		Job job = JOBS.get(ArchiveNetworkManager.serverKey(server) + "\n" + channelPath);
+		if (job != null) {
+			job.cancelled = true;
+		}
+	}
+
+	public static boolean isRunning(ServerEntry server, String channelPath) {
+		return JOBS.containsKey(ArchiveNetworkManager.serverKey(server) + "\n" + channelPath);
+	}
+
+	/**
+	 * The running mirror's progress, the last run's outcome, or {@code null} if the channel was never
+	 * mirrored. Also {@code null} until the server's manifests have been read in the background.
+	 */
+	public static Progress getProgress(ServerEntry server, String channelPath) {
+		String serverKey = ArchiveNetworkManager.serverKey(server);
+		Job job = JOBS.get(serverKey + "\n" + channelPath);
+		if (job != null) {
+			return job.progress();
+		}
+		ServerMirror mirror = loadedMirror(serverKey);
+		Manifest manifest = mirror != null ? mirror.channels.get(channelPath) : null;
+		return manifest != null ? manifest.progress() : null;
+	}
+
+	/**
+	 * Reads a mirrored {@code data.json} for {@code summary}; unless {@code anyVersion}, only if it was
+	 * mirrored at the version the index reports. Completes with {@code null} when there is none.
+	 */
+	static CompletableFuture<byte[]> readEntry(ServerEntry server, ArchivePostSummary summary, boolean anyVersion) {
+		String serverKey = ArchiveNetworkManager.serverKey(server);
+		ServerMirror mirror = loadedMirror(serverKey);
+		if (mirror != null && !mirror.channels.containsKey(summary.channelPath())) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			ServerMirror loaded = mirrorOf(serverKey);
+			Manifest manifest = loaded.channels.get(summary.channelPath());
+			MirroredEntry entry = manifest != null ? manifest.get(summary.entryPath()) : null;
+			if (entry == null || (!anyVersion && entry.updatedAt() != ArchiveNetworkManager.entryVersion(summary))) {
+				return null;
+			}
+			MirroredFile file = loaded.files.get(ArchiveNetworkManager.entryDataPath(summary));
+			return file != null ? loaded.read(file) : null;
+		}, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads the mirrored copy of an archive file URL, completing with {@code null} when it is not
+	 * mirrored. Answers at once for URLs outside any mirrored channel.
+	 */
+	static CompletableFuture<byte[]> readFile(String url) {
+		ServerEntry server = serverFor(url);
+		if (server == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		String serverKey = ArchiveNetworkManager.serverKey(server);
+		String path = url.substring(ArchiveNetworkManager.rawUrlPrefix(server).length());
+		ServerMirror mirror = loadedMirror(serverKey);
+		if (mirror != null && !mirror.files.containsKey(path)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			ServerMirror loaded = mirrorOf(serverKey);
+			MirroredFile file = loaded.files.get(path);
+			return file != null ? loaded.read(file) : null;
+		}, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Blocking form of {@link #readFile(String)} for callers already off the render thread.
+	 */
+	public static byte[] readMirroredFile(String url) {
+		return readFile(url).join();
+	}
+
+	private static ServerEntry serverFor(String url) {
+		if (url == null) {
+			return null;
+		}
+		for (ServerEntry server : ServerDictionary.getServers()) {
+			if (url.startsWith(ArchiveNetworkManager.rawUrlPrefix(server))) {
+				return server;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The server's mirror if its manifests are already in memory; otherwise starts reading them and
+	 * returns {@code null}.
+	 */
+	private static ServerMirror loadedMirror(String serverKey) {
+		ServerMirror mirror = MIRRORS.get(serverKey);
+		if (mirror == null) {
+			CompletableFuture.runAsync(() -> mirrorOf(serverKey), ForkJoinPool.commonPool());
+		}
+		return mirror;
+	}
+
+	private static ServerMirror mirrorOf(String serverKey) {
+		return MIRRORS.computeIfAbsent(serverKey, ServerMirror::load);
+	}
+
+	private static int crc(byte[] bytes) {
+		CRC32C crc = new CRC32C();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+
+	private static int crc(Path file) throws IOException {
+		CRC32C crc = new CRC32C();
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * The mirrored channels of one server, and an index of every file they hold by its path in the
+	 * archive repository.
+	 */
+	private static final class ServerMirror {
+		final Path directory;
+		final Path filesDirectory;
+		final Map<String, Manifest> channels = new ConcurrentHashMap<>();
+		final Map<String, MirroredFile> files = new ConcurrentHashMap<>();
+
+		private ServerMirror(Path directory) {
+			this.directory = directory;
+			this.filesDirectory = directory.resolve(FILES_FOLDER).normalize();
+		}
+
+		static ServerMirror load(String serverKey) {
+			ServerMirror mirror = new ServerMirror(ArchiveDiskCache.file(serverKey, FOLDER));
+			if (!Files.isDirectory(mirror.directory)) {
+				return mirror;
+			}
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(mirror.directory, "*" + MANIFEST_SUFFIX)) {
+				for (Path file : stream) {
+					Manifest manifest = Manifest.read(file);
+					if (manifest == null) {
+						continue;
+					}
+					mirror.channels.put(manifest.channelPath, manifest);
+					for (MirroredEntry entry : manifest.entries.values()) {
+						for (MirroredFile mirrored : entry.files()) {
+							mirror.files.put(mirrored.path(), mirrored);
+						}
+					}
+				}
+			} catch (IOException e) {
+				System.err.println("Failed to read channel mirrors: " + e.getMessage());
+			}
+			return mirror;
+		}
+
+		Manifest manifest(String channelPath) {
+			return channels.computeIfAbsent(channelPath, path -> new Manifest(path, directory.resolve(manifestName(path))));
+		}
+
+		/**
+		 * Resolves a repository path inside the mirror, refusing paths that would escape it.
+		 */
+		Path resolve(String path) {
+			try {
+				Path resolved = filesDirectory.resolve(path).normalize();
+				return resolved.startsWith(filesDirectory) && !resolved.equals(filesDirectory) ? resolved : null;
+			} catch (InvalidPathException e) {
+				return null;
+			}
+		}
+
+		byte[] read(MirroredFile file) {
+			Path path = resolve(file.path());
+			if (path == null || !Files.isRegularFile(path)) {
+				return null;
+			}
+			try {
+				byte[] bytes = Files.readAllBytes(path);
+				if (bytes.length != file.size() || crc(bytes) != file.crc()) {
+					System.err.println("Mirrored file failed its integrity check: " + file.path());
+					return null;
+				}
+				return bytes;
+			} catch (IOException e) {
+				System.err.println("Failed to read mirrored file: " + e.getMessage());
+				return null;
+			}
+		}
+
+		boolean verify(MirroredEntry entry) {
+			for (MirroredFile file : entry.files()) {
+				Path path = resolve(file.path());
+				try {
+					if (path == null || !Files.isRegularFile(path) || Files.size(path) != file.size() || crc(path) != file.crc()) {
+						return false;
+					}
+				} catch (IOException e) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void record(Manifest manifest, String entryPath, MirroredEntry entry) {
+			MirroredEntry previous = manifest.put(entryPath, entry);
+			if (previous != null) {
+				for (MirroredFile file : previous.files()) {
+					files.remove(file.path(), file);
+				}
+			}
+			for (MirroredFile file : entry.files()) {
+				files.put(file.path(), file);
+			}
+		}
+
+		void delete(Manifest manifest, String entryPath) {
+			MirroredEntry removed = manifest.remove(entryPath);
+			if (removed == null) {
+				return;
+			}
+			for (MirroredFile file : removed.files()) {
+				files.remove(file.path(), file);
+				Path path = resolve(file.path());
+				try {
+					if (path != null) {
+						Files.deleteIfExists(path);
+					}
+				} catch (IOException e) {
+					System.err.println("Failed to delete mirrored file: " + e.getMessage());
+				}
+			}
+		}
+
+		private static String manifestName(String channelPath) {
+			long hash = 0xcbf29ce484222325L;
+			for (int i = 0; i < channelPath.length(); i++) {
+				hash ^= channelPath.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+			return Long.toHexString(hash) + MANIFEST_SUFFIX;
+		}
+	}
+
+	/**
+	 * One mirrored channel: its entries and how its last run ended. Guarded by its own monitor.
+	 */
+	private static final class Manifest {
+		final String channelPath;
+		final Path file;
+		private final LinkedHashMap<String, MirroredEntry> entries = new LinkedHashMap<>();
+		private long bytes;
+		private int lastTotal;
+		private int lastFailed;
+
+		Manifest(String channelPath, Path file) {
+			this.channelPath = channelPath;
+			this.file = file;
+		}
+
+		synchronized MirroredEntry get(String entryPath) {
+			return entries.get(entryPath);
+		}
+
+		synchronized MirroredEntry put(String entryPath, MirroredEntry entry) {
+			MirroredEntry previous = entries.put(entryPath, entry);
+			bytes += size(entry) - (previous != null ? size(previous) : 0);
+			return previous;
+		}
+
+		synchronized MirroredEntry remove(String entryPath) {
+			MirroredEntry removed = entries.remove(entryPath);
+			if (removed != null) {
+				bytes -= size(removed);
+			}
+			return removed;
+		}
+
+		synchronized List<String> entryPaths() {
+			return new ArrayList<>(entries.keySet());
+		}
+
+		synchronized void finishRun(int total, int failed) {
+			lastTotal = total;
+			lastFailed = failed;
+		}
+
+		synchronized Progress progress() {
+			return new Progress(entries.size(), Math.max(lastTotal, entries.size()), lastFailed, bytes, false);
+		}
+
+		private static long size(MirroredEntry entry) {
+			long total = 0;
+			for (MirroredFile file : entry.files()) {
+				total += file.size();
+			}
+			return total;
+		}
+
+		void save() {
+			try {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(bytes);
+				synchronized (this) {
+					out.writeInt(MAGIC);
+					out.writeShort(FORMAT_VERSION);
+					out.writeUTF(channelPath);
+					out.writeInt(lastTotal);
+					out.writeInt(lastFailed);
+					out.writeInt(entries.size());
+					for (Map.Entry<String, MirroredEntry> entry : entries.entrySet()) {
+						out.writeUTF(entry.getKey());
+						out.writeLong(entry.getValue().updatedAt());
+						out.writeInt(entry.getValue().files().size());
+						for (MirroredFile mirrored : entry.getValue().files()) {
+							out.writeUTF(mirrored.path());
+							out.writeLong(mirrored.size());
+							out.writeInt(mirrored.crc());
+						}
+					}
+				}
+				out.flush();
+				ArchiveDiskCache.writeAtomically(file, bytes.toByteArray());
+			} catch (IOException e) {
+				System.err.println("Failed to save mirror manifest: " + e.getMessage());
+			}
+		}
+
+		static Manifest read(Path file) {
+			try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+				if (in.readInt() != MAGIC || in.readUnsignedShort() != FORMAT_VERSION) {
+					return null;
+				}
+				Manifest manifest = new Manifest(in.readUTF(), file);
+				manifest.lastTotal = in.readInt();
+				manifest.lastFailed = in.readInt();
+				int entryCount = in.readInt();
+				for (int i = 0; i < entryCount; i++) {
+					String entryPath = in.readUTF();
+					long updatedAt = in.readLong();
+					int fileCount = in.readInt();
+					List<MirroredFile> files = new ArrayList<>(fileCount);
+					for (int j = 0; j < fileCount; j++) {
+						files.add(new MirroredFile(in.readUTF(), in.readLong(), in.readInt()));
+					}
+					manifest.put(entryPath, new MirroredEntry(updatedAt, List.copyOf(files)));
+				}
+				return manifest;
+			} catch (IOException | RuntimeException e) {
+				System.err.println("Ignoring unreadable mirror manifest: " + e.getMessage());
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * One run over a channel. At most {@code mirrorParallelDownloads} entries are in flight; each
+	 * entry's files are fetched one after another, with retries.
+	 */
+	private static final class Job {
+		final ServerEntry server;
+		final String serverKey;
+		final String channelPath;
+		final String rawPrefix;
+		final CompletableFuture<Progress> result = new CompletableFuture<>();
+		private final ArrayDeque<ArchivePostSummary> queue = new ArrayDeque<>();
+		private final Set<String> current = new HashSet<>();
+		private ServerMirror mirror;
+		private Manifest manifest;
+		private int total;
+		private int done;
+		private int failed;
+		private int inFlight;
+		private int sinceSave;
+		private long bytes;
+		private boolean started;
+		private boolean finished;
+		volatile boolean cancelled;
+
+		Job(ServerEntry server, String serverKey, String channelPath) {
+			this.server = server;
+			this.serverKey = serverKey;
+			this.channelPath = channelPath;
+			this.rawPrefix = ArchiveNetworkManager.rawUrlPrefix(server);
+		}
+
+		void start(List<ArchivePostSummary> posts) {
+			ServerMirror loaded = mirrorOf(serverKey);
+			synchronized (this) {
+				mirror = loaded;
+				manifest = loaded.manifest(channelPath);
+				total = posts.size();
+				for (ArchivePostSummary post : posts) {
+					current.add(post.entryPath());
+				}
+				queue.addAll(posts);
+				started = true;
+			}
+			pump();
+		}
+
+		synchronized Progress progress() {
+			return new Progress(done, started ? total : 0, failed, bytes, true);
+		}
+
+		private void pump() {
+			int limit = DownloadSettings.getInstance().getMirrorParallelDownloads();
+			while (true) {
+				ArchivePostSummary post;
+				synchronized (this) {
+					if (cancelled) {
+						queue.clear();
+					}
+					if (queue.isEmpty()) {
+						if (inFlight > 0 || finished) {
+							return;
+						}
+						finished = true;
+						post = null;
+					} else if (inFlight >= limit) {
+						return;
+					} else {
+						post = queue.poll();
+						inFlight++;
+					}
+				}
+				if (post == null) {
+					CompletableFuture.runAsync(this::finish, ForkJoinPool.commonPool());
+					return;
+				}
+				mirrorEntry(post).whenComplete((entry, throwable) -> {
+					entryFinished(post, entry, throwable);
+					pump();
+				});
+			}
+		}
+
+		private CompletableFuture<MirroredEntry> mirrorEntry(ArchivePostSummary post) {
+			long version = ArchiveNetworkManager.entryVersion(post);
+			MirroredEntry existing = manifest.get(post.entryPath());
+			if (existing != null && existing.updatedAt() == version) {
+				return CompletableFuture.supplyAsync(() -> mirror.verify(existing), ForkJoinPool.commonPool())
+					.thenCompose(valid -> valid ? CompletableFuture.completedFuture(existing) : download(post, version));
+			}
+			return download(post, version);
+		}
+
+		private CompletableFuture<MirroredEntry> download(ArchivePostSummary post, long version) {
+			String dataPath = ArchiveNetworkManager.entryDataPath(post);
+			return withRetries(() -> ArchiveNetworkManager.fetchEntryBody(server, post, Priority.BACKGROUND), 1)
+				.thenComposeAsync(body -> {
+					// Parsing also rejects a damaged data.json before it is stored.
+					List<String> urls = ArchiveNetworkManager.entryFileUrls(body, server, post);
+					List<MirroredFile> files = new ArrayList<>();
+					files.add(write(dataPath, body));
+					Set<String> seen = new HashSet<>();
+					CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+					for (String url : urls) {
+						// Files hosted outside the repository, such as CDN links, are not mirrored.
+						if (url == null || !url.startsWith(rawPrefix)) continue;
+						String path = url.substring(rawPrefix.length());
+						if (!seen.add(path)) continue;
+						chain = chain.thenCompose(ignored -> withRetries(() -> downloadFile(url, path), 1)).thenAccept(files::add);
+					}
+					return chain.thenApply(ignored -> new MirroredEntry(version, List.copyOf(files)));
+				}, ForkJoinPool.commonPool());
+		}
+
+		private MirroredFile write(String path, byte[] body) {
+			Path target = mirror.resolve(path);
+			if (target == null) {
+				throw new CompletionException(new IOException("Refusing to mirror " + path));
+			}
+			try {
+				ArchiveDiskCache.writeAtomically(target, body);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return new MirroredFile(path, body.length, crc(body));
+		}
+
+		private CompletableFuture<MirroredFile> downloadFile(String url, String path) {
+			if (cancelled) {
+				return CompletableFuture.failedFuture(new IOException("Mirror cancelled"));
+			}
+			Path target = mirror.resolve(path);
+			if (target == null) {
+				return CompletableFuture.failedFuture(new IOException("Refusing to mirror " + path));
+			}
+			Path temp;
+			try {
+				Files.createDirectories(target.getParent());
+				temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+			} catch (IOException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+			return ArchiveNetworkManager.fetchToFileAsync(url, temp, FILE_TIMEOUT_SECONDS, Priority.BACKGROUND)
+				.thenApply(ignored -> {
+					try {
+						MirroredFile file = new MirroredFile(path, Files.size(temp), crc(temp));
+						ArchiveDiskCache.moveAtomically(temp, target);
+						return file;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				})
+				.whenComplete((file, throwable) -> {
+					if (throwable != null) {
+						try {
+							Files.deleteIfExists(temp);
+						} catch (IOException ignored) {
+							// Left-over parts are overwritten by name on the next run.
+						}
+					}
+				});
+		}
+
+		private <T> CompletableFuture<T> withRetries(Supplier<CompletableFuture<T>> attempt, int attemptNumber) {
+			return attempt.get().exceptionallyCompose(throwable -> {
+				if (attemptNumber >= MAX_ATTEMPTS || cancelled) {
+					return CompletableFuture.failedFuture(throwable);
+				}
+				return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS * attemptNumber, TimeUnit.MILLISECONDS))
+					.thenCompose(ignored -> withRetries(attempt, attemptNumber + 1));
+			});
+		}
+
+		private void entryFinished(ArchivePostSummary post, MirroredEntry entry, Throwable throwable) {
+			if (entry != null) {
+				mirror.record(manifest, post.entryPath(), entry);
+			} else if (!cancelled) {
+				// The previous copy, if any, stays; offline it is still better than nothing.
+				System.err.println("Failed to mirror " + post.entryPath() + ": " + (throwable != null ? throwable.getMessage() : "unknown error"));
+			}
+			boolean save;
+			synchronized (this) {
+				inFlight--;
+				if (entry != null) {
+					done++;
+					bytes += Manifest.size(entry);
+				} else {
+					failed++;
+				}
+				save = ++sinceSave >= SAVE_INTERVAL;
+				if (save) {
+					sinceSave = 0;
+				}
+			}
+			if (save) {
+				manifest.save();
+			}
+		}
+
+		private void finish() {
+			if (!cancelled) {
+				for (String entryPath : manifest.entryPaths()) {
+					if (!current.contains(entryPath)) {
+						mirror.delete(manifest, entryPath);
+					}
+				}
+			}
+			Progress progress;
+			synchronized (this) {
+				int notReached = total - done - failed;
+				manifest.finishRun(total, failed + notReached);
+				progress = new Progress(done, total, failed + notReached, bytes, false);
+			}
+			manifest.save();
+			result.complete(progress);
+		}
+	}
+}
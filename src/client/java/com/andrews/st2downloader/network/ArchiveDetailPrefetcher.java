@@ -0,0 +1,86 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.network.ArchiveRequestScheduler.Priority;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the details of the posts a grid is showing before they are clicked, so the detail panel
+ * usually opens fully populated. The grid hands over the posts it wants in priority order whenever
+ * its viewport changes; the new order replaces whatever was still queued, and at most
+ * {@link #MAX_IN_FLIGHT} loads run at once, one while the archive host is rate limiting us.
+ * Finished details are kept by {@link ArchiveNetworkManager}, where clicks pick them up.
+ */
+public final class ArchiveDetailPrefetcher {
+	private static final int MAX_IN_FLIGHT = 3;
+
+	private final ArrayDeque<ArchivePostSummary> queue = new ArrayDeque<>();
+	private final Set<ArchivePostSummary> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+	// Posts whose load failed for good (a missing or unreadable entry); they are not retried until the
+	// server changes. Timeouts and failures while the host is throttling us are retried on a later update.
+	private final Set<ArchivePostSummary> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+	private ServerEntry server;
+
+	/**
+	 * Replaces the queue with {@code posts}, highest priority first. Loads already running continue.
+	 */
+	public void update(ServerEntry server, List<ArchivePostSummary> posts) {
+		synchronized (this) {
+			if (this.server != server) {
+				this.server = server;
+				failed.clear();
+			}
+			queue.clear();
+			for (ArchivePostSummary post : posts) {
+				if (post != null && !inFlight.contains(post) && !failed.contains(post)) {
+					queue.add(post);
+				}
+			}
+		}
+		pump();
+	}
+
+	/**
+	 * Drops everything still queued; loads already running finish and are kept.
+	 */
+	public synchronized void cancel() {
+		queue.clear();
+	}
+
+	private void pump() {
+		while (true) {
+			ArchivePostSummary post;
+			ServerEntry target;
+			synchronized (this) {
+				if (inFlight.size() >= (ArchiveHttpClient.isBackpressured() ? 1 : MAX_IN_FLIGHT)) {
+					return;
+				}
+				post = queue.poll();
+				if (post == null) {
+					return;
+				}
+				target = server;
+				if (ArchiveNetworkManager.hasPostDetails(target, post)) {
+					continue;
+				}
+				inFlight.add(post);
+			}
+			ArchiveNetworkManager.getPostDetails(target, post, Priority.PREFETCH).whenComplete((detail, throwable) -> {
+				synchronized (this) {
+					inFlight.remove(post);
+					if (throwable != null && server == target && !ArchiveHttpClient.isRetryable(throwable)
+						&& !ArchiveHttpClient.isBackpressured()) {
+						failed.add(post);
+					}
+				}
+				pump();
+			});
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Persistent store of raw entry {@code data.json} bodies, keyed by server, channel path and entry path
+ * and tagged with the entry's {@code updatedAt} from the index. An entry whose index timestamp still
+ * matches is served from the store without asking the server whether it changed.
+ * <p>
+ * Recently used bodies are also held in memory, so reopening a post is a map lookup. The directory
+ * is bounded by the {@code detailStoreMb} setting and evicts the least recently used files; file
+ * modification times carry the recency across sessions.
+ */
+final class ArchiveDetailStore {
+	private static final String FOLDER = "details";
+	private static final int MAGIC = 0x53543244; // "ST2D"
+	private static final int FORMAT_VERSION = 2;
+	private static final long MEMORY_MAX_BYTES = 2L * 1024 * 1024;
+
+	private static final LinkedHashMap<String, Stored> MEMORY = new LinkedHashMap<>(64, 0.75f, true);
+	private static long memoryBytes = 0;
+	// Size of every file in the store in access order; loaded from the directory on first use.
+	private static LinkedHashMap<String, Long> files;
+	private static long diskBytes = 0;
+
+	private ArchiveDetailStore() {
+	}
+
+	private record Stored(long updatedAt, byte[] body) {
+	}
+
+	private record StoredFile(String name, long size, long modifiedAt) {
+	}
+
+	static String key(String serverKey, String channelPath, String entryPath) {
+		return serverKey + "\n" + channelPath + "\n" + entryPath;
+	}
+
+	/**
+	 * Returns the stored body for {@code key} if it was saved at {@code updatedAt}, or {@code null}.
+	 * Memory hits complete immediately; disk reads run on the common pool.
+	 */
+	static CompletableFuture<byte[]> load(String key, long updatedAt) {
+		if (updatedAt <= 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		synchronized (ArchiveDetailStore.class) {
+			Stored stored = MEMORY.get(key);
+			if (stored != null && stored.updatedAt() == updatedAt) {
+				return CompletableFuture.completedFuture(stored.body());
+			}
+		}
+		return CompletableFuture.supplyAsync(() -> readFile(key, updatedAt), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Stores {@code body} for {@code key} at {@code updatedAt}. Entries without a known timestamp are
+	 * not stored, since they could never be validated.
+	 */
+	static void save(String key, long updatedAt, byte[] body) {
+		if (updatedAt <= 0 || body == null) {
+			return;
+		}
+		remember(key, new Stored(updatedAt, body));
+		CompletableFuture.runAsync(() -> writeFile(key, updatedAt, body), ForkJoinPool.commonPool());
+	}
+
+	private static synchronized void remember(String key, Stored stored) {
+		if (stored.body().length > MEMORY_MAX_BYTES) {
+			return;
+		}
+		Stored previous = MEMORY.put(key, stored);
+		if (previous != null) {
+			memoryBytes -= previous.body().length;
+		}
+		memoryBytes += stored.body().length;
+		Iterator<Map.Entry<String, Stored>> iterator = MEMORY.entrySet().iterator();
+		while (memoryBytes > MEMORY_MAX_BYTES && iterator.hasNext()) {
+			memoryBytes -= iterator.next().getValue().body().length;
+			iterator.remove();
+		}
+	}
+
+	private static byte[] readFile(String key, long updatedAt) {
+		String name = fileName(key);
+		Path file = directory().resolve(name);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+			if (buffer.getInt() != MAGIC || Short.toUnsignedInt(buffer.getShort()) != FORMAT_VERSION
+				|| buffer.getLong() != updatedAt || !key.equals(readString(buffer))) {
+				return null;
+			}
+			int length = buffer.getInt();
+			if (length < 0 || length != buffer.remaining()) {
+				return null;
+			}
+			byte[] body = new byte[length];
+			buffer.get(body);
+			touch(name, file);
+			remember(key, new Stored(updatedAt, body));
+			return body;
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Ignoring unreadable stored entry: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static void writeFile(String key, long updatedAt, byte[] body) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 64);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeShort(FORMAT_VERSION);
+			out.writeLong(updatedAt);
+			writeString(out, key);
+			out.writeInt(body.length);
+			out.write(body);
+			out.flush();
+			String name = fileName(key);
+			ArchiveDiskCache.writeAtomically(directory().resolve(name), bytes.toByteArray());
+			recordWrite(name, bytes.size());
+		} catch (IOException e) {
+			System.err.println("Failed to store entry data: " + e.getMessage());
+		}
+	}
+
+	private static synchronized void touch(String name, Path file) {
+		ensureFilesLoaded();
+		files.get(name); // moves it to the most recently used end
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException ignored) {
+			// Recency is only a hint for eviction in later sessions.
+		}
+	}
+
+	private static synchronized void recordWrite(String name, long size) {
+		ensureFilesLoaded();
+		Long previous = files.put(name, size);
+		diskBytes += size - (previous != null ? previous : 0L);
+		long limit = DownloadSettings.getInstance().getDetailStoreBytes();
+		Iterator<Map.Entry<String, Long>> iterator = files.entrySet().iterator();
+		while (diskBytes > limit && iterator.hasNext()) {
+			Map.Entry<String, Long> oldest = iterator.next();
+			if (oldest.getKey().equals(name)) continue;
+			try {
+				Files.deleteIfExists(directory().resolve(oldest.getKey()));
+			} catch (IOException e) {
+				System.err.println("Failed to evict stored entry: " + e.getMessage());
+				continue;
+			}
+			diskBytes -= oldest.getValue();
+			iterator.remove();
+		}
+	}
+
+	private static void ensureFilesLoaded() {
+		if (files != null) {
+			return;
+		}
+		files = new LinkedHashMap<>(256, 0.75f, true);
+		diskBytes = 0;
+		Path directory = directory();
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		List<StoredFile> found = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.bin")) {
+			for (Path file : stream) {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				found.add(new StoredFile(file.getFileName().toString(), attributes.size(), attributes.lastModifiedTime().toMillis()));
+			}
+		} catch (IOException e) {
+			System.err.println("Failed to list stored entries: " + e.getMessage());
+		}
+		found.sort(Comparator.comparingLong(StoredFile::modifiedAt));
+		for (StoredFile file : found) {
+			files.put(file.name(), file.size());
+			diskBytes += file.size();
+		}
+	}
+
+	private static Path directory() {
+		return ArchiveDiskCache.root().resolve(FOLDER);
+	}
+
+	/**
+	 * 64-bit FNV-1a of {@code key} as hex; the full key is kept in the file to rule out collisions.
+	 */
+	private static String fileName(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return Long.toHexString(hash) + ".bin";
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalStateException("Stored entry length out of range: " + length);
+		}
+		String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
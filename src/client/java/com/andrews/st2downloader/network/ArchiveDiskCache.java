@@ -0,0 +1,56 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Locates the per-server cache directory for data derived from the archive index and writes files
+ * into it atomically, so a crash mid-write never leaves a truncated cache behind.
+ */
+final class ArchiveDiskCache {
+	private static final String CACHE_FOLDER = "st2-downloader";
+
+	private static volatile Path rootOverride;
+
+	private ArchiveDiskCache() {
+	}
+
+	static void setRootOverride(Path root) {
+		rootOverride = root;
+	}
+
+	static Path root() {
+		Path override = rootOverride;
+		if (override != null) {
+			return override;
+		}
+		return DownloadSettings.gameDir().resolve(CACHE_FOLDER).resolve("cache");
+	}
+
+	static Path file(String serverKey, String name) {
+		return root().resolve(serverKey).resolve(name);
+	}
+
+	static void writeAtomically(Path target, byte[] data) throws IOException {
+		Files.createDirectories(target.getParent());
+		// A unique temp name lets concurrent writers of the same file each finish with a whole file.
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		Files.write(temp, data);
+		moveAtomically(temp, target);
+	}
+
+	/**
+	 * Replaces {@code target} with the finished file {@code temp}, which must be in the same directory.
+	 */
+	static void moveAtomically(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
@@ -0,0 +1,455 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.network.ArchiveRequestScheduler.Priority;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLSession;
+
+/**
+ * The one HTTP client every part of the mod sends through, so connections and TLS sessions are
+ * pooled across the index, entry, image and attachment loads instead of per caller.
+ * <p>
+ * Requests prefer HTTP/2, which multiplexes them over a single connection per host; idle
+ * connections stay pooled between bursts for the JDK's keep-alive timeout. {@link ArchiveRequestScheduler} decides when each
+ * request may go out, by priority and against the global, per-class and per-host limits. Which TLS
+ * session each response came over is tracked to count handshakes against reused connections.
+ * <p>
+ * Every request runs against a deadline that starts with its first attempt. Connection failures,
+ * timeouts, 429 and 5xx responses are retried with exponential backoff and jitter, or after the
+ * server's {@code Retry-After}, for as long as the deadline allows. A 429 or 503 also throttles the
+ * host in the scheduler, which holds back prefetch and background work until it passes. Requests
+ * whose class allows it are hedged: when no response headers have arrived after a few times the
+ * host's usual latency, a second attempt races the first and the loser is cancelled.
+ * <p>
+ * Archive files can be served by more than one source; {@link ArchiveSourceSelector} orders them.
+ * A failed attempt moves straight on to the next source without backing off, a hedge races the
+ * next source rather than the same one, and the usual retries only begin once every source has
+ * been tried.
+ */
+public final class ArchiveHttpClient {
+	private static final int CONNECT_TIMEOUT_SECONDS = 10;
+	// TLS sessions remembered for reuse accounting; connections idle longer than this are long closed.
+	private static final int MAX_TRACKED_SESSIONS = 256;
+	// Per-attempt timeout for requests that do not set their own; bounded by the deadline either way.
+	private static final long DEFAULT_ATTEMPT_TIMEOUT_MILLIS = 15_000;
+	private static final int MAX_ATTEMPTS = 4;
+	private static final long BACKOFF_BASE_MILLIS = 500;
+	private static final long BACKOFF_MAX_MILLIS = 8_000;
+	private static final long MAX_RETRY_AFTER_MILLIS = 60_000;
+	private static final long INITIAL_HEADER_LATENCY_MILLIS = 700;
+	private static final long MIN_HEDGE_DELAY_MILLIS = 750;
+	private static final long MAX_HEDGE_DELAY_MILLIS = 5_000;
+	private static final int HEDGE_LATENCY_MULTIPLIER = 3;
+
+	private static final ArchiveRequestScheduler SCHEDULER = new ArchiveRequestScheduler();
+	private static final Map<String, Boolean> SEEN_SESSIONS = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > MAX_TRACKED_SESSIONS;
+		}
+	};
+	private static final AtomicLong REQUESTS = new AtomicLong();
+	private static final AtomicLong HTTP2_RESPONSES = new AtomicLong();
+	private static final AtomicLong HANDSHAKES = new AtomicLong();
+	private static final AtomicLong REUSED = new AtomicLong();
+	private static final AtomicLong RETRIES = new AtomicLong();
+	private static final AtomicLong HEDGES = new AtomicLong();
+	private static final AtomicLong RATE_LIMITED = new AtomicLong();
+	private static final AtomicLong FAILOVERS = new AtomicLong();
+	// Smoothed time to response headers per host, in milliseconds; drives the hedge delay.
+	private static final Map<String, Long> HEADER_LATENCY = new ConcurrentHashMap<>();
+
+	private static volatile HttpClient client;
+
+	private ArchiveHttpClient() {
+	}
+
+	/**
+	 * Sends a request the user is waiting on, ahead of any queued background work.
+	 */
+	public static <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+		return send(request, handler, Priority.INTERACTIVE);
+	}
+
+	/**
+	 * Sends {@code request} once the scheduler gives it a slot, retrying and hedging within the
+	 * deadline of {@code priority}. Completes with the last response when retries run out on an
+	 * error status, so callers still see and report the status.
+	 */
+	static <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, Priority priority) {
+		return send(request, handler, priority, ArchiveSourceSelector.route(request.uri()));
+	}
+
+	/**
+	 * Sends {@code request} like {@link #send(HttpRequest, HttpResponse.BodyHandler, Priority)} but
+	 * only to its own URL, never a mirror. For re-fetching a file a mirror served out of date.
+	 */
+	static <T> CompletableFuture<HttpResponse<T>> sendCanonical(HttpRequest request, HttpResponse.BodyHandler<T> handler, Priority priority) {
+		return send(request, handler, priority, List.of(request.uri()));
+	}
+
+	private static <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, Priority priority, List<URI> routes) {
+		REQUESTS.incrementAndGet();
+		Call<T> call = new Call<>(request, handler, priority, routes);
+		call.submit(false);
+		return call.result;
+	}
+
+	/**
+	 * The shared backpressure signal: whether any host is currently rate limiting us.
+	 */
+	public static boolean isBackpressured() {
+		return SCHEDULER.isThrottled();
+	}
+
+	/**
+	 * Raises a queued request for {@code uri} to {@code priority}, when a more urgent caller joins a
+	 * load that was started at a lower one.
+	 */
+	static void promote(String uri, Priority priority) {
+		SCHEDULER.promote(uri, priority);
+	}
+
+	/**
+	 * Sends {@code request} as is: no queueing, retries or failover. For probes that time one source.
+	 */
+	static <T> CompletableFuture<HttpResponse<T>> sendOnce(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+		try {
+			return client().sendAsync(request, handler);
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private static HttpClient client() {
+		HttpClient current = client;
+		if (current == null) {
+			synchronized (ArchiveHttpClient.class) {
+				current = client;
+				if (current == null) {
+					current = HttpClient.newBuilder()
+						.version(DownloadSettings.getInstance().isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+						.connectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT_SECONDS))
+						.followRedirects(HttpClient.Redirect.NORMAL)
+						.build();
+					client = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static void record(HttpResponse<?> response) {
+		if (response.version() == HttpClient.Version.HTTP_2) {
+			HTTP2_RESPONSES.incrementAndGet();
+		}
+		SSLSession session = response.sslSession().orElse(null);
+		if (session == null || session.getId() == null || session.getId().length == 0) {
+			return;
+		}
+		// Each handshake yields a fresh session id; every connection keeps the one it was opened with.
+		String key = HexFormat.of().formatHex(session.getId()) + "@" + session.getCreationTime();
+		boolean seen;
+		synchronized (SEEN_SESSIONS) {
+			seen = SEEN_SESSIONS.put(key, Boolean.TRUE) != null;
+		}
+		(seen ? REUSED : HANDSHAKES).incrementAndGet();
+	}
+
+	private static boolean isRetryable(int status) {
+		return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+	}
+
+	static boolean isRetryable(Throwable throwable) {
+		Throwable cause = unwrap(throwable);
+		// Timeouts and dropped connections are worth another try; an interrupted caller is not.
+		return cause instanceof IOException && !(cause instanceof InterruptedIOException);
+	}
+
+	private static Throwable unwrap(Throwable throwable) {
+		return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+	}
+
+	/**
+	 * Backoff before retry {@code attempt}, doubling from {@link #BACKOFF_BASE_MILLIS} and jittered
+	 * over its upper half so clients that failed together do not retry together.
+	 */
+	private static long backoffMillis(int attempt) {
+		long ceiling = Math.min(BACKOFF_MAX_MILLIS, BACKOFF_BASE_MILLIS << Math.min(attempt - 1, 16));
+		return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+	}
+
+	/**
+	 * The delay a {@code Retry-After} header asks for, in seconds or as an HTTP date; -1 without one.
+	 */
+	private static long retryAfterMillis(HttpResponse<?> response) {
+		String value = response.headers().firstValue("Retry-After").orElse(null);
+		if (value == null || value.isBlank()) {
+			return -1;
+		}
+		try {
+			return Math.max(0, Long.parseLong(value.trim()) * 1000);
+		} catch (NumberFormatException e) {
+			try {
+				ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+				return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+			} catch (DateTimeParseException ignored) {
+				return -1;
+			}
+		}
+	}
+
+	private static long hedgeDelayMillis(String host) {
+		long latency = HEADER_LATENCY.getOrDefault(host, INITIAL_HEADER_LATENCY_MILLIS);
+		return Math.max(MIN_HEDGE_DELAY_MILLIS, Math.min(MAX_HEDGE_DELAY_MILLIS, latency * HEDGE_LATENCY_MULTIPLIER));
+	}
+
+	private static void recordHeaderLatency(String host, long millis) {
+		HEADER_LATENCY.merge(host, millis, (previous, sample) -> (previous * 7 + sample) / 8);
+	}
+
+	private static String hostKey(URI uri) {
+		return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+	}
+
+	static long requestCount() {
+		return REQUESTS.get();
+	}
+
+	static long http2ResponseCount() {
+		return HTTP2_RESPONSES.get();
+	}
+
+	static long handshakeCount() {
+		return HANDSHAKES.get();
+	}
+
+	static long reusedCount() {
+		return REUSED.get();
+	}
+
+	static long queuedCount() {
+		return SCHEDULER.queuedCount();
+	}
+
+	static long promotedCount() {
+		return SCHEDULER.promotedCount();
+	}
+
+	static long retryCount() {
+		return RETRIES.get();
+	}
+
+	static long hedgeCount() {
+		return HEDGES.get();
+	}
+
+	static long rateLimitedCount() {
+		return RATE_LIMITED.get();
+	}
+
+	static long failoverCount() {
+		return FAILOVERS.get();
+	}
+
+	/**
+	 * One logical request: its attempts, at most one hedge, and the deadline they share.
+	 */
+	private static final class Call<T> {
+		final HttpRequest request;
+		final HttpResponse.BodyHandler<T> handler;
+		final Priority priority;
+		final String key;
+		final List<URI> routes;
+		final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+		private final List<CompletableFuture<HttpResponse<T>>> running = new ArrayList<>();
+		private long deadlineNanos;
+		private int attempts;
+		private int outstanding;
+		private boolean hedged;
+		// The source fresh attempts go to; moves along routes as sources fail.
+		private int route;
+
+		Call(HttpRequest request, HttpResponse.BodyHandler<T> handler, Priority priority, List<URI> routes) {
+			this.request = request;
+			this.handler = handler;
+			this.priority = priority;
+			// The canonical URL stays the key, so promotion finds the request whichever source it goes to.
+			this.key = request.uri().toString();
+			this.routes = routes;
+		}
+
+		void submit(boolean hedge) {
+			URI target;
+			synchronized (this) {
+				outstanding++;
+				// A hedge races the next source when there is one, so a stalled source is not asked twice.
+				target = routes.get(hedge ? Math.min(route + 1, routes.size() - 1) : route);
+			}
+			SCHEDULER.submit(hostKey(target), key, priority, release -> start(release, hedge, target));
+		}
+
+		private void start(Runnable release, boolean hedge, URI target) {
+			String host = hostKey(target);
+			long now = System.nanoTime();
+			long timeoutMillis;
+			synchronized (this) {
+				if (result.isDone()) {
+					outstanding--;
+					release.run();
+					return;
+				}
+				if (attempts++ == 0) {
+					// Time spent queued behind more urgent requests does not count against the deadline.
+					deadlineNanos = now + TimeUnit.SECONDS.toNanos(priority.deadlineSeconds);
+				}
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - now);
+				timeoutMillis = Math.max(1, Math.min(remaining, request.timeout().map(Duration::toMillis).orElse(DEFAULT_ATTEMPT_TIMEOUT_MILLIS)));
+			}
+			HttpRequest attempt = HttpRequest.newBuilder(request, (name, value) -> true)
+				.uri(target)
+				.timeout(Duration.ofMillis(timeoutMillis))
+				.build();
+			CompletableFuture<Void> headers = new CompletableFuture<>();
+			HttpResponse.BodyHandler<T> watched = info -> {
+				recordHeaderLatency(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now));
+				headers.complete(null);
+				return handler.apply(info);
+			};
+			CompletableFuture<HttpResponse<T>> sent;
+			try {
+				sent = client().sendAsync(attempt, watched);
+			} catch (RuntimeException e) {
+				sent = CompletableFuture.failedFuture(e);
+			}
+			synchronized (this) {
+				running.add(sent);
+			}
+			CompletableFuture<HttpResponse<T>> tracked = sent;
+			sent.whenComplete((response, throwable) -> {
+				release.run();
+				synchronized (this) {
+					running.remove(tracked);
+				}
+				if (response != null) {
+					record(response);
+				}
+				finished(response, throwable, target);
+			});
+			if (!hedge && priority.hedged) {
+				CompletableFuture.delayedExecutor(hedgeDelayMillis(host), TimeUnit.MILLISECONDS).execute(() -> maybeHedge(headers, host));
+			}
+		}
+
+		private void maybeHedge(CompletableFuture<Void> headers, String host) {
+			synchronized (this) {
+				if (hedged || headers.isDone() || result.isDone() || outstanding > 1 || SCHEDULER.isThrottled(host)) {
+					return;
+				}
+				hedged = true;
+			}
+			HEDGES.incrementAndGet();
+			submit(true);
+		}
+
+		private void finished(HttpResponse<T> response, Throwable throwable, URI target) {
+			boolean retry = response != null ? isRetryable(response.statusCode()) : isRetryable(throwable);
+			if (retry) {
+				ArchiveSourceSelector.reportFailure(target);
+			} else if (response != null) {
+				ArchiveSourceSelector.reportSuccess(target);
+			}
+			// A mirror that lags behind the branch may not have a new file yet; that is no reason to distrust it.
+			boolean missing = response != null && response.statusCode() == 404 && ArchiveSourceSelector.isMirror(target);
+			List<CompletableFuture<HttpResponse<T>>> losers;
+			long delayMillis;
+			boolean failover = false;
+			synchronized (this) {
+				outstanding--;
+				if (result.isDone()) {
+					return;
+				}
+				if ((retry || missing) && outstanding > 0) {
+					// The hedge still running gets to answer instead.
+					return;
+				}
+				int next = Math.max(route, routes.indexOf(target)) + 1;
+				if ((retry || missing) && next < routes.size() && attempts < MAX_ATTEMPTS + routes.size() - 1
+					&& deadlineNanos - System.nanoTime() > 0) {
+					route = next;
+					failover = true;
+					losers = List.of();
+					delayMillis = 0;
+				} else if (!retry) {
+					losers = new ArrayList<>(running);
+					delayMillis = -1;
+				} else {
+					losers = List.of();
+					delayMillis = retryDelay(response);
+					// Every source has failed once; the next round starts again from the preferred one.
+					route = 0;
+				}
+			}
+			if (response != null && (response.statusCode() == 429 || response.statusCode() == 503)) {
+				RATE_LIMITED.incrementAndGet();
+				SCHEDULER.throttle(hostKey(target), delayMillis > 0 ? delayMillis : backoffMillis(attempts));
+			}
+			if (failover) {
+				FAILOVERS.incrementAndGet();
+				submit(false);
+				return;
+			}
+			if (delayMillis < 0) {
+				complete(response, throwable);
+				for (CompletableFuture<HttpResponse<T>> loser : losers) {
+					loser.cancel(true);
+				}
+				return;
+			}
+			RETRIES.incrementAndGet();
+			CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(() -> submit(false));
+		}
+
+		/**
+		 * How long to wait before retrying, or -1 when the attempts or the deadline are used up.
+		 */
+		private long retryDelay(HttpResponse<T> response) {
+			if (attempts >= MAX_ATTEMPTS + routes.size() - 1) {
+				return -1;
+			}
+			long retryAfter = response != null ? retryAfterMillis(response) : -1;
+			long delay = retryAfter >= 0 ? Math.min(retryAfter, MAX_RETRY_AFTER_MILLIS) : backoffMillis(attempts);
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+			return delay < remaining ? delay : -1;
+		}
+
+		private void complete(HttpResponse<T> response, Throwable throwable) {
+			if (response != null) {
+				result.complete(response);
+			} else {
+				result.completeExceptionally(unwrap(throwable));
+			}
+		}
+	}
+}
@@ -0,0 +1,314 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchiveChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Versioned binary snapshot of everything derived from a server's {@code persistent.idx}: posts,
+ * dictionaries, sort permutations, MinHash signatures and suggestion keys.
+ * <p>
+ * The snapshot is keyed by the index {@code updatedAt} and read back on startup with one bulk read,
+ * so an unchanged archive is searchable without a network round trip or any sorting. Every column
+ * is copied out of the buffer, so the file is not mapped: a live mapping would stop Windows from
+ * replacing the snapshot once the remote index changes. Strings are written once to a shared table
+ * and referenced by id everywhere else.
+ */
+final class ArchiveIndexSnapshot {
+	static final String FILE_NAME = "search.snap";
+
+	private static final int MAGIC = 0x53543258; // "ST2X"
+	private static final int FORMAT_VERSION = 3;
+
+	private ArchiveIndexSnapshot() {
+	}
+
+	record Contents(
+		long updatedAt,
+		String schemaStylesJson,
+		List<ArchiveChannel> channels,
+		ArchiveSearchIndex searchIndex,
+		ArchiveSimilarityIndex similarity,
+		ArchiveSuggestionIndex suggestions
+	) {
+	}
+
+	static void write(Path file, Contents contents) throws IOException {
+		Writer body = new Writer();
+		body.writeString(contents.schemaStylesJson());
+		body.writeInt(contents.channels().size());
+		for (ArchiveChannel channel : contents.channels()) {
+			body.writeString(channel.id());
+			body.writeString(channel.name());
+			body.writeString(channel.code());
+			body.writeString(channel.category());
+			body.writeString(channel.path());
+			body.writeString(channel.description());
+			body.writeInt(channel.entryCount());
+			List<String> tags = channel.availableTags() != null ? channel.availableTags() : List.of();
+			body.writeStrings(tags.toArray(new String[0]));
+		}
+		contents.searchIndex().writeTo(body);
+		contents.similarity().writeTo(body);
+		contents.suggestions().writeTo(body);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.size() + 1024);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeShort(FORMAT_VERSION);
+		out.writeLong(contents.updatedAt());
+		writeRawString(out, Locale.getDefault().toLanguageTag());
+		out.writeInt(body.strings.size());
+		for (String value : body.strings) {
+			writeRawString(out, value);
+		}
+		body.bytes.writeTo(out);
+		out.flush();
+		ArchiveDiskCache.writeAtomically(file, bytes.toByteArray());
+	}
+
+	/**
+	 * Returns the {@code updatedAt} recorded in {@code file}'s header, or {@code null} when there is no
+	 * readable snapshot for this format version.
+	 */
+	static Long readUpdatedAt(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(14);
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+				// keep reading until the header is buffered
+			}
+			header.flip();
+			if (header.remaining() < 14 || header.getInt() != MAGIC || Short.toUnsignedInt(header.getShort()) != FORMAT_VERSION) {
+				return null;
+			}
+			return header.getLong();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads and decodes {@code file}, or returns {@code null} when the file is missing, was written
+	 * by another format version or locale, or is damaged.
+	 */
+	static Contents read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// keep reading until the file is fully buffered
+			}
+			buffer.flip();
+			if (buffer.getInt() != MAGIC || Short.toUnsignedInt(buffer.getShort()) != FORMAT_VERSION) {
+				return null;
+			}
+			long updatedAt = buffer.getLong();
+			// Name and code permutations follow the collation of the locale they were built with.
+			if (!Locale.getDefault().toLanguageTag().equals(readRawString(buffer))) {
+				return null;
+			}
+			String[] strings = new String[checkedLength(buffer, buffer.getInt(), 4)];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readRawString(buffer);
+			}
+
+			Reader reader = new Reader(buffer, strings);
+			String schemaStylesJson = reader.readString();
+			int channelCount = reader.readLength(1);
+			List<ArchiveChannel> channels = new ArrayList<>(channelCount);
+			for (int i = 0; i < channelCount; i++) {
+				channels.add(new ArchiveChannel(
+					reader.readString(),
+					reader.readString(),
+					reader.readString(),
+					reader.readString(),
+					reader.readString(),
+					reader.readString(),
+					reader.readInt(),
+					Arrays.asList(reader.readStrings())
+				));
+			}
+			ArchiveSearchIndex searchIndex = ArchiveSearchIndex.read(reader);
+			ArchiveSimilarityIndex similarity = ArchiveSimilarityIndex.read(reader, searchIndex);
+			ArchiveSuggestionIndex suggestions = ArchiveSuggestionIndex.read(reader);
+			return new Contents(updatedAt, schemaStylesJson, channels, searchIndex, similarity, suggestions);
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Ignoring unreadable search snapshot: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static void writeRawString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readRawString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[checkedLength(buffer, length, 1)];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int checkedLength(ByteBuffer buffer, int length, int elementSize) {
+		if (length < 0 || (long) length * elementSize > buffer.remaining()) {
+			throw new IllegalStateException("Snapshot length out of range: " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * Buffers the snapshot body while interning strings; the string table is written ahead of it.
+	 */
+	static final class Writer {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		private final DataOutputStream out = new DataOutputStream(bytes);
+		private final Map<String, Integer> stringIds = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+
+		private int size() {
+			return bytes.size();
+		}
+
+		void writeInt(int value) throws IOException {
+			out.writeInt(value);
+		}
+
+		void writeLong(long value) throws IOException {
+			out.writeLong(value);
+		}
+
+		void writeString(String value) throws IOException {
+			if (value == null) {
+				out.writeInt(-1);
+				return;
+			}
+			Integer id = stringIds.get(value);
+			if (id == null) {
+				id = strings.size();
+				strings.add(value);
+				stringIds.put(value, id);
+			}
+			out.writeInt(id);
+		}
+
+		void writeStrings(String[] values) throws IOException {
+			out.writeInt(values.length);
+			for (String value : values) {
+				writeString(value);
+			}
+		}
+
+		void writeInts(int[] values) throws IOException {
+			out.writeInt(values.length);
+			for (int value : values) {
+				out.writeInt(value);
+			}
+		}
+
+		void writeLongs(long[] values) throws IOException {
+			out.writeInt(values.length);
+			for (long value : values) {
+				out.writeLong(value);
+			}
+		}
+
+		void writeIntArrays(int[][] values) throws IOException {
+			out.writeInt(values.length);
+			for (int[] value : values) {
+				writeInts(value);
+			}
+		}
+	}
+
+	/**
+	 * Decodes the snapshot body from the buffered file; primitive arrays are bulk copies.
+	 */
+	static final class Reader {
+		private final ByteBuffer buffer;
+		private final String[] strings;
+
+		private Reader(ByteBuffer buffer, String[] strings) {
+			this.buffer = buffer;
+			this.strings = strings;
+		}
+
+		int readInt() {
+			return buffer.getInt();
+		}
+
+		long readLong() {
+			return buffer.getLong();
+		}
+
+		int readLength(int elementSize) {
+			return checkedLength(buffer, buffer.getInt(), elementSize);
+		}
+
+		String readString() {
+			int id = buffer.getInt();
+			return id < 0 ? null : strings[id];
+		}
+
+		String[] readStrings() {
+			String[] values = new String[readLength(4)];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = readString();
+			}
+			return values;
+		}
+
+		int[] readInts() {
+			int[] values = new int[readLength(4)];
+			buffer.asIntBuffer().get(values);
+			buffer.position(buffer.position() + values.length * 4);
+			return values;
+		}
+
+		long[] readLongs() {
+			long[] values = new long[readLength(8)];
+			buffer.asLongBuffer().get(values);
+			buffer.position(buffer.position() + values.length * 8);
+			return values;
+		}
+
+		int[][] readIntArrays() {
+			int[][] values = new int[readLength(4)][];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = readInts();
+			}
+			return values;
+		}
+	}
+}
@@ -1,32 +1,43 @@
 package com.andrews.st2downloader.network;
 
+import com.andrews.st2downloader.config.DownloadSettings;
 import com.andrews.st2downloader.config.ServerDictionary;
 import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import com.andrews.st2downloader.models.ArchiveAttachment;
 import com.andrews.st2downloader.models.ArchiveChannel;
+import com.andrews.st2downloader.models.ArchiveDateFilter;
 import com.andrews.st2downloader.models.ArchiveImageInfo;
+import com.andrews.st2downloader.models.ArchiveNetworkStats;
 import com.andrews.st2downloader.models.ArchivePostDetail;
 import com.andrews.st2downloader.models.ArchivePostSummary;
 import com.andrews.st2downloader.models.ArchiveRecordSection;
 import com.andrews.st2downloader.models.ArchiveSearchResult;
+import com.andrews.st2downloader.models.ArchiveSuggestion;
 import com.andrews.st2downloader.models.DiscordPostReference;
+import com.andrews.st2downloader.network.ArchiveRecordRenderer.RecordField;
+import com.andrews.st2downloader.network.ArchiveRecordRenderer.StyleInfo;
+import com.andrews.st2downloader.network.ArchiveRequestScheduler.Priority;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -34,21 +45,43 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.InflaterInputStream;
 
 public class ArchiveNetworkManager {
 	private static final String DEFAULT_BRANCH = "main";
-	private static final String RAW_BASE = "https://raw.githubusercontent.com";
+	// Overridable so the performance harness can serve an archive checkout from a local stub server.
+	private static final String RAW_BASE = System.getProperty("st2downloader.rawBase", "https://raw.githubusercontent.com");
 	public static final String USER_AGENT = "ST2Downloader/1.0 (+https://github.com/Storage-Tech-2/ST2-Downloader)";
 
 	private static final int TIMEOUT_SECONDS = 10;
 	private static final Gson GSON = new Gson();
-	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
-		.connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-		.build();
+	private static final int IMAGE_TIMEOUT_SECONDS = 15;
 
+	private static final long REVALIDATE_INTERVAL_MILLIS = 10L * 60L * 1000L;
 	private static final Map<String, ArchiveIndexCache> CACHED_INDEXES = new ConcurrentHashMap<>();
 	private static final Map<String, CompletableFuture<ArchiveIndexCache>> INDEX_FUTURES = new ConcurrentHashMap<>();
-	private static final Map<String, Map<String, StyleInfo>> CACHED_SCHEMA_STYLES = new ConcurrentHashMap<>();
+	// Completes with the decoded channel layout of a cold load, or null when the load needs none.
+	private static final Map<String, CompletableFuture<PersistentIndexLayout>> INDEX_LAYOUTS = new ConcurrentHashMap<>();
+	private static final Map<String, Long> INDEX_LAST_USED = new ConcurrentHashMap<>();
+	private static final Map<String, Long> INDEX_VALIDATED_AT = new ConcurrentHashMap<>();
+	// Snapshot writes of evicted indexes still in flight; a reload of that server waits for its write.
+	private static final Map<String, CompletableFuture<Void>> PARKING = new ConcurrentHashMap<>();
+	private static final AtomicLong INDEX_USE_COUNTER = new AtomicLong();
+	private static final AtomicLong INDEX_VERSION_COUNTER = new AtomicLong();
+	// Open handle count per index version; superseded versions stay reachable until their last release.
+	private static final Map<Long, Integer> PINNED_VERSIONS = new ConcurrentHashMap<>();
+	private static final Map<String, ArchiveRecordRenderer> CACHED_RECORD_RENDERERS = new ConcurrentHashMap<>();
+	// Posts seen on the last visit per server, read from disk on first use; completes with null if never visited.
+	private static final Map<String, CompletableFuture<ArchiveVisitLog>> VISIT_BASELINES = new ConcurrentHashMap<>();
+	private static final Map<String, VisitDiffState> VISIT_DIFFS = new ConcurrentHashMap<>();
+	private static final ArchiveRequestCoalescer REQUESTS = new ArchiveRequestCoalescer();
+	private static final int DETAIL_MEMO_SIZE = 256;
+	// Recently built details by entry key; a prefetched post opens without parsing or rendering again.
+	private static final LinkedHashMap<String, MemoizedDetail> DETAIL_MEMO = new LinkedHashMap<>(64, 0.75f, true);
 
 	public static CompletableFuture<ArchiveSearchResult> searchPosts(
 		ServerEntry server,
@@ -58,46 +91,152 @@ public class ArchiveNetworkManager {
 		List<String> includeTags,
 		List<String> excludeTags,
 		List<String> channelPaths,
+		List<String> authors,
+		ArchiveDateFilter dateFilter,
 		int page,
 		int itemsPerPage
 	) {
-		ServerEntry targetServer = normalizeServer(server);
-		return ensureIndexLoaded(targetServer).thenApply(index -> {
-			List<ArchivePostSummary> filtered = new ArrayList<>(filterPosts(index.posts(), query, tag, includeTags, excludeTags, channelPaths));
-			sortPosts(filtered, sort);
-
-			Map<String, Integer> channelCounts = new LinkedHashMap<>();
-			for (ArchiveChannel channel : index.channels()) {
-				if (channel != null && channel.path() != null) {
-					channelCounts.put(channel.path(), 0);
-				}
-			}
-			Map<String, Integer> tagCounts = new LinkedHashMap<>();
-			for (ArchivePostSummary post : filtered) {
-				if (post == null || post.channelPath() == null) continue;
-				String path = post.channelPath();
-				channelCounts.put(path, channelCounts.getOrDefault(path, 0) + 1);
-				if (post.tags() != null) {
-					for (String tag2 : post.tags()) {
-						if (tag2 == null) continue;
-						String key = tag2.toLowerCase(Locale.ROOT);
-						tagCounts.put(key, tagCounts.getOrDefault(key, 0) + 1);
-					}
-				}
+		return acquireIndex(server, channelPaths).thenApply(handle -> {
+			try (handle) {
+				return search(handle.cache(), query, sort, tag, includeTags, excludeTags, channelPaths, authors, dateFilter, null, page, itemsPerPage);
 			}
+		});
+	}
 
-			int totalItems = filtered.size();
-			int totalPages = Math.max(1, (int) Math.ceil(totalItems / (double) Math.max(itemsPerPage, 1)));
+	/**
+	 * Searches the index version pinned by {@code handle}, so every page of one result set comes
+	 * from the same snapshot even if a refresh installs a newer index in the meantime.
+	 */
+	public static CompletableFuture<ArchiveSearchResult> searchPosts(
+		IndexHandle handle,
+		String query,
+		String sort,
+		String tag,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelPaths,
+		List<String> authors,
+		ArchiveDateFilter dateFilter,
+		int page,
+		int itemsPerPage
+	) {
+		return searchPosts(handle, query, sort, tag, includeTags, excludeTags, channelPaths, authors, dateFilter, false, page, itemsPerPage);
+	}
 
-			int startIndex = Math.max(0, (page - 1) * Math.max(itemsPerPage, 1));
-			int endIndex = Math.min(filtered.size(), startIndex + Math.max(itemsPerPage, 1));
-			List<ArchivePostSummary> pageItems = filtered.subList(
-				Math.min(startIndex, filtered.size()),
-				Math.min(endIndex, filtered.size())
+	/**
+	 * Like {@link #searchPosts(IndexHandle, String, String, String, List, List, List, List, ArchiveDateFilter, int, int)},
+	 * optionally keeping only posts added or updated since the last visit.
+	 */
+	public static CompletableFuture<ArchiveSearchResult> searchPosts(
+		IndexHandle handle,
+		String query,
+		String sort,
+		String tag,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelPaths,
+		List<String> authors,
+		ArchiveDateFilter dateFilter,
+		boolean changedSinceLastVisit,
+		int page,
+		int itemsPerPage
+	) {
+		ArchiveIndexCache index = handle.cache();
+		if (!changedSinceLastVisit) {
+			return CompletableFuture.supplyAsync(
+				() -> search(index, query, sort, tag, includeTags, excludeTags, channelPaths, authors, dateFilter, null, page, itemsPerPage),
+				Runnable::run
 			);
+		}
+		return visitDiff(handle.key, index).thenApply(diff -> search(index, query, sort, tag, includeTags, excludeTags,
+			channelPaths, authors, dateFilter, diff.changedOrdinals(), page, itemsPerPage));
+	}
 
-			return new ArchiveSearchResult(pageItems, totalPages, totalItems, channelCounts, tagCounts);
-		});
+	/**
+	 * Pins the current index version of {@code server}, loading it first if needed. The caller owns
+	 * the returned handle and must {@linkplain IndexHandle#close() release} it.
+	 */
+	public static CompletableFuture<IndexHandle> acquireIndex(ServerEntry server) {
+		return acquireIndex(server, null);
+	}
+
+	/**
+	 * Like {@link #acquireIndex(ServerEntry)}, but while a cold load is still indexing, a search
+	 * restricted to one channel is served from a partial version holding just that channel.
+	 */
+	public static CompletableFuture<IndexHandle> acquireIndex(ServerEntry server, List<String> channelPaths) {
+		ServerEntry targetServer = normalizeServer(server);
+		String key = serverKey(targetServer);
+		return ensureSearchable(targetServer, channelPaths).thenApply(cache -> new IndexHandle(targetServer, key, cache));
+	}
+
+	private static CompletableFuture<ArchiveIndexCache> ensureSearchable(ServerEntry server, List<String> channelPaths) {
+		CompletableFuture<ArchiveIndexCache> full = ensureIndexLoaded(server);
+		CompletableFuture<PersistentIndexLayout> layout = full.isDone() ? null : INDEX_LAYOUTS.get(serverKey(server));
+		if (layout == null || channelPaths == null || channelPaths.size() != 1) {
+			return full;
+		}
+		String channelPath = channelPaths.get(0);
+		return layout.thenComposeAsync(loaded -> {
+			ArchiveIndexCache shard = loaded != null && !full.isDone() ? shardCache(loaded, channelPath) : null;
+			return shard != null ? CompletableFuture.completedFuture(shard) : full;
+		}, ForkJoinPool.commonPool());
+	}
+
+	private static ArchiveSearchResult search(
+		ArchiveIndexCache index,
+		String query,
+		String sort,
+		String tag,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelPaths,
+		List<String> authors,
+		ArchiveDateFilter dateFilter,
+		BitSet restrictTo,
+		int page,
+		int itemsPerPage
+	) {
+		ArchiveSearchResult result = index.searchIndex().search(
+			query,
+			sort,
+			tag,
+			includeTags,
+			excludeTags,
+			channelPaths,
+			authors,
+			dateFilter,
+			restrictTo,
+			index.channels(),
+			page,
+			itemsPerPage
+		);
+		if (!index.partial() || restrictTo != null) {
+			return result;
+		}
+		// Channels outside the shard have no posts here; report their totals rather than zero.
+		Map<String, Integer> channelCounts = new LinkedHashMap<>(result.channelCounts() != null ? result.channelCounts() : Map.of());
+		for (ArchiveChannel channel : index.channels()) {
+			if (index.searchIndex().channelPostCount(channel.path()) == 0) {
+				channelCounts.put(channel.path(), channel.entryCount());
+			}
+		}
+		return new ArchiveSearchResult(result.posts(), result.totalPages(), result.totalItems(), channelCounts,
+			result.tagCounts(), result.authorCounts());
+	}
+
+	public static CompletableFuture<ArchiveSearchResult> searchPosts(
+		ServerEntry server,
+		String query,
+		String sort,
+		String tag,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelPaths,
+		int page,
+		int itemsPerPage
+	) {
+		return searchPosts(server, query, sort, tag, includeTags, excludeTags, channelPaths, null, ArchiveDateFilter.NONE, page, itemsPerPage);
 	}
 
 	public static CompletableFuture<ArchiveSearchResult> searchPosts(
@@ -124,59 +263,513 @@ public class ArchiveNetworkManager {
 	}
 
 	public static CompletableFuture<ArchivePostDetail> getPostDetails(ServerEntry server, ArchivePostSummary summary) {
+		return getPostDetails(server, summary, Priority.INTERACTIVE);
+	}
+
+	static CompletableFuture<ArchivePostDetail> getPostDetails(ServerEntry server, ArchivePostSummary summary, Priority priority) {
+		ServerEntry targetServer = normalizeServer(server);
+		return loadPostDetail(targetServer, getRecordRenderer(targetServer), summary, priority);
+	}
+
+	/**
+	 * Loads a post's details rendered with the schema styles of the index version {@code handle} pins.
+	 */
+	public static CompletableFuture<ArchivePostDetail> getPostDetails(IndexHandle handle, ArchivePostSummary summary) {
+		return loadPostDetail(handle.server(), handle.cache().records(), summary, Priority.INTERACTIVE);
+	}
+
+	/**
+	 * Whether the details of {@code summary} are already built, so requesting them completes at once.
+	 */
+	static boolean hasPostDetails(ServerEntry server, ArchivePostSummary summary) {
+		ServerEntry targetServer = normalizeServer(server);
+		return memoizedDetail(detailKey(targetServer, summary), getRecordRenderer(targetServer)) != null;
+	}
+
+	private static CompletableFuture<ArchivePostDetail> loadPostDetail(ServerEntry server, ArchiveRecordRenderer records, ArchivePostSummary summary, Priority priority) {
+		String key = detailKey(server, summary);
+		ArchivePostDetail memoized = memoizedDetail(key, records);
+		if (memoized != null) {
+			return CompletableFuture.completedFuture(memoized);
+		}
+		return fetchEntryAsync(server, summary, priority).thenApply(data -> {
+			ArchivePostDetail detail = toPostDetail(records, summary, data);
+			synchronized (DETAIL_MEMO) {
+				DETAIL_MEMO.put(key, new MemoizedDetail(records, detail));
+				if (DETAIL_MEMO.size() > DETAIL_MEMO_SIZE) {
+					DETAIL_MEMO.remove(DETAIL_MEMO.keySet().iterator().next());
+				}
+			}
+			return detail;
+		});
+	}
+
+	private static ArchivePostDetail memoizedDetail(String key, ArchiveRecordRenderer records) {
+		synchronized (DETAIL_MEMO) {
+			MemoizedDetail memoized = DETAIL_MEMO.get(key);
+			// Details rendered with another index version's schema styles are rebuilt.
+			return memoized != null && memoized.records() == records ? memoized.detail() : null;
+		}
+	}
+
+	private static String detailKey(ServerEntry server, ArchivePostSummary summary) {
+		return ArchiveDetailStore.key(serverKey(server), summary.channelPath(), summary.entryPath()) + "@" + entryVersion(summary);
+	}
+
+	static long entryVersion(ArchivePostSummary summary) {
+		return summary.updatedAt() > 0 ? summary.updatedAt() : summary.archivedAt();
+	}
+
+	/**
+	 * Fetches the encoded bytes of a post's first image, or {@code null} when it has none. Results are
+	 * kept in a bounded process-wide cache shared by every grid and the startup prewarm.
+	 * <p>
+	 * The image is fetched straight from the index's main image path when it has one. The post's
+	 * {@code data.json} is only read when the index does not name an image, or the named one fails to
+	 * load.
+	 */
+	public static CompletableFuture<byte[]> getThumbnailBytes(ServerEntry server, ArchivePostSummary summary) {
+		return getThumbnailBytes(server, summary, Priority.VISIBLE);
+	}
+
+	static CompletableFuture<byte[]> getThumbnailBytes(ServerEntry server, ArchivePostSummary summary, Priority priority) {
+		String mainImage = resolveImagePath(normalizeServer(server), summary.mainImagePath(), summary.channelPath(), summary.entryPath());
+		if (mainImage == null) {
+			return getThumbnailFromDetails(server, summary, priority);
+		}
+		return getThumbnailBytes(mainImage, priority)
+			.exceptionallyCompose(throwable -> getThumbnailFromDetails(server, summary, priority));
+	}
+
+	private static CompletableFuture<byte[]> getThumbnailFromDetails(ServerEntry server, ArchivePostSummary summary, Priority priority) {
+		return getPostDetails(server, summary, priority)
+			.thenCompose(detail -> {
+				if (detail == null || detail.images().isEmpty()) {
+					return CompletableFuture.completedFuture(null);
+				}
+				String url = detail.images().get(0);
+				if (url == null || url.isEmpty()) {
+					return CompletableFuture.completedFuture(null);
+				}
+				return getThumbnailBytes(url, priority);
+			});
+	}
+
+	private static CompletableFuture<byte[]> getThumbnailBytes(String url, Priority priority) {
+		byte[] cached = ThumbnailCache.get(url);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		return getImageBytes(url, priority).thenApply(bytes -> {
+			ThumbnailCache.put(url, bytes);
+			return bytes;
+		});
+	}
+
+	/**
+	 * Fetches the encoded bytes of an archive image. Concurrent requests for the same URL, such as a
+	 * grid thumbnail and the detail carousel's first image, share one download.
+	 */
+	public static CompletableFuture<byte[]> getImageBytes(String url) {
+		return getImageBytes(url, Priority.INTERACTIVE);
+	}
+
+	static CompletableFuture<byte[]> getImageBytes(String url, Priority priority) {
+		byte[] cached = ThumbnailCache.get(url);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		// A download the grid queued for this image jumps ahead once the detail panel wants it too.
+		ArchiveHttpClient.promote(encodeUrl(url), priority);
+		return REQUESTS.load("image:" + url, () -> ArchiveChannelMirror.readFile(url)
+			.thenCompose(mirrored -> mirrored != null
+				? CompletableFuture.completedFuture(mirrored)
+				: fetchBytesAsync(url, IMAGE_TIMEOUT_SECONDS, priority)));
+	}
+
+	/**
+	 * Every post in {@code channelPath}, from a partial index if the full one is still loading.
+	 */
+	static CompletableFuture<List<ArchivePostSummary>> getChannelPosts(ServerEntry server, String channelPath) {
+		return ensureSearchable(normalizeServer(server), List.of(channelPath))
+			.thenApply(cache -> cache.searchIndex().channelPosts(channelPath));
+	}
+
+	/**
+	 * Loads {@code server}'s index with parsing and indexing on {@code executor}, then warms the
+	 * thumbnails of the first page the browser will show.
+	 */
+	static CompletableFuture<Void> prewarm(ServerEntry server, String sort, int itemsPerPage, Executor executor) {
 		ServerEntry targetServer = normalizeServer(server);
-		return fetchEntryDataAsync(targetServer, summary.channelPath(), summary.entryPath())
-			.thenApply(data -> toPostDetail(targetServer, summary, data));
+		return ensureIndexLoaded(targetServer, executor)
+			.thenApplyAsync(index -> index.searchIndex().search(
+				"", sort, "", null, null, null, null, ArchiveDateFilter.NONE, index.channels(), 1, itemsPerPage
+			), executor)
+			.thenCompose(result -> {
+				List<CompletableFuture<byte[]>> thumbnails = new ArrayList<>();
+				for (ArchivePostSummary post : result.posts()) {
+					thumbnails.add(getThumbnailBytes(targetServer, post, Priority.PREFETCH).exceptionally(throwable -> null));
+				}
+				return CompletableFuture.allOf(thumbnails.toArray(new CompletableFuture<?>[0]));
+			});
 	}
 
 	public static CompletableFuture<ArchivePostDetail> getPostDetails(ArchivePostSummary summary) {
 		return getPostDetails(ServerDictionary.getDefaultServer(), summary);
 	}
 
+	public static CompletableFuture<List<ArchivePostSummary>> getSimilarPosts(ServerEntry server, ArchivePostSummary post, int limit) {
+		return ensureIndexLoaded(normalizeServer(server))
+			.thenApply(index -> index.similarity().nearestPosts(index.searchIndex(), post, limit));
+	}
+
+	public static CompletableFuture<List<ArchivePostSummary>> getSimilarPosts(IndexHandle handle, ArchivePostSummary post, int limit) {
+		ArchiveIndexCache index = handle.cache();
+		if (index.partial()) {
+			// Shards carry no similarity structure; the full index answers once it is ready.
+			return getSimilarPosts(handle.server(), post, limit);
+		}
+		return CompletableFuture.supplyAsync(() -> index.similarity().nearestPosts(index.searchIndex(), post, limit), Runnable::run);
+	}
+
+	public static CompletableFuture<List<ArchiveSuggestion>> getSuggestions(ServerEntry server, String prefix, int limit) {
+		return ensureIndexLoaded(normalizeServer(server))
+			.thenApply(index -> index.suggestions().suggest(prefix, limit));
+	}
+
 	public static CompletableFuture<List<ArchiveChannel>> getChannels(ServerEntry server) {
-		return ensureIndexLoaded(normalizeServer(server)).thenApply(ArchiveIndexCache::channels);
+		ServerEntry targetServer = normalizeServer(server);
+		CompletableFuture<ArchiveIndexCache> full = ensureIndexLoaded(targetServer);
+		CompletableFuture<PersistentIndexLayout> layout = full.isDone() ? null : INDEX_LAYOUTS.get(serverKey(targetServer));
+		if (layout == null) {
+			return full.thenApply(ArchiveIndexCache::channels);
+		}
+		return layout.thenCompose(loaded -> loaded != null
+			? CompletableFuture.completedFuture(channelsOf(loaded))
+			: full.thenApply(ArchiveIndexCache::channels));
 	}
 
 	public static CompletableFuture<List<ArchiveChannel>> getChannels() {
 		return getChannels(ServerDictionary.getDefaultServer());
 	}
 
+	/**
+	 * Compares the current index of {@code server} with the posts recorded on the last visit. The diff
+	 * is computed off the loading path once the index is ready, and reused until the index changes.
+	 */
+	public static CompletableFuture<ArchiveVisitDiff> getChangesSinceLastVisit(ServerEntry server) {
+		ServerEntry targetServer = normalizeServer(server);
+		String key = serverKey(targetServer);
+		return ensureIndexLoaded(targetServer).thenCompose(index -> visitDiff(key, index));
+	}
+
+	/**
+	 * Records the posts {@code server} currently shows as seen, so the next visit reports changes
+	 * relative to them. Does nothing while no complete index is resident.
+	 */
+	public static void markVisited(ServerEntry server) {
+		String key = serverKey(normalizeServer(server));
+		ArchiveIndexCache index = CACHED_INDEXES.get(key);
+		if (index == null || index.partial()) {
+			return;
+		}
+		CompletableFuture<ArchiveVisitLog> log = CompletableFuture.supplyAsync(
+			() -> ArchiveVisitLog.of(index.searchIndex()), ForkJoinPool.commonPool());
+		VISIT_BASELINES.put(key, log);
+		VISIT_DIFFS.remove(key);
+		log.thenAccept(visited -> {
+			try {
+				visited.write(ArchiveDiskCache.file(key, ArchiveVisitLog.FILE_NAME));
+			} catch (IOException e) {
+				System.err.println("Failed to save visit log: " + e.getMessage());
+			}
+		});
+	}
+
+	private static CompletableFuture<ArchiveVisitDiff> visitDiff(String key, ArchiveIndexCache index) {
+		if (index.partial()) {
+			// A shard is short-lived and would report every other channel as removed, so it is not cached.
+			return computeVisitDiff(key, index);
+		}
+		VisitDiffState state = VISIT_DIFFS.compute(key, (k, existing) -> existing != null && existing.version() == index.version()
+			? existing
+			: new VisitDiffState(index.version(), computeVisitDiff(k, index)));
+		return state.diff();
+	}
+
+	private static CompletableFuture<ArchiveVisitDiff> computeVisitDiff(String key, ArchiveIndexCache index) {
+		CompletableFuture<ArchiveVisitLog> baseline = VISIT_BASELINES.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(
+			() -> ArchiveVisitLog.read(ArchiveDiskCache.file(k, ArchiveVisitLog.FILE_NAME)), ForkJoinPool.commonPool()));
+		return baseline.thenApplyAsync(
+			previous -> ArchiveVisitLog.of(index.searchIndex()).diff(index.searchIndex(), previous),
+			ForkJoinPool.commonPool()
+		);
+	}
+
 	public static void clearCache(ServerEntry server) {
 		String key = serverKey(normalizeServer(server));
 		CACHED_INDEXES.remove(key);
 		INDEX_FUTURES.remove(key);
-		CACHED_SCHEMA_STYLES.remove(key);
+		INDEX_LAYOUTS.remove(key);
+		INDEX_LAST_USED.remove(key);
+		CACHED_RECORD_RENDERERS.remove(key);
+		VISIT_DIFFS.remove(key);
 	}
 
 	public static void clearCache() {
 		CACHED_INDEXES.clear();
 		INDEX_FUTURES.clear();
-		CACHED_SCHEMA_STYLES.clear();
+		INDEX_LAYOUTS.clear();
+		INDEX_LAST_USED.clear();
+		CACHED_RECORD_RENDERERS.clear();
+		// Baselines stay: they are small, and a save may still be in flight.
+		VISIT_DIFFS.clear();
+	}
+
+	/**
+	 * Estimated heap held by the indexes currently resident in memory, across all servers.
+	 */
+	public static long getResidentIndexBytes() {
+		long total = 0;
+		for (ArchiveIndexCache cache : CACHED_INDEXES.values()) {
+			total += cache.estimatedBytes();
+		}
+		return total;
+	}
+
+	public static ArchiveNetworkStats getStats() {
+		List<Long> live = new ArrayList<>(PINNED_VERSIONS.keySet());
+		int pinned = 0;
+		for (int count : PINNED_VERSIONS.values()) {
+			pinned += count;
+		}
+		for (ArchiveIndexCache cache : CACHED_INDEXES.values()) {
+			if (!live.contains(cache.version())) {
+				live.add(cache.version());
+			}
+		}
+		return new ArchiveNetworkStats(CACHED_INDEXES.size(), getResidentIndexBytes(), live.size(), pinned,
+			REQUESTS.issuedCount(), REQUESTS.coalescedCount(),
+			ArchiveHttpClient.requestCount(), ArchiveHttpClient.http2ResponseCount(), ArchiveHttpClient.handshakeCount(),
+			ArchiveHttpClient.reusedCount(), ArchiveHttpClient.queuedCount(), ArchiveHttpClient.promotedCount(),
+			ArchiveHttpClient.retryCount(), ArchiveHttpClient.hedgeCount(), ArchiveHttpClient.rateLimitedCount(),
+			ArchiveHttpClient.failoverCount());
 	}
 
-	private static CompletableFuture<ArchiveIndexCache> loadIndexAsync(ServerEntry server) {
+	private static CompletableFuture<ArchiveIndexCache> loadIndexAsync(ServerEntry server, Executor executor) {
 		ServerEntry targetServer = normalizeServer(server);
 		String key = serverKey(targetServer);
-
-		return fetchPersistentIndexAsync(targetServer)
-			.thenApply(index -> {
-				Map<String, StyleInfo> styles = index.schemaStyles() != null ? index.schemaStyles() : Map.of();
-				CACHED_SCHEMA_STYLES.put(key, styles);
-				return buildCacheFromPersistentIndex(index);
+		Path snapshotFile = ArchiveDiskCache.file(key, ArchiveIndexSnapshot.FILE_NAME);
+		CompletableFuture<PersistentIndexLayout> layoutFuture = new CompletableFuture<>();
+		INDEX_LAYOUTS.put(key, layoutFuture);
+
+		return PARKING.getOrDefault(key, CompletableFuture.completedFuture(null))
+			.exceptionally(throwable -> null)
+			.thenApplyAsync(ignored -> ArchiveIndexSnapshot.read(snapshotFile), executor)
+			.thenCompose(snapshot -> {
+				if (snapshot != null || !DownloadSettings.getInstance().isShardedIndexLoadingEnabled()) {
+					layoutFuture.complete(null);
+				}
+				if (snapshot != null) {
+					// Serve the snapshot straight away and check the remote index in the background.
+					ArchiveIndexCache cache = new ArchiveIndexCache(
+						INDEX_VERSION_COUNTER.incrementAndGet(),
+						snapshot.updatedAt(),
+						ArchiveRecordRenderer.compile(PersistentIndexParser.parseStyles(snapshot.schemaStylesJson())),
+						snapshot.channels(),
+						snapshot.searchIndex(),
+						snapshot.similarity(),
+						snapshot.suggestions(),
+						false
+					);
+					CACHED_RECORD_RENDERERS.put(key, cache.records());
+					// A server parked a few minutes ago comes back without touching the network.
+					if (System.currentTimeMillis() - INDEX_VALIDATED_AT.getOrDefault(key, 0L) > REVALIDATE_INTERVAL_MILLIS) {
+						revalidateIndexAsync(targetServer, key, cache);
+					}
+					return CompletableFuture.completedFuture(cache);
+				}
+				// Publish the channel layout first; channel-filtered searches and the filter panel can
+				// use it while the rest of the blocks are decoded and indexed here.
+				return fetchPersistentIndexBytesAsync(targetServer, false).thenApplyAsync(bytes -> {
+					PersistentIndexLayout layout = PersistentIndexParser.parseLayout(bytes);
+					layoutFuture.complete(layout);
+					ArchiveIndexCache cache = buildCacheFromPersistentIndex(layout.complete(), false);
+					INDEX_VALIDATED_AT.put(key, System.currentTimeMillis());
+					CACHED_RECORD_RENDERERS.put(key, cache.records());
+					saveSnapshotAsync(snapshotFile, cache);
+					return cache;
+				}, executor);
 			})
 			.whenComplete((cache, throwable) -> {
+				INDEX_LAYOUTS.remove(key, layoutFuture);
+				if (throwable != null) {
+					layoutFuture.completeExceptionally(throwable);
+				}
 				if (throwable == null && cache != null) {
-					CACHED_INDEXES.put(key, cache);
+					installIndex(key, cache);
 				} else {
 					INDEX_FUTURES.remove(key);
-					CACHED_SCHEMA_STYLES.remove(key);
+					CACHED_RECORD_RENDERERS.remove(key);
+				}
+			});
+	}
+
+	private static void revalidateIndexAsync(ServerEntry server, String key, ArchiveIndexCache current) {
+		fetchPersistentIndexAsync(server, false)
+			// A mirror behind the index already loaded cannot say whether it changed; the raw host can.
+			.thenCompose(index -> index.updatedAt() < current.updatedAt()
+				? fetchPersistentIndexAsync(server, true)
+				: CompletableFuture.completedFuture(index))
+			.thenAccept(index -> {
+				INDEX_VALIDATED_AT.put(key, System.currentTimeMillis());
+				if (index.updatedAt() <= current.updatedAt()) {
+					return;
+				}
+				ArchiveIndexCache fresh = buildCacheFromPersistentIndex(index, false);
+				if (CACHED_INDEXES.replace(key, current, fresh)) {
+					CACHED_RECORD_RENDERERS.put(key, fresh.records());
+					INDEX_FUTURES.put(key, CompletableFuture.completedFuture(fresh));
+					enforceMemoryBudget(key);
 				}
+				saveSnapshotAsync(ArchiveDiskCache.file(key, ArchiveIndexSnapshot.FILE_NAME), fresh);
+			})
+			.exceptionally(throwable -> {
+				System.err.println("Failed to refresh archive index: " + throwable.getMessage());
+				return null;
 			});
 	}
 
-	private static ArchiveIndexCache buildCacheFromPersistentIndex(PersistentIndexData index) {
+	private static void installIndex(String key, ArchiveIndexCache cache) {
+		CACHED_INDEXES.put(key, cache);
+		INDEX_LAST_USED.put(key, INDEX_USE_COUNTER.incrementAndGet());
+		enforceMemoryBudget(key);
+	}
+
+	/**
+	 * Evicts the least recently used servers other than {@code activeKey} until the resident indexes
+	 * fit the configured budget. Evicted servers are parked in their disk snapshot, so switching back
+	 * restores them without a network round trip.
+	 */
+	private static synchronized void enforceMemoryBudget(String activeKey) {
+		long budget = DownloadSettings.getInstance().getIndexMemoryBudgetBytes();
+		long total = getResidentIndexBytes();
+		while (total > budget) {
+			String victim = null;
+			long oldest = Long.MAX_VALUE;
+			for (String key : CACHED_INDEXES.keySet()) {
+				if (key.equals(activeKey)) continue;
+				long lastUsed = INDEX_LAST_USED.getOrDefault(key, 0L);
+				if (lastUsed < oldest) {
+					oldest = lastUsed;
+					victim = key;
+				}
+			}
+			if (victim == null) {
+				break;
+			}
+			ArchiveIndexCache parked = CACHED_INDEXES.remove(victim);
+			INDEX_FUTURES.remove(victim);
+			INDEX_LAST_USED.remove(victim);
+			if (parked != null) {
+				total -= parked.estimatedBytes();
+				parkIndexAsync(victim, parked);
+			}
+		}
+	}
+
+	/**
+	 * Writes an evicted index to its snapshot off the budget lock. The write holds {@code cache}
+	 * until it finishes, and writes for one server run in order.
+	 */
+	private static void parkIndexAsync(String key, ArchiveIndexCache cache) {
+		CompletableFuture<Void> write = PARKING.compute(key, (k, previous) -> (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+			.exceptionally(throwable -> null)
+			.thenRunAsync(() -> parkIndex(k, cache)));
+		write.whenComplete((ignored, throwable) -> PARKING.remove(key, write));
+	}
+
+	private static void parkIndex(String key, ArchiveIndexCache cache) {
+		Path file = ArchiveDiskCache.file(key, ArchiveIndexSnapshot.FILE_NAME);
+		Long stored = ArchiveIndexSnapshot.readUpdatedAt(file);
+		if (stored == null || stored != cache.updatedAt()) {
+			saveSnapshot(file, cache);
+		}
+	}
+
+	private static void saveSnapshotAsync(Path file, ArchiveIndexCache cache) {
+		CompletableFuture.runAsync(() -> saveSnapshot(file, cache));
+	}
+
+	private static void saveSnapshot(Path file, ArchiveIndexCache cache) {
+		try {
+			ArchiveIndexSnapshot.write(file, new ArchiveIndexSnapshot.Contents(
+				cache.updatedAt(),
+				GSON.toJson(cache.records().schemaStyles()),
+				cache.channels(),
+				cache.searchIndex(),
+				cache.similarity(),
+				cache.suggestions()
+			));
+		} catch (IOException e) {
+			System.err.println("Failed to save search snapshot: " + e.getMessage());
+		}
+	}
+
+	private static ArchiveChannel toArchiveChannel(PersistentChannel channel, int entryCount, List<String> allTags, List<String> allCategories) {
+		return new ArchiveChannel(
+			channel.code(),
+			channel.name(),
+			channel.code(),
+			safeGet(allCategories, channel.category()),
+			channel.path(),
+			channel.description(),
+			entryCount,
+			mapIndicesToList(channel.tags(), allTags)
+		);
+	}
+
+	/**
+	 * Channel list of {@code layout}, available before any entry block is decoded.
+	 */
+	private static List<ArchiveChannel> channelsOf(PersistentIndexLayout layout) {
+		List<ArchiveChannel> channels = layout.channelList;
+		if (channels == null) {
+			List<String> allTags = layout.header.allTags() != null ? layout.header.allTags() : List.of();
+			List<String> allCategories = layout.header.allCategories() != null ? layout.header.allCategories() : List.of();
+			channels = new ArrayList<>(layout.channelCount());
+			for (int i = 0; i < layout.channelCount(); i++) {
+				channels.add(toArchiveChannel(layout.header.channels().get(i), layout.entryCount(i), allTags, allCategories));
+			}
+			layout.channelList = channels = List.copyOf(channels);
+		}
+		return channels;
+	}
+
+	/**
+	 * Builds a partial index holding only {@code channelPath}'s posts, for channel-filtered searches
+	 * that arrive before the full index is ready. Returns {@code null} for an unknown channel.
+	 */
+	private static ArchiveIndexCache shardCache(PersistentIndexLayout layout, String channelPath) {
+		int channel = layout.indexOf(channelPath);
+		if (channel < 0) {
+			return null;
+		}
+		return layout.shardCaches.computeIfAbsent(channelPath, path -> {
+			ArchiveIndexCache built = buildCacheFromPersistentIndex(layout.channelData(channel), true);
+			return new ArchiveIndexCache(built.version(), built.updatedAt(), built.records(), channelsOf(layout),
+				built.searchIndex(), built.similarity(), built.suggestions(), true);
+		});
+	}
+
+	/**
+	 * @param partial whether {@code index} is one channel's shard; shards only answer searches while
+	 *                the full index loads, so similarity and suggestion structures are left empty
+	 */
+	private static ArchiveIndexCache buildCacheFromPersistentIndex(PersistentIndexData index, boolean partial) {
 		if (index == null) {
-			return new ArchiveIndexCache(List.of(), List.of());
+			ArchiveSearchIndex empty = ArchiveSearchIndex.build(List.of(), List.of(), List.of(), List.of());
+			return new ArchiveIndexCache(INDEX_VERSION_COUNTER.incrementAndGet(), 0L, ArchiveRecordRenderer.EMPTY, List.of(), empty, ArchiveSimilarityIndex.build(empty), ArchiveSuggestionIndex.build(empty, List.of()), false);
 		}
 
 		List<String> allTags = index.allTags() != null ? index.allTags() : List.of();
@@ -185,6 +778,7 @@ public class ArchiveNetworkManager {
 		List<PersistentChannel> channelsFromIndex = index.channels() != null ? index.channels() : List.of();
 
 		List<ArchivePostSummary> posts = new ArrayList<>();
+		List<List<Integer>> postAuthorIds = new ArrayList<>();
 		List<ArchiveChannel> channels = new ArrayList<>();
 
 		for (PersistentChannel channel : channelsFromIndex) {
@@ -193,18 +787,7 @@ public class ArchiveNetworkManager {
 			}
 			List<PersistentEntry> channelEntries = channel.entries() != null ? channel.entries() : List.of();
 			String category = safeGet(allCategories, channel.category());
-			List<String> channelTags = mapIndicesToList(channel.tags(), allTags);
-
-			channels.add(new ArchiveChannel(
-				channel.code(),
-				channel.name(),
-				channel.code(),
-				category,
-				channel.path(),
-				channel.description(),
-				channelEntries.size(),
-				channelTags
-			));
+			channels.add(toArchiveChannel(channel, channelEntries.size(), allTags, allCategories));
 
 			for (PersistentEntry entry : channelEntries) {
 				if (entry == null) {
@@ -227,30 +810,50 @@ public class ArchiveNetworkManager {
 					entryTags,
 					entryAuthors,
 					archivedAt,
-					updatedAt
+					updatedAt,
+					entry.mainImagePath(),
+					-1
 				));
+				postAuthorIds.add(entry.authors());
 			}
 		}
 
-		return new ArchiveIndexCache(posts, channels);
+		ArchiveSearchIndex searchIndex = ArchiveSearchIndex.build(posts, postAuthorIds, allAuthors, channels, index.newestOrder(), index.archivedOrder());
+		ArchiveRecordRenderer records = ArchiveRecordRenderer.compile(index.schemaStyles());
+		ArchiveSearchIndex related = partial ? ArchiveSearchIndex.build(List.of(), List.of(), List.of(), List.of()) : searchIndex;
+		return new ArchiveIndexCache(
+			INDEX_VERSION_COUNTER.incrementAndGet(),
+			index.updatedAt(),
+			records,
+			channels,
+			searchIndex,
+			ArchiveSimilarityIndex.build(related),
+			ArchiveSuggestionIndex.build(related, partial ? List.of() : channels),
+			partial
+		);
 	}
 
 	private static CompletableFuture<ArchiveIndexCache> ensureIndexLoaded(ServerEntry server) {
+		return ensureIndexLoaded(server, ForkJoinPool.commonPool());
+	}
+
+	private static CompletableFuture<ArchiveIndexCache> ensureIndexLoaded(ServerEntry server, Executor executor) {
 		ServerEntry targetServer = normalizeServer(server);
 		String key = serverKey(targetServer);
 		ArchiveIndexCache cached = CACHED_INDEXES.get(key);
 		if (cached != null) {
+			INDEX_LAST_USED.put(key, INDEX_USE_COUNTER.incrementAndGet());
 			return CompletableFuture.completedFuture(cached);
 		}
 
-		return INDEX_FUTURES.computeIfAbsent(key, k -> loadIndexAsync(targetServer));
+		return INDEX_FUTURES.computeIfAbsent(key, k -> loadIndexAsync(targetServer, executor));
 	}
 
 	private static ServerEntry normalizeServer(ServerEntry server) {
 		return server != null ? server : ServerDictionary.getDefaultServer();
 	}
 
-	private static String serverKey(ServerEntry server) {
+	static String serverKey(ServerEntry server) {
 		ServerEntry target = normalizeServer(server);
 		if (target.id() != null && !target.id().isBlank()) {
 			return target.id().toLowerCase(Locale.ROOT);
@@ -258,127 +861,14 @@ public class ArchiveNetworkManager {
 		return target.name() != null ? target.name().toLowerCase(Locale.ROOT) : "default";
 	}
 
-	private static Map<String, StyleInfo> getSchemaStyles(ServerEntry server) {
-		return CACHED_SCHEMA_STYLES.getOrDefault(serverKey(server), Map.of());
-	}
-
-	private static List<ArchivePostSummary> filterPosts(List<ArchivePostSummary> posts, String query, String tagFilter, List<String> includeTags, List<String> excludeTags, List<String> channelPaths) {
-		String normalizedQuery = query != null ? query.toLowerCase(Locale.ROOT).trim() : "";
-		String normalizedTag = tagFilter != null ? tagFilter.toLowerCase(Locale.ROOT).trim() : "";
-		List<String> normalizedChannels = channelPaths != null
-			? channelPaths.stream().map(p -> p != null ? p.toLowerCase(Locale.ROOT) : "").toList()
-			: List.of();
-		List<String> normalizedInclude = includeTags != null
-			? includeTags.stream().filter(t -> t != null && !t.isEmpty()).map(t -> t.toLowerCase(Locale.ROOT)).toList()
-			: List.of();
-		List<String> normalizedExclude = excludeTags != null
-			? excludeTags.stream().filter(t -> t != null && !t.isEmpty()).map(t -> t.toLowerCase(Locale.ROOT)).toList()
-			: List.of();
-
-		return posts.stream()
-			.filter(post -> matchesQuery(post, normalizedQuery))
-			.filter(post -> normalizedTag.isEmpty() || hasTagMatch(post, normalizedTag))
-			.filter(post -> normalizedInclude.isEmpty() || hasAllTags(post, normalizedInclude))
-			.filter(post -> normalizedExclude.isEmpty() || !hasAnyTag(post, normalizedExclude))
-			.filter(post -> normalizedChannels.isEmpty() ||
-				(post.channelPath() != null && normalizedChannels.contains(post.channelPath().toLowerCase(Locale.ROOT))))
-			.toList();
-	}
-
-	private static boolean matchesQuery(ArchivePostSummary post, String normalizedQuery) {
-		if (post == null) {
-			return false;
-		}
-		if (normalizedQuery == null || normalizedQuery.isEmpty()) {
-			return true;
-		}
-		if (post.title() != null && post.title().toLowerCase(Locale.ROOT).contains(normalizedQuery)) {
-			return true;
-		}
-		if (post.code() != null && post.code().toLowerCase(Locale.ROOT).contains(normalizedQuery)) {
-			return true;
-		}
-		for (String author : post.authors()) {
-			if (author != null && author.toLowerCase(Locale.ROOT).contains(normalizedQuery)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	private static boolean hasTagMatch(ArchivePostSummary post, String normalizedTag) {
-		for (String tag : post.tags()) {
-			if (tag != null && tag.toLowerCase(Locale.ROOT).contains(normalizedTag)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	private static boolean hasAllTags(ArchivePostSummary post, List<String> required) {
-		for (String req : required) {
-			boolean found = false;
-			for (String tag : post.tags()) {
-				if (tag != null && tag.toLowerCase(Locale.ROOT).equals(req)) {
-					found = true;
-					break;
-				}
-			}
-			if (!found) return false;
-		}
-		return true;
-	}
-
-	private static boolean hasAnyTag(ArchivePostSummary post, List<String> tags) {
-		for (String tag : post.tags()) {
-			if (tag == null) continue;
-			String lowered = tag.toLowerCase(Locale.ROOT);
-			if (tags.contains(lowered)) return true;
-		}
-		return false;
+	private static ArchiveRecordRenderer getRecordRenderer(ServerEntry server) {
+		return CACHED_RECORD_RENDERERS.getOrDefault(serverKey(server), ArchiveRecordRenderer.EMPTY);
 	}
 
-	private static void sortPosts(List<ArchivePostSummary> posts, String sort) {
-		String selectedSort = (sort == null || sort.isEmpty()) ? "newest" : sort;
-		Comparator<ArchivePostSummary> comparator;
-
-		switch (selectedSort) {
-			case "updated" -> comparator = Comparator.comparingLong(ArchiveNetworkManager::getUpdatedTimestamp).reversed();
-			case "name" -> comparator = Comparator.comparing(
-				p -> p.title() != null ? p.title().toLowerCase(Locale.ROOT) : ""
-			);
-			case "code" -> comparator = Comparator.comparing(
-				p -> p.code() != null ? p.code().toLowerCase(Locale.ROOT) : ""
-			);
-			default -> comparator = Comparator.comparingLong(ArchiveNetworkManager::getUpdatedTimestamp).reversed();
-		}
-
-		posts.sort(comparator);
-	}
-
-	private static long getUpdatedTimestamp(ArchivePostSummary post) {
-		if (post == null) return 0L;
-		long updated = post.updatedAt();
-		if (updated > 0) return updated;
-		return post.archivedAt();
-	}
-
-	private static ArchivePostDetail toPostDetail(ServerEntry server, ArchivePostSummary summary, ArchiveEntryData data) {
-		List<String> authors = new ArrayList<>();
-		if (data.authors != null) {
-			for (ArchiveAuthor author : data.authors) {
-				if (author != null) {
-					String name = author.displayName != null && !author.displayName.isEmpty()
-						? author.displayName
-						: author.username;
-					if (name != null && !name.isEmpty()) {
-						authors.add(name);
-					}
-				}
-			}
-		}
-
+	private static ArchivePostDetail toPostDetail(ArchiveRecordRenderer records, ArchivePostSummary summary, ParsedEntry entry) {
+		List<String> authors = entry.authors;
 		if (authors.isEmpty() && summary.authors() != null) {
+			authors = new ArrayList<>();
 			for (String author : summary.authors()) {
 				if (author != null && !author.isBlank()) {
 					authors.add(author);
@@ -386,281 +876,206 @@ public class ArchiveNetworkManager {
 			}
 		}
 
-		List<String> images = new ArrayList<>();
-		List<ArchiveImageInfo> imageInfos = new ArrayList<>();
-		if (data.images != null) {
-			for (ArchiveImageData image : data.images) {
-				String url = resolveImagePath(server, image.path, summary.channelPath(), summary.entryPath());
-				if (url != null && !url.isEmpty()) {
-					images.add(url);
-					imageInfos.add(new ArchiveImageInfo(
-						url,
-						image.description,
-						image.width,
-						image.height
-					));
-				}
-			}
-		}
-
-		List<ArchiveAttachment> attachments = new ArrayList<>();
-		if (data.attachments != null) {
-			for (ArchiveAttachmentData attachment : data.attachments) {
-				boolean canDownload = attachment.canDownload == null || attachment.canDownload;
-				String downloadUrl = canDownload ? resolveAttachmentPath(server, attachment.path, summary.channelPath(), summary.entryPath()) : attachment.url;
-				String sizeText = attachment.litematic != null ? attachment.litematic.size : null;
-				ArchiveAttachment.YoutubeInfo youtubeInfo = null;
-				if (attachment.youtube != null) {
-					youtubeInfo = new ArchiveAttachment.YoutubeInfo(
-						attachment.youtube.title,
-						attachment.youtube.author_name,
-						attachment.youtube.author_url
-					);
-				}
-				attachments.add(new ArchiveAttachment(
-					attachment.name != null ? attachment.name : "Attachment",
-					downloadUrl,
-					attachment.contentType,
-					canDownload,
-					sizeText,
-					attachment.description,
-					attachment.litematic != null ? new ArchiveAttachment.LitematicInfo(
-						attachment.litematic.version,
-						attachment.litematic.size,
-						attachment.litematic.error
-					) : null,
-					attachment.wdl != null ? new ArchiveAttachment.WdlInfo(
-						attachment.wdl.version,
-						attachment.wdl.error
-					) : null,
-					youtubeInfo
-				));
-			}
-		}
-
-		List<ArchiveRecordSection> recordSections = toRecordSections(
-			data.records,
-			getSchemaStyles(server),
-			data.styles != null ? data.styles : Map.of()
-		);
-
-		long archivedAt = data.archivedAt != null ? data.archivedAt : summary.archivedAt();
-		long updatedAt = data.updatedAt != null ? data.updatedAt : summary.updatedAt();
-		DiscordPostReference discordPost = toDiscordPostReference(data.post);
+		List<ArchiveRecordSection> recordSections = records.render(entry.records, entry.styles);
+		long archivedAt = entry.archivedAt != null ? entry.archivedAt : summary.archivedAt();
+		long updatedAt = entry.updatedAt != null ? entry.updatedAt : summary.updatedAt();
 
 		return new ArchivePostDetail(
 			summary,
 			authors,
-			images,
-			imageInfos,
-			attachments,
-			discordPost,
+			entry.images,
+			entry.imageInfos,
+			entry.attachments,
+			entry.post,
 			recordSections,
 			archivedAt,
 			updatedAt
 		);
 	}
 
-	private static DiscordPostReference toDiscordPostReference(ArchiveDiscordPostReference post) {
-		if (post == null) {
-			return null;
-		}
-		List<String> continuing = post.continuingMessageIds != null ? post.continuingMessageIds : List.of();
-		return new DiscordPostReference(
-			post.forumId,
-			post.threadId,
-			continuing,
-			post.threadURL,
-			post.attachmentMessageId,
-			post.uploadMessageId
-		);
+	private static CompletableFuture<PersistentIndexData> fetchPersistentIndexAsync(ServerEntry server, boolean canonicalOnly) {
+		return fetchPersistentIndexBytesAsync(server, canonicalOnly).thenApply(PersistentIndexParser::parse);
 	}
 
-	private static List<ArchiveRecordSection> toRecordSections(JsonObject records, Map<String, StyleInfo> schemaStyles, Map<String, StyleInfo> recordStyles) {
-		List<ArchiveRecordSection> sections = new ArrayList<>();
-		if (records == null || records.entrySet().isEmpty()) {
-			return sections;
-		}
-
-		LinkedHashMap<String, SectionLines> orderedSections = new LinkedHashMap<>();
-		boolean isFirst = true;
-
-		for (Map.Entry<String, JsonElement> entry : records.entrySet()) {
-			String key = entry.getKey();
-			ensureParentSections(key, orderedSections, schemaStyles, recordStyles);
+	private static CompletableFuture<byte[]> fetchPersistentIndexBytesAsync(ServerEntry server, boolean canonicalOnly) {
+		String url = buildRawUrl(server, "persistent.idx");
+		HttpRequest request = HttpRequest.newBuilder()
+			.uri(URI.create(url))
+			.timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+			.header("Accept", "application/octet-stream")
+			.header("User-Agent", USER_AGENT)
+			.GET()
+			.build();
 
-			StyleInfo style = getEffectiveStyle(key, schemaStyles, recordStyles);
-			String text = submissionRecordToMarkdown(entry.getValue(), style);
-			if (text.isEmpty()) {
-				continue;
+		CompletableFuture<HttpResponse<byte[]>> sent = canonicalOnly
+			? ArchiveHttpClient.sendCanonical(request, HttpResponse.BodyHandlers.ofByteArray(), Priority.INTERACTIVE)
+			: ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		return sent.thenApply(response -> {
+			if (response.statusCode() != 200) {
+				throw new CompletionException(new RuntimeException("HTTP error: " + response.statusCode() + " for " + url));
+			}
+			byte[] body = response.body();
+			if (body == null || body.length == 0) {
+				throw new CompletionException(new RuntimeException("Empty persistent index for " + url));
 			}
+			return body;
+		});
+	}
 
-			String headerText = style.headerText.isBlank() && isFirst
-				? "Description"
-				: style.headerText;
-			SectionLines section = orderedSections.computeIfAbsent(key, k -> new SectionLines(headerText));
-			section.addLines(text.split("\\r?\\n"));
-			isFirst = false;
-		}
+	/**
+	 * Loads and parses an entry's {@code data.json}, served from the detail store while the index
+	 * still reports the {@code updatedAt} it was stored under.
+	 */
+	private static CompletableFuture<ParsedEntry> fetchEntryAsync(ServerEntry server, ArchivePostSummary summary, Priority priority) {
+		String storeKey = ArchiveDetailStore.key(serverKey(server), summary.channelPath(), summary.entryPath());
+		long updatedAt = entryVersion(summary);
+		ArchiveHttpClient.promote(buildRawUrl(server, entryDataPath(summary)), priority);
+		// The grid and the detail panel ask for the same entry at once; they share one load and parse.
+		return REQUESTS.load("entry:" + storeKey + "@" + updatedAt, () -> ArchiveDetailStore.load(storeKey, updatedAt)
+			.thenCompose(stored -> stored != null
+				? CompletableFuture.completedFuture(stored)
+				: ArchiveChannelMirror.readEntry(server, summary, false))
+			.thenCompose(local -> local != null
+				? CompletableFuture.completedFuture(EntryDataParser.parse(local, server, summary))
+				: fetchEntryBody(server, summary, priority).thenApply(body -> {
+					ParsedEntry entry = EntryDataParser.parse(body, server, summary);
+					// Only a body of the version the index names may be served later in its place.
+					if (isVersion(entry.updatedAt, entry.archivedAt, updatedAt)) {
+						ArchiveDetailStore.save(storeKey, updatedAt, body);
+					}
+					return entry;
+				}).exceptionallyCompose(throwable -> ArchiveChannelMirror.readEntry(server, summary, true)
+					// Offline, an older mirrored copy beats no details at all.
+					.thenApply(stale -> {
+						if (stale == null) {
+							throw throwable instanceof CompletionException completion ? completion : new CompletionException(throwable);
+						}
+						return EntryDataParser.parse(stale, server, summary);
+					}))));
+	}
 
-		for (SectionLines value : orderedSections.values()) {
-			if (!value.lines.isEmpty()) {
-				sections.add(new ArchiveRecordSection(value.title, new ArrayList<>(value.lines)));
+	/**
+	 * Fetches an entry's {@code data.json}. Mirrors can lag the raw host, so a body older than the
+	 * version the index names is fetched again from the raw host alone.
+	 */
+	static CompletableFuture<byte[]> fetchEntryBody(ServerEntry server, ArchivePostSummary summary, Priority priority) {
+		String path = entryDataPath(summary);
+		long version = entryVersion(summary);
+		return fetchJsonAsync(server, path, priority, false).thenCompose(body -> {
+			long served = EntryDataParser.version(body);
+			if (served == 0 || version <= 0 || served >= version) {
+				return CompletableFuture.completedFuture(body);
 			}
-		}
-		return sections;
+			return fetchJsonAsync(server, path, priority, true);
+		});
 	}
 
-	private static void ensureParentSections(String key, LinkedHashMap<String, SectionLines> map, Map<String, StyleInfo> schemaStyles, Map<String, StyleInfo> recordStyles) {
-		String[] parts = key.split(":");
-		if (parts.length <= 1) return;
-		for (int i = 1; i < parts.length; i++) {
-			String parentKey = String.join(":", Arrays.copyOfRange(parts, 0, i));
-			if (!map.containsKey(parentKey)) {
-				StyleInfo parentStyle = getEffectiveStyle(parentKey, schemaStyles, recordStyles);
-				map.put(parentKey, new SectionLines(parentStyle.headerText));
-			}
-		}
+	/**
+	 * Whether a {@code data.json} with these timestamps is {@code version}. Bodies without either
+	 * timestamp cannot be checked and are taken as current.
+	 */
+	private static boolean isVersion(Long updatedAt, Long archivedAt, long version) {
+		long served = updatedAt != null && updatedAt > 0 ? updatedAt : archivedAt != null ? archivedAt : 0;
+		return served == 0 || version <= 0 || served == version;
 	}
 
-	private static StyleInfo getEffectiveStyle(String key, Map<String, StyleInfo> schemaStyles, Map<String, StyleInfo> recordStyles) {
-		StyleInfo style = new StyleInfo();
-		style.depth = 2;
-		style.headerText = capitalizeFirstSegment(key);
-		style.isOrdered = false;
-
-		StyleInfo schemaStyle = schemaStyles != null ? schemaStyles.get(key) : null;
-		if (schemaStyle != null) {
-			if (schemaStyle.depth != null) style.depth = schemaStyle.depth;
-			if (schemaStyle.headerText != null) style.headerText = schemaStyle.headerText;
-			if (schemaStyle.isOrdered != null) style.isOrdered = schemaStyle.isOrdered;
-		}
-
-		StyleInfo recordStyle = recordStyles != null ? recordStyles.get(key) : null;
-		if (recordStyle != null) {
-			if (recordStyle.depth != null) style.depth = recordStyle.depth;
-			if (recordStyle.headerText != null) style.headerText = recordStyle.headerText;
-			if (recordStyle.isOrdered != null) style.isOrdered = recordStyle.isOrdered;
-		}
-		return style;
-	}
-
-	private static String capitalizeFirstSegment(String key) {
-		if (key == null || key.isEmpty()) return "";
-		String[] parts = key.split(":");
-		String target = parts[parts.length - 1];
-		if (target.isEmpty()) return "";
-		return target.substring(0, 1).toUpperCase(Locale.ROOT) + target.substring(1);
-	}
-
-	private static String submissionRecordToMarkdown(JsonElement value, StyleInfo style) {
-		if (value == null || value.isJsonNull()) return "";
-		StringBuilder markdown = new StringBuilder();
-		if (value.isJsonArray()) {
-			JsonArray array = value.getAsJsonArray();
-			for (int i = 0; i < array.size(); i++) {
-				JsonElement item = array.get(i);
-				boolean ordered = style.isOrdered != null && style.isOrdered;
-				String prefix = ordered ? (i + 1) + ". " : "- ";
-				if (item.isJsonPrimitive()) {
-					markdown.append(prefix).append(stripUrls(item.getAsString())).append("\n");
-				} else if (item.isJsonObject()) {
-					JsonObject obj = item.getAsJsonObject();
-					markdown.append(prefix);
-					if (obj.has("title")) {
-						markdown.append(stripUrls(obj.get("title").getAsString())).append("\n");
-					}
-					if (obj.has("items")) {
-						markdown.append(nestedListToMarkdown(obj, ordered ? 2 : 1));
-					}
-				}
-			}
-		} else if (value.isJsonObject()) {
-			JsonObject obj = value.getAsJsonObject();
-			if (obj.has("items")) {
-				markdown.append(nestedListToMarkdown(obj, 0));
-			} else {
-				markdown.append(stripUrls(obj.toString()));
-			}
-		} else {
-			markdown.append(stripUrls(value.getAsString()));
-		}
-		return stripUrls(markdown.toString().trim());
-	}
-
-	private static String nestedListToMarkdown(JsonObject nestedList, int indentLevel) {
-		StringBuilder markdown = new StringBuilder();
-		boolean isOrdered = nestedList.has("isOrdered") && nestedList.get("isOrdered").getAsBoolean();
-		JsonArray items = nestedList.has("items") && nestedList.get("items").isJsonArray() ? nestedList.getAsJsonArray("items") : new JsonArray();
-		String indent = "  ".repeat(Math.max(indentLevel, 0));
-
-		for (int i = 0; i < items.size(); i++) {
-			JsonElement item = items.get(i);
-			String prefix = isOrdered ? (indent + (i + 1) + ". ") : (indent + "- ");
-			if (item.isJsonPrimitive()) {
-				markdown.append(prefix).append(stripUrls(item.getAsString())).append("\n");
-			} else if (item.isJsonObject()) {
-				JsonObject child = item.getAsJsonObject();
-				if (child.has("title")) {
-					markdown.append(prefix).append(stripUrls(child.get("title").getAsString())).append("\n");
-				}
-				if (child.has("items")) {
-					markdown.append(nestedListToMarkdown(child, indentLevel + (isOrdered ? 2 : 1)));
-				}
+	static String entryDataPath(ArchivePostSummary summary) {
+		return normalizePath(summary.channelPath()) + "/" + normalizePath(summary.entryPath()) + "/data.json";
+	}
+
+	/**
+	 * The URLs of the images and downloadable attachments an entry's {@code data.json} references.
+	 */
+	static List<String> entryFileUrls(byte[] body, ServerEntry server, ArchivePostSummary summary) {
+		ParsedEntry entry = EntryDataParser.parse(body, server, summary);
+		List<String> urls = new ArrayList<>(entry.images);
+		for (ArchiveAttachment attachment : entry.attachments) {
+			if (attachment.isDownloadable() && attachment.downloadUrl() != null) {
+				urls.add(attachment.downloadUrl());
 			}
 		}
-		return stripUrls(markdown.toString());
+		return urls;
 	}
 
-	private static String stripUrls(String text) {
-		if (text == null || text.isEmpty()) return "";
-		String withoutMarkdownLinks = text.replaceAll("\\[([^\\]]+)\\]\\(https?://[^\\s)]+\\)", "$1 (link removed)");
-		return withoutMarkdownLinks.replaceAll("https?://\\S+", "(link removed)");
+	/**
+	 * The URL every file of {@code server}'s archive repository starts with.
+	 */
+	static String rawUrlPrefix(ServerEntry server) {
+		return buildRawUrl(server, "");
 	}
 
-	private static CompletableFuture<PersistentIndexData> fetchPersistentIndexAsync(ServerEntry server) {
-		String url = buildRawUrl(server, "persistent.idx");
+	/**
+	 * Fetches a JSON document as raw bytes; callers decode it while parsing rather than building a
+	 * {@code String} of the whole body first. With {@code canonicalOnly} the raw host is asked even
+	 * when a mirror is preferred.
+	 */
+	private static CompletableFuture<byte[]> fetchJsonAsync(ServerEntry server, String path, Priority priority, boolean canonicalOnly) {
+		String url = buildRawUrl(server, path);
 		HttpRequest request = HttpRequest.newBuilder()
 			.uri(URI.create(url))
 			.timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-			.header("Accept", "application/octet-stream")
+			.header("Accept", "application/json")
+			.header("User-Agent", USER_AGENT)
+			.GET()
+			.build();
+
+		CompletableFuture<HttpResponse<byte[]>> sent = canonicalOnly
+			? ArchiveHttpClient.sendCanonical(request, HttpResponse.BodyHandlers.ofByteArray(), priority)
+			: ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofByteArray(), priority);
+		return sent.thenApply(response -> {
+			if (response.statusCode() != 200) {
+				throw new CompletionException(new RuntimeException("HTTP error: " + response.statusCode() + " for " + url));
+			}
+			return response.body();
+		});
+	}
+
+	private static CompletableFuture<byte[]> fetchBytesAsync(String url, int timeoutSeconds, Priority priority) {
+		HttpRequest request = HttpRequest.newBuilder()
+			.uri(URI.create(encodeUrl(url)))
+			.timeout(Duration.ofSeconds(timeoutSeconds))
 			.header("User-Agent", USER_AGENT)
 			.GET()
 			.build();
 
-		return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+		return ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofByteArray(), priority)
 			.thenApply(response -> {
-				if (response.statusCode() != 200) {
+				if (response.statusCode() != 200 || response.body() == null || response.body().length == 0) {
 					throw new CompletionException(new RuntimeException("HTTP error: " + response.statusCode() + " for " + url));
 				}
-				byte[] body = response.body();
-				if (body == null || body.length == 0) {
-					throw new CompletionException(new RuntimeException("Empty persistent index for " + url));
-				}
-				return PersistentIndexParser.parse(body);
+				return response.body();
 			});
 	}
 
-	private static CompletableFuture<ArchiveEntryData> fetchEntryDataAsync(ServerEntry server, String channelPath, String entryPath) {
-		String path = normalizePath(channelPath) + "/" + normalizePath(entryPath) + "/data.json";
-		return fetchJsonAsync(server, path).thenApply(json -> GSON.fromJson(json, ArchiveEntryData.class));
+	private static String encodeUrl(String url) {
+		return url.replace(" ", "%20");
 	}
 
-	private static CompletableFuture<String> fetchJsonAsync(ServerEntry server, String path) {
-		String url = buildRawUrl(server, path);
+	/**
+	 * Streams {@code url} into {@code target}, for files too large to hold in memory. Fails if the
+	 * body is shorter or longer than the {@code Content-Length} the server announced.
+	 */
+	static CompletableFuture<Void> fetchToFileAsync(String url, Path target, int timeoutSeconds, Priority priority) {
 		HttpRequest request = HttpRequest.newBuilder()
-			.uri(URI.create(url))
-			.header("Accept", "application/json")
+			.uri(URI.create(encodeUrl(url)))
+			.timeout(Duration.ofSeconds(timeoutSeconds))
 			.header("User-Agent", USER_AGENT)
 			.GET()
 			.build();
 
-		return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-			.thenApply(response -> {
+		return ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofFile(target), priority)
+			.thenAccept(response -> {
 				if (response.statusCode() != 200) {
 					throw new CompletionException(new RuntimeException("HTTP error: " + response.statusCode() + " for " + url));
 				}
-				return response.body();
+				long expected = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+				try {
+					if (expected >= 0 && Files.size(target) != expected) {
+						throw new CompletionException(new IOException("Truncated download of " + url));
+					}
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
 			});
 	}
 
@@ -731,18 +1146,124 @@ public class ArchiveNetworkManager {
 		return codes.get(0);
 	}
 
-	private record ArchiveIndexCache(List<ArchivePostSummary> posts, List<ArchiveChannel> channels) {
+	/**
+	 * One immutable version of a server's index. A refresh builds a new instance and swaps it in;
+	 * readers holding an {@link IndexHandle} keep using the instance they pinned. A {@code partial}
+	 * version holds a single channel's posts and is only handed out while the full index loads.
+	 */
+	private record ArchiveIndexCache(
+		long version,
+		long updatedAt,
+		ArchiveRecordRenderer records,
+		List<ArchiveChannel> channels,
+		ArchiveSearchIndex searchIndex,
+		ArchiveSimilarityIndex similarity,
+		ArchiveSuggestionIndex suggestions,
+		boolean partial
+	) {
+		long estimatedBytes() {
+			return searchIndex.estimatedBytes() + similarity.estimatedBytes() + suggestions.estimatedBytes();
+		}
+	}
+
+	private record VisitDiffState(long version, CompletableFuture<ArchiveVisitDiff> diff) {
+	}
+
+	private record MemoizedDetail(ArchiveRecordRenderer records, ArchivePostDetail detail) {
+	}
+
+	/**
+	 * Pins one index version of a server. Searches, similar posts and details requested through the
+	 * same handle never mix versions, and a refresh never waits for readers: it installs a new
+	 * version while pinned ones stay usable until released.
+	 */
+	public static final class IndexHandle implements AutoCloseable {
+		private final ServerEntry server;
+		private final String key;
+		private final ArchiveIndexCache cache;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private IndexHandle(ServerEntry server, String key, ArchiveIndexCache cache) {
+			this.server = server;
+			this.key = key;
+			this.cache = cache;
+			PINNED_VERSIONS.merge(cache.version(), 1, Integer::sum);
+		}
+
+		public ServerEntry server() {
+			return server;
+		}
+
+		public long version() {
+			return cache.version();
+		}
+
+		/**
+		 * Whether this handle still pins the version new searches on its server would use.
+		 */
+		public boolean isCurrent() {
+			ArchiveIndexCache live = CACHED_INDEXES.get(key);
+			return live != null && live.version() == cache.version();
+		}
+
+		public boolean isReleased() {
+			return released.get();
+		}
+
+		@Override
+		public void close() {
+			if (released.compareAndSet(false, true)) {
+				PINNED_VERSIONS.computeIfPresent(cache.version(), (version, count) -> count > 1 ? count - 1 : null);
+			}
+		}
+
+		private ArchiveIndexCache cache() {
+			if (released.get()) {
+				throw new IllegalStateException("Index handle for version " + cache.version() + " was already released");
+			}
+			return cache;
+		}
 	}
 
+	/**
+	 * Decodes {@code persistent.idx}. Version 1 is one sequential stream. Version 2 keeps the v1
+	 * dictionaries and channel metadata but moves each channel's entries into its own
+	 * deflate-compressed block, located through an offset table in the header, so any channel can
+	 * be decoded on its own:
+	 * <pre>
+	 * u16 version, u64 updatedAt                          (big-endian, as in v1)
+	 * tags, authors, categories, schema styles           (little-endian from here, as in v1)
+	 * u16 channelCount
+	 *   per channel: code, name, description, u16 category, u16 tagCount + u16 tags, path,
+	 *                u32 entryCount, u32 blockOffset, u32 blockLength, u32 rawLength
+	 * u16 sectionCount
+	 *   per section: u16 kind, u32 offset, u32 length
+	 * data region: channel blocks (deflate of v1-encoded entries) and optional sections
+	 * </pre>
+	 * Offsets are relative to the start of the data region. Sections hold precomputed orderings
+	 * over entries in file order as u32 arrays; unknown kinds are skipped.
+	 */
 	private static class PersistentIndexParser {
-		private static final int SUPPORTED_VERSION = 1;
+		private static final int VERSION_SEQUENTIAL = 1;
+		private static final int VERSION_BLOCKED = 2;
+		private static final int SECTION_NEWEST_ORDER = 1;
+		private static final int SECTION_ARCHIVED_ORDER = 2;
+		private static final int UNCOMPRESSED = -1;
 
 		static PersistentIndexData parse(byte[] buffer) {
+			return parseLayout(buffer).complete();
+		}
+
+		/**
+		 * Decodes dictionaries and channel metadata. Entries are left undecoded, and version 2 blocks
+		 * compressed, until {@link PersistentIndexLayout#entries(int)} asks for them.
+		 */
+		static PersistentIndexLayout parseLayout(byte[] buffer) {
 			ByteBuffer data = ByteBuffer.wrap(buffer);
 			data.order(ByteOrder.BIG_ENDIAN);
 
 			int version = Short.toUnsignedInt(data.getShort());
-			if (version != SUPPORTED_VERSION) {
+			if (version != VERSION_SEQUENTIAL && version != VERSION_BLOCKED) {
 				throw new CompletionException(new IllegalArgumentException("Unsupported persistent index version: " + version));
 			}
 			long updatedAt = data.getLong();
@@ -751,7 +1272,130 @@ public class ArchiveNetworkManager {
 			List<String> allTags = readStringList(data);
 			List<String> allAuthors = readStringList(data);
 			List<String> allCategories = readStringList(data);
+			Map<String, StyleInfo> schemaStyles = readSchemaStyles(data);
 
+			if (version == VERSION_BLOCKED) {
+				return parseBlocked(buffer, data, updatedAt, allTags, allAuthors, allCategories, schemaStyles);
+			}
+
+			// One pass that only skips over entries, so each channel can be decoded on its own later.
+			List<PersistentChannel> headers = new ArrayList<>();
+			List<int[]> blocks = new ArrayList<>();
+			while (data.hasRemaining()) {
+				headers.add(readChannelHeader(data));
+				int entryCount = readUnsignedInt(data);
+				int offset = data.position();
+				for (int i = 0; i < entryCount; i++) {
+					skipEntry(data);
+				}
+				blocks.add(new int[]{entryCount, offset, data.position() - offset, UNCOMPRESSED});
+			}
+
+			return new PersistentIndexLayout(
+				new PersistentIndexData(updatedAt, allTags, allAuthors, allCategories, schemaStyles, headers, null, null),
+				buffer,
+				0,
+				blocks.toArray(new int[0][])
+			);
+		}
+
+		private static PersistentIndexLayout parseBlocked(
+			byte[] buffer,
+			ByteBuffer data,
+			long updatedAt,
+			List<String> allTags,
+			List<String> allAuthors,
+			List<String> allCategories,
+			Map<String, StyleInfo> schemaStyles
+		) {
+			int channelCount = Short.toUnsignedInt(data.getShort());
+			List<PersistentChannel> headers = new ArrayList<>(channelCount);
+			List<int[]> blocks = new ArrayList<>(channelCount);
+			int totalEntries = 0;
+			for (int i = 0; i < channelCount; i++) {
+				headers.add(readChannelHeader(data));
+				int[] block = {readUnsignedInt(data), readUnsignedInt(data), readUnsignedInt(data), readUnsignedInt(data)};
+				blocks.add(block);
+				totalEntries += block[0];
+			}
+
+			int sectionCount = Short.toUnsignedInt(data.getShort());
+			int[][] sections = new int[sectionCount][];
+			for (int i = 0; i < sectionCount; i++) {
+				sections[i] = new int[]{Short.toUnsignedInt(data.getShort()), readUnsignedInt(data), readUnsignedInt(data)};
+			}
+			int dataStart = data.position();
+
+			int[] newestOrder = null;
+			int[] archivedOrder = null;
+			for (int[] section : sections) {
+				if (section[0] == SECTION_NEWEST_ORDER) {
+					newestOrder = readOrderSection(buffer, dataStart, section[1], section[2], totalEntries);
+				} else if (section[0] == SECTION_ARCHIVED_ORDER) {
+					archivedOrder = readOrderSection(buffer, dataStart, section[1], section[2], totalEntries);
+				}
+			}
+			return new PersistentIndexLayout(
+				new PersistentIndexData(updatedAt, allTags, allAuthors, allCategories, schemaStyles, headers, newestOrder, archivedOrder),
+				buffer,
+				dataStart,
+				blocks.toArray(new int[0][])
+			);
+		}
+
+		/**
+		 * Inflates and decodes one channel block; {@code block} is entryCount, offset, length, rawLength.
+		 * Version 1 channels are stored as is and have a rawLength of {@link #UNCOMPRESSED}.
+		 */
+		private static List<PersistentEntry> decodeBlock(byte[] buffer, int dataStart, int[] block) {
+			ByteBuffer entries = block[3] == UNCOMPRESSED
+				? ByteBuffer.wrap(buffer, dataStart + block[1], block[2]).slice().order(ByteOrder.LITTLE_ENDIAN)
+				: inflateBlock(buffer, dataStart, block[1], block[2], block[3]);
+			List<PersistentEntry> decoded = new ArrayList<>(block[0]);
+			for (int i = 0; i < block[0]; i++) {
+				decoded.add(readEntry(entries));
+			}
+			return decoded;
+		}
+
+		private static ByteBuffer inflateBlock(byte[] buffer, int dataStart, int offset, int length, int rawLength) {
+			checkRegion(buffer, dataStart, offset, length);
+			try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(buffer, dataStart + offset, length))) {
+				byte[] raw = in.readNBytes(rawLength);
+				if (raw.length != rawLength || in.read() != -1) {
+					throw new IOException("expected " + rawLength + " bytes");
+				}
+				return ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+			} catch (IOException e) {
+				throw new CompletionException(new IllegalArgumentException("Corrupt channel block at " + offset + ": " + e.getMessage()));
+			}
+		}
+
+		private static int[] readOrderSection(byte[] buffer, int dataStart, int offset, int length, int entryCount) {
+			checkRegion(buffer, dataStart, offset, length);
+			if (length != entryCount * 4) {
+				return null;
+			}
+			int[] order = new int[entryCount];
+			ByteBuffer.wrap(buffer, dataStart + offset, length).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(order);
+			return order;
+		}
+
+		private static void checkRegion(byte[] buffer, int dataStart, int offset, int length) {
+			if ((long) dataStart + offset + length > buffer.length) {
+				throw new CompletionException(new IllegalArgumentException("Persistent index region out of bounds: " + offset + "+" + length));
+			}
+		}
+
+		private static int readUnsignedInt(ByteBuffer buffer) {
+			long value = Integer.toUnsignedLong(buffer.getInt());
+			if (value > Integer.MAX_VALUE) {
+				throw new CompletionException(new IllegalArgumentException("Persistent index value exceeds max int: " + value));
+			}
+			return (int) value;
+		}
+
+		private static Map<String, StyleInfo> readSchemaStyles(ByteBuffer data) {
 			int schemaStylesLength = data.getInt();
 			if (schemaStylesLength < 0) {
 				long unsigned = Integer.toUnsignedLong(schemaStylesLength);
@@ -759,14 +1403,7 @@ public class ArchiveNetworkManager {
 			}
 			byte[] stylesBytes = new byte[schemaStylesLength];
 			data.get(stylesBytes);
-			Map<String, StyleInfo> schemaStyles = parseStyles(stylesBytes);
-
-			List<PersistentChannel> channels = new ArrayList<>();
-			while (data.hasRemaining()) {
-				channels.add(readChannel(data));
-			}
-
-			return new PersistentIndexData(updatedAt, allTags, allAuthors, allCategories, schemaStyles, channels);
+			return parseStyles(new String(stylesBytes, StandardCharsets.UTF_8));
 		}
 
 		private static List<String> readStringList(ByteBuffer buffer) {
@@ -778,7 +1415,35 @@ public class ArchiveNetworkManager {
 			return values;
 		}
 
-		private static PersistentChannel readChannel(ByteBuffer buffer) {
+		/**
+		 * Moves past one version 1 entry without decoding it; the layout matches {@link #readEntry}.
+		 */
+		private static void skipEntry(ByteBuffer buffer) {
+			skipString(buffer); // id
+			skipString(buffer); // codes
+			skipString(buffer); // name
+			skip(buffer, Short.toUnsignedInt(buffer.getShort()) * 2); // authors
+			skip(buffer, Short.toUnsignedInt(buffer.getShort()) * 2); // tags
+			skip(buffer, 16); // updatedAt, archivedAt
+			skipString(buffer); // path
+			skipString(buffer); // main image path
+		}
+
+		private static void skipString(ByteBuffer buffer) {
+			skip(buffer, Short.toUnsignedInt(buffer.getShort()));
+		}
+
+		private static void skip(ByteBuffer buffer, int length) {
+			if (length > buffer.remaining()) {
+				throw new BufferUnderflowException();
+			}
+			buffer.position(buffer.position() + length);
+		}
+
+		/**
+		 * Reads the channel fields shared by both versions; the entry list is left empty.
+		 */
+		private static PersistentChannel readChannelHeader(ByteBuffer buffer) {
 			String code = readString(buffer);
 			String name = readString(buffer);
 			String description = readString(buffer);
@@ -791,19 +1456,7 @@ public class ArchiveNetworkManager {
 			}
 
 			String path = readString(buffer);
-
-			long entriesCountUnsigned = Integer.toUnsignedLong(buffer.getInt());
-			if (entriesCountUnsigned > Integer.MAX_VALUE) {
-				throw new CompletionException(new IllegalArgumentException("Channel entries exceed max int: " + entriesCountUnsigned));
-			}
-			int entriesCount = (int) entriesCountUnsigned;
-
-			List<PersistentEntry> entries = new ArrayList<>(entriesCount);
-			for (int i = 0; i < entriesCount; i++) {
-				entries.add(readEntry(buffer));
-			}
-
-			return new PersistentChannel(code, name, description, category, tags, path, entries);
+			return new PersistentChannel(code, name, description, category, tags, path, List.of());
 		}
 
 		private static PersistentEntry readEntry(ByteBuffer buffer) {
@@ -861,11 +1514,10 @@ public class ArchiveNetworkManager {
 				.toList();
 		}
 
-		private static Map<String, StyleInfo> parseStyles(byte[] stylesBytes) {
-			if (stylesBytes == null || stylesBytes.length == 0) {
+		private static Map<String, StyleInfo> parseStyles(String json) {
+			if (json == null || json.isEmpty()) {
 				return Map.of();
 			}
-			String json = new String(stylesBytes, StandardCharsets.UTF_8);
 			return GSON.fromJson(json, new TypeToken<Map<String, StyleInfo>>() {}.getType());
 		}
 	}
@@ -876,10 +1528,86 @@ public class ArchiveNetworkManager {
 		List<String> allAuthors,
 		List<String> allCategories,
 		Map<String, StyleInfo> schemaStyles,
-		List<PersistentChannel> channels
+		List<PersistentChannel> channels,
+		int[] newestOrder,
+		int[] archivedOrder
 	) {
 	}
 
+	/**
+	 * A parsed {@code persistent.idx} whose channel entries are decoded on first use, so the channel
+	 * list is available before any entry block has been inflated. Version 1 channels are located by a
+	 * skip-only pass over the sequential stream and decoded in place.
+	 */
+	private static final class PersistentIndexLayout {
+		private final PersistentIndexData header;
+		private final byte[] source;
+		private final int dataStart;
+		private final int[][] blocks;
+		private final List<List<PersistentEntry>> decoded;
+		private final Map<String, ArchiveIndexCache> shardCaches = new ConcurrentHashMap<>();
+		private volatile List<ArchiveChannel> channelList;
+
+		private PersistentIndexLayout(PersistentIndexData header, byte[] source, int dataStart, int[][] blocks) {
+			this.header = header;
+			this.source = source;
+			this.dataStart = dataStart;
+			this.blocks = blocks;
+			this.decoded = new ArrayList<>(header.channels().size());
+			for (int i = 0; i < header.channels().size(); i++) {
+				decoded.add(null);
+			}
+		}
+
+		int channelCount() {
+			return header.channels().size();
+		}
+
+		int entryCount(int channel) {
+			return blocks[channel][0];
+		}
+
+		int indexOf(String path) {
+			for (int i = 0; i < channelCount(); i++) {
+				if (path != null && path.equals(header.channels().get(i).path())) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		synchronized List<PersistentEntry> entries(int channel) {
+			List<PersistentEntry> entries = decoded.get(channel);
+			if (entries == null) {
+				entries = PersistentIndexParser.decodeBlock(source, dataStart, blocks[channel]);
+				decoded.set(channel, entries);
+			}
+			return entries;
+		}
+
+		/**
+		 * Decodes every remaining block. Blocks already decoded for a single channel are reused.
+		 */
+		PersistentIndexData complete() {
+			List<PersistentChannel> channels = new ArrayList<>(channelCount());
+			for (int i = 0; i < channelCount(); i++) {
+				channels.add(withEntries(i));
+			}
+			return new PersistentIndexData(header.updatedAt(), header.allTags(), header.allAuthors(), header.allCategories(),
+				header.schemaStyles(), channels, header.newestOrder(), header.archivedOrder());
+		}
+
+		PersistentIndexData channelData(int channel) {
+			return new PersistentIndexData(header.updatedAt(), header.allTags(), header.allAuthors(), header.allCategories(),
+				header.schemaStyles(), List.of(withEntries(channel)), null, null);
+		}
+
+		private PersistentChannel withEntries(int channel) {
+			PersistentChannel meta = header.channels().get(channel);
+			return new PersistentChannel(meta.code(), meta.name(), meta.description(), meta.category(), meta.tags(), meta.path(), entries(channel));
+		}
+	}
+
 	private record PersistentChannel(
 		String code,
 		String name,
@@ -904,131 +1632,223 @@ public class ArchiveNetworkManager {
 	) {
 	}
 
-	private static class ArchiveEntryData {
-		@SuppressWarnings("unused")
-		String id;
-		@SuppressWarnings("unused")
-		String name;
-		@SuppressWarnings("unused")
-		String code;
-		List<ArchiveAuthor> authors;
-		@SuppressWarnings("unused")
-		List<ArchiveAuthor> endorsers;
-		@SuppressWarnings("unused")
-		List<ArchiveTag> tags;
-		List<ArchiveImageData> images;
-		List<ArchiveAttachmentData> attachments;
-		ArchiveDiscordPostReference post;
-		JsonObject records;
-		Map<String, StyleInfo> styles;
-		Long archivedAt;
-		Long updatedAt;
-	}
+	/**
+	 * Streams an entry's {@code data.json} into a {@link ParsedEntry} with a {@link JsonReader}. Only
+	 * the fields the detail view shows are kept; endorsers, tags, ids and embed metadata are skipped
+	 * without being materialized, and records are read by {@link ArchiveRecordRenderer} instead of
+	 * into a {@code JsonObject} tree. Lenient about scalar types in the same way Gson's binding was.
+	 */
+	private static final class EntryDataParser {
+		private EntryDataParser() {
+		}
+
+		static ParsedEntry parse(byte[] body, ServerEntry server, ArchivePostSummary summary) {
+			try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+				ParsedEntry entry = new ParsedEntry();
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "authors" -> readAuthors(reader, entry.authors);
+						case "images" -> readImages(reader, entry, server, summary);
+						case "attachments" -> readAttachments(reader, entry.attachments, server, summary);
+						case "post" -> entry.post = readPost(reader);
+						case "records" -> entry.records = ArchiveRecordRenderer.readRecords(reader);
+						case "styles" -> entry.styles = ArchiveRecordRenderer.readStyles(reader);
+						case "archivedAt" -> entry.archivedAt = LenientJson.nextLong(reader);
+						case "updatedAt" -> entry.updatedAt = LenientJson.nextLong(reader);
+						default -> reader.skipValue();
+					}
+				}
+				reader.endObject();
+				return entry;
+			} catch (IOException | IllegalStateException | NumberFormatException e) {
+				throw new CompletionException(new RuntimeException("Invalid data.json for " + summary.entryPath() + ": " + e.getMessage(), e));
+			}
+		}
 
-	private static class ArchiveImageData {
-		@SuppressWarnings("unused")
-		String name;
-		@SuppressWarnings("unused")
-		String url;
-		String description;
-		@SuppressWarnings("unused")
-		String contentType;
-		@SuppressWarnings("unused")
-		Boolean canDownload;
-		String path;
-		Integer width;
-		Integer height;
-	}
-
-	private static class ArchiveAttachmentData {
-		@SuppressWarnings("unused")
-		String id;
-		String name;
-		String url;
-		String description;
-		String contentType;
-		ArchiveLitematicInfo litematic;
-		ArchiveWdlInfo wdl;
-		ArchiveYoutubeInfo youtube;
-		Boolean canDownload;
-		String path;
-	}
-
-	private static class ArchiveLitematicInfo {
-		String version;
-		String size;
-		String error;
-	}
-
-	private static class ArchiveWdlInfo {
-		String version;
-		String error;
-	}
-
-	private static class ArchiveYoutubeInfo {
-		String title;
-		String author_name;
-		String author_url;
-		@SuppressWarnings("unused")
-		String thumbnail_url;
-		@SuppressWarnings("unused")
-		Integer thumbnail_width;
-		@SuppressWarnings("unused")
-		Integer thumbnail_height;
-		@SuppressWarnings("unused")
-		Integer width;
-		@SuppressWarnings("unused")
-		Integer height;
-	}
-
-	private static class ArchiveAuthor {
-		String username;
-		String displayName;
-		@SuppressWarnings("unused")
-		String url;
-		@SuppressWarnings("unused")
-		String iconURL;
-	}
-
-	private static class ArchiveTag {
-		@SuppressWarnings("unused")
-		String id;
-		@SuppressWarnings("unused")
-		String name;
-	}
-
-	private static class ArchiveDiscordPostReference {
-		String forumId;
-		String threadId;
-		List<String> continuingMessageIds;
-		String threadURL;
-		String attachmentMessageId;
-		String uploadMessageId;
-	}
-
-	private static class StyleInfo {
-		Integer depth;
-		String headerText;
-		Boolean isOrdered;
-	}
-
-	private static class SectionLines {
-		final String title;
-		final List<String> lines = new ArrayList<>();
-
-		SectionLines(String title) {
-			this.title = title != null ? title : "";
-		}
-
-		void addLines(String... items) {
-			if (items == null) return;
-			for (String item : items) {
-				if (item == null) continue;
-				String trimmed = item.stripTrailing();
-				if (!trimmed.isEmpty()) {
-					lines.add(trimmed);
+		/**
+		 * The version a {@code data.json} body is of, read without decoding anything else, or 0 when
+		 * it has no timestamps or does not parse.
+		 */
+		static long version(byte[] body) {
+			try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+				Long archivedAt = null;
+				Long updatedAt = null;
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "archivedAt" -> archivedAt = LenientJson.nextLong(reader);
+						case "updatedAt" -> updatedAt = LenientJson.nextLong(reader);
+						default -> reader.skipValue();
+					}
+				}
+				return updatedAt != null && updatedAt > 0 ? updatedAt : archivedAt != null ? archivedAt : 0;
+			} catch (IOException | IllegalStateException | NumberFormatException e) {
+				return 0;
+			}
+		}
+
+		private static void readAuthors(JsonReader reader, List<String> authors) throws IOException {
+			if (!LenientJson.beginArray(reader)) return;
+			while (reader.hasNext()) {
+				if (!LenientJson.beginObject(reader)) continue;
+				String username = null;
+				String displayName = null;
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "username" -> username = LenientJson.nextString(reader);
+						case "displayName" -> displayName = LenientJson.nextString(reader);
+						default -> reader.skipValue();
+					}
+				}
+				reader.endObject();
+				String name = displayName != null && !displayName.isEmpty() ? displayName : username;
+				if (name != null && !name.isEmpty()) {
+					authors.add(name);
 				}
 			}
+			reader.endArray();
 		}
+
+		private static void readImages(JsonReader reader, ParsedEntry entry, ServerEntry server, ArchivePostSummary summary) throws IOException {
+			if (!LenientJson.beginArray(reader)) return;
+			while (reader.hasNext()) {
+				if (!LenientJson.beginObject(reader)) continue;
+				String path = null;
+				String description = null;
+				Integer width = null;
+				Integer height = null;
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "path" -> path = LenientJson.nextString(reader);
+						case "description" -> description = LenientJson.nextString(reader);
+						case "width" -> width = LenientJson.nextInt(reader);
+						case "height" -> height = LenientJson.nextInt(reader);
+						default -> reader.skipValue();
+					}
+				}
+				reader.endObject();
+				String url = resolveImagePath(server, path, summary.channelPath(), summary.entryPath());
+				if (url != null && !url.isEmpty()) {
+					entry.images.add(url);
+					entry.imageInfos.add(new ArchiveImageInfo(url, description, width, height));
+				}
+			}
+			reader.endArray();
+		}
+
+		private static void readAttachments(JsonReader reader, List<ArchiveAttachment> attachments, ServerEntry server, ArchivePostSummary summary) throws IOException {
+			if (!LenientJson.beginArray(reader)) return;
+			while (reader.hasNext()) {
+				if (!LenientJson.beginObject(reader)) continue;
+				String name = null;
+				String url = null;
+				String description = null;
+				String contentType = null;
+				Boolean canDownload = null;
+				String path = null;
+				ArchiveAttachment.LitematicInfo litematic = null;
+				ArchiveAttachment.WdlInfo wdl = null;
+				ArchiveAttachment.YoutubeInfo youtube = null;
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "name" -> name = LenientJson.nextString(reader);
+						case "url" -> url = LenientJson.nextString(reader);
+						case "description" -> description = LenientJson.nextString(reader);
+						case "contentType" -> contentType = LenientJson.nextString(reader);
+						case "canDownload" -> canDownload = LenientJson.nextBoolean(reader);
+						case "path" -> path = LenientJson.nextString(reader);
+						case "litematic" -> {
+							Map<String, String> fields = readStringFields(reader);
+							litematic = fields != null ? new ArchiveAttachment.LitematicInfo(fields.get("version"), fields.get("size"), fields.get("error")) : null;
+						}
+						case "wdl" -> {
+							Map<String, String> fields = readStringFields(reader);
+							wdl = fields != null ? new ArchiveAttachment.WdlInfo(fields.get("version"), fields.get("error")) : null;
+						}
+						case "youtube" -> {
+							Map<String, String> fields = readStringFields(reader);
+							youtube = fields != null ? new ArchiveAttachment.YoutubeInfo(fields.get("title"), fields.get("author_name"), fields.get("author_url")) : null;
+						}
+						default -> reader.skipValue();
+					}
+				}
+				reader.endObject();
+				boolean downloadable = canDownload == null || canDownload;
+				String downloadUrl = downloadable ? resolveAttachmentPath(server, path, summary.channelPath(), summary.entryPath()) : url;
+				attachments.add(new ArchiveAttachment(
+					name != null ? name : "Attachment",
+					downloadUrl,
+					contentType,
+					downloadable,
+					litematic != null ? litematic.size() : null,
+					description,
+					litematic,
+					wdl,
+					youtube
+				));
+			}
+			reader.endArray();
+		}
+
+		private static DiscordPostReference readPost(JsonReader reader) throws IOException {
+			if (!LenientJson.beginObject(reader)) return null;
+			String forumId = null;
+			String threadId = null;
+			List<String> continuing = new ArrayList<>();
+			String threadUrl = null;
+			String attachmentMessageId = null;
+			String uploadMessageId = null;
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case "forumId" -> forumId = LenientJson.nextString(reader);
+					case "threadId" -> threadId = LenientJson.nextString(reader);
+					case "threadURL" -> threadUrl = LenientJson.nextString(reader);
+					case "attachmentMessageId" -> attachmentMessageId = LenientJson.nextString(reader);
+					case "uploadMessageId" -> uploadMessageId = LenientJson.nextString(reader);
+					case "continuingMessageIds" -> {
+						if (LenientJson.beginArray(reader)) {
+							while (reader.hasNext()) {
+								continuing.add(LenientJson.nextString(reader));
+							}
+							reader.endArray();
+						}
+					}
+					default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new DiscordPostReference(forumId, threadId, continuing, threadUrl, attachmentMessageId, uploadMessageId);
+		}
+
+		/**
+		 * Reads a flat object of scalar fields, or returns {@code null} for a JSON null.
+		 */
+		private static Map<String, String> readStringFields(JsonReader reader) throws IOException {
+			if (!LenientJson.beginObject(reader)) return null;
+			Map<String, String> fields = new HashMap<>();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				fields.put(name, LenientJson.nextString(reader));
+			}
+			reader.endObject();
+			return fields;
+		}
+	}
+
+	/**
+	 * The parts of an entry's {@code data.json} the detail view uses, with images and attachments
+	 * already resolved. Records stay unrendered because their styles depend on the index version.
+	 */
+	private static final class ParsedEntry {
+		final List<String> authors = new ArrayList<>();
+		final List<String> images = new ArrayList<>();
+		final List<ArchiveImageInfo> imageInfos = new ArrayList<>();
+		final List<ArchiveAttachment> attachments = new ArrayList<>();
+		DiscordPostReference post;
+		List<RecordField> records = List.of();
+		Map<String, StyleInfo> styles = Map.of();
+		Long archivedAt;
+		Long updatedAt;
 	}
 }
@@ -0,0 +1,42 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the selected server's index and first page of thumbnails once the client has started, so the
+ * first open of the browser does not wait on the network. Parsing and indexing run on a single
+ * minimum-priority daemon thread; it can be turned off with the {@code prewarmOnStartup} setting.
+ */
+public final class ArchivePrewarmer {
+	private static final AtomicBoolean STARTED = new AtomicBoolean(false);
+
+	private ArchivePrewarmer() {
+	}
+
+	public static void start() {
+		DownloadSettings settings = DownloadSettings.getInstance();
+		if (!settings.isPrewarmOnStartupEnabled() || !STARTED.compareAndSet(false, true)) {
+			return;
+		}
+
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ST2 Archive Prewarm");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		ServerEntry server = settings.getSelectedServer();
+		ArchiveNetworkManager.prewarm(server, settings.getSortOption(), settings.getItemsPerPage(), executor)
+			.whenComplete((ignored, throwable) -> {
+				if (throwable != null) {
+					System.err.println("Failed to prewarm archive index: " + throwable.getMessage());
+				}
+				executor.shutdown();
+			});
+	}
+}
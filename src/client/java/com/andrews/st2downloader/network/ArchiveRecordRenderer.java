@@ -0,0 +1,464 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchiveRecordSection;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders an entry's submission records into the sections the detail view shows.
+ * <p>
+ * A renderer is compiled once per index version's schema styles. Every record key resolves to a
+ * {@link Section} that already holds its header text, list style and parent sections, so rendering
+ * an entry does no key splitting or style merging beyond the entry's own style overrides. URLs are
+ * stripped in a single pass while text is appended, without regular expressions.
+ */
+public final class ArchiveRecordRenderer {
+	public static final ArchiveRecordRenderer EMPTY = new ArchiveRecordRenderer(Map.of());
+
+	private static final String LINK_REMOVED = "(link removed)";
+	// Keys seen in entries but absent from the schema are interned too, up to this many.
+	private static final int MAX_SECTIONS = 4096;
+
+	private final Map<String, StyleInfo> schemaStyles;
+	private final ConcurrentHashMap<String, Section> sections = new ConcurrentHashMap<>();
+
+	private ArchiveRecordRenderer(Map<String, StyleInfo> schemaStyles) {
+		this.schemaStyles = schemaStyles;
+		for (String key : schemaStyles.keySet()) {
+			section(key);
+		}
+	}
+
+	public static ArchiveRecordRenderer compile(Map<String, StyleInfo> schemaStyles) {
+		return schemaStyles == null || schemaStyles.isEmpty() ? EMPTY : new ArchiveRecordRenderer(schemaStyles);
+	}
+
+	/**
+	 * The schema styles this renderer was compiled from.
+	 */
+	public Map<String, StyleInfo> schemaStyles() {
+		return schemaStyles;
+	}
+
+	/**
+	 * Renders {@code records} in order. {@code recordStyles} are the entry's own style overrides and
+	 * take precedence over the schema.
+	 */
+	public List<ArchiveRecordSection> render(List<RecordField> records, Map<String, StyleInfo> recordStyles) {
+		List<ArchiveRecordSection> result = new ArrayList<>();
+		if (records == null || records.isEmpty()) {
+			return result;
+		}
+		Map<String, StyleInfo> overrides = recordStyles != null ? recordStyles : Map.of();
+
+		LinkedHashMap<String, SectionLines> orderedSections = new LinkedHashMap<>();
+		StringBuilder markdown = new StringBuilder(256);
+		boolean isFirst = true;
+
+		for (RecordField field : records) {
+			Section section = section(field.key());
+			for (Section parent : section.parents) {
+				if (!orderedSections.containsKey(parent.key)) {
+					orderedSections.put(parent.key, new SectionLines(parent.headerText(overrides)));
+				}
+			}
+
+			markdown.setLength(0);
+			appendMarkdown(markdown, field.value(), section.isOrdered(overrides));
+			int start = 0;
+			int end = markdown.length();
+			while (start < end && markdown.charAt(start) <= ' ') start++;
+			while (end > start && markdown.charAt(end - 1) <= ' ') end--;
+			if (start == end) {
+				continue;
+			}
+
+			String headerText = section.headerText(overrides);
+			if (headerText.isBlank() && isFirst) {
+				headerText = "Description";
+			}
+			SectionLines lines = orderedSections.get(section.key);
+			if (lines == null) {
+				lines = new SectionLines(headerText);
+				orderedSections.put(section.key, lines);
+			}
+			lines.addLines(markdown, start, end);
+			isFirst = false;
+		}
+
+		for (SectionLines value : orderedSections.values()) {
+			if (!value.lines.isEmpty()) {
+				result.add(new ArchiveRecordSection(value.title, new ArrayList<>(value.lines)));
+			}
+		}
+		return result;
+	}
+
+	private Section section(String key) {
+		Section section = sections.get(key);
+		if (section != null) {
+			return section;
+		}
+		String[] parts = key.split(":");
+		Section[] parents = new Section[Math.max(parts.length - 1, 0)];
+		for (int i = 1; i < parts.length; i++) {
+			parents[i - 1] = section(String.join(":", Arrays.copyOfRange(parts, 0, i)));
+		}
+
+		String headerText = parts.length > 0 ? capitalize(parts[parts.length - 1]) : "";
+		boolean isOrdered = false;
+		StyleInfo schemaStyle = schemaStyles.get(key);
+		if (schemaStyle != null) {
+			if (schemaStyle.headerText != null) headerText = schemaStyle.headerText;
+			if (schemaStyle.isOrdered != null) isOrdered = schemaStyle.isOrdered;
+		}
+		section = new Section(key, headerText, isOrdered, parents);
+		if (sections.size() >= MAX_SECTIONS) {
+			return section;
+		}
+		Section raced = sections.putIfAbsent(key, section);
+		return raced != null ? raced : section;
+	}
+
+	private static String capitalize(String segment) {
+		if (segment.isEmpty()) return "";
+		return segment.substring(0, 1).toUpperCase(Locale.ROOT) + segment.substring(1);
+	}
+
+	private static void appendMarkdown(StringBuilder out, Object value, boolean ordered) {
+		if (value == null) return;
+		if (value instanceof List<?> array) {
+			for (int i = 0; i < array.size(); i++) {
+				Object item = array.get(i);
+				if (item instanceof String text) {
+					appendPrefix(out, ordered, i, 0);
+					appendStripped(out, text);
+					out.append('\n');
+				} else if (item instanceof RecordNode node) {
+					appendPrefix(out, ordered, i, 0);
+					if (node.title() != null) {
+						appendStripped(out, node.title());
+						out.append('\n');
+					}
+					if (node.items() != null) {
+						appendNestedList(out, node, ordered ? 2 : 1);
+					}
+				}
+			}
+		} else if (value instanceof RecordNode node) {
+			appendNestedList(out, node, 0);
+		} else {
+			appendStripped(out, value.toString());
+		}
+	}
+
+	private static void appendNestedList(StringBuilder out, RecordNode nestedList, int indentLevel) {
+		List<Object> items = nestedList.items() != null ? nestedList.items() : List.of();
+		for (int i = 0; i < items.size(); i++) {
+			Object item = items.get(i);
+			if (item instanceof String text) {
+				appendPrefix(out, nestedList.isOrdered(), i, indentLevel);
+				appendStripped(out, text);
+				out.append('\n');
+			} else if (item instanceof RecordNode child) {
+				if (child.title() != null) {
+					appendPrefix(out, nestedList.isOrdered(), i, indentLevel);
+					appendStripped(out, child.title());
+					out.append('\n');
+				}
+				if (child.items() != null) {
+					appendNestedList(out, child, indentLevel + (nestedList.isOrdered() ? 2 : 1));
+				}
+			}
+		}
+	}
+
+	private static void appendPrefix(StringBuilder out, boolean ordered, int index, int indentLevel) {
+		for (int i = 0; i < indentLevel; i++) {
+			out.append("  ");
+		}
+		if (ordered) {
+			out.append(index + 1).append(". ");
+		} else {
+			out.append("- ");
+		}
+	}
+
+	/**
+	 * Appends {@code text} with markdown links reduced to {@code "text (link removed)"} and bare
+	 * http(s) URLs to {@code "(link removed)"}. Bare URLs are matched on the output, so a URL that
+	 * runs into a link's text is cut at the same place as it would be if links were replaced first.
+	 */
+	static void appendStripped(StringBuilder out, String text) {
+		int wordStart = out.length();
+		int length = text.length();
+		// The next ']' at or after the current '[' (length when there is none), and where the
+		// markdown link closing there ends (-1 when it is not one); shared by every '[' before it.
+		int close = -1;
+		int linkEnd = -1;
+		int i = 0;
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c == '[') {
+				if (close < i) {
+					close = text.indexOf(']', i + 1);
+					if (close < 0) close = length;
+					linkEnd = markdownLinkEnd(text, close);
+				}
+				if (linkEnd > 0 && close > i + 1) {
+					for (int j = i + 1; j < close; j++) {
+						wordStart = append(out, text.charAt(j), wordStart);
+					}
+					wordStart = append(out, ' ', wordStart);
+					out.append(LINK_REMOVED);
+					i = linkEnd;
+					continue;
+				}
+			}
+			wordStart = append(out, c, wordStart);
+			i++;
+		}
+		stripUrl(out, wordStart);
+	}
+
+	private static int markdownLinkEnd(String text, int close) {
+		int length = text.length();
+		if (close + 1 >= length || text.charAt(close + 1) != '(') {
+			return -1;
+		}
+		int urlStart = close + 2;
+		int rest;
+		if (text.startsWith("http://", urlStart)) {
+			rest = urlStart + 7;
+		} else if (text.startsWith("https://", urlStart)) {
+			rest = urlStart + 8;
+		} else {
+			return -1;
+		}
+		int end = rest;
+		while (end < length && !isSpace(text.charAt(end)) && text.charAt(end) != ')') {
+			end++;
+		}
+		return end > rest && end < length && text.charAt(end) == ')' ? end + 1 : -1;
+	}
+
+	private static int append(StringBuilder out, char c, int wordStart) {
+		if (isSpace(c)) {
+			stripUrl(out, wordStart);
+			out.append(c);
+			return out.length();
+		}
+		out.append(c);
+		return wordStart;
+	}
+
+	/**
+	 * Replaces the first http(s) URL in the word at the end of {@code out}, and the rest of the word
+	 * with it.
+	 */
+	private static void stripUrl(StringBuilder out, int wordStart) {
+		int end = out.length();
+		for (int k = wordStart; k + 7 < end; k++) {
+			if (out.charAt(k) != 'h' || out.charAt(k + 1) != 't' || out.charAt(k + 2) != 't' || out.charAt(k + 3) != 'p') {
+				continue;
+			}
+			int colon = out.charAt(k + 4) == 's' ? k + 5 : k + 4;
+			if (colon + 3 < end && out.charAt(colon) == ':' && out.charAt(colon + 1) == '/' && out.charAt(colon + 2) == '/') {
+				out.setLength(k);
+				out.append(LINK_REMOVED);
+				return;
+			}
+		}
+	}
+
+	// The characters regular expressions treat as \s.
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * Reads the {@code records} object of an entry's {@code data.json}.
+	 */
+	public static List<RecordField> readRecords(JsonReader reader) throws IOException {
+		List<RecordField> records = new ArrayList<>();
+		if (!LenientJson.beginObject(reader)) return records;
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			Object value = switch (reader.peek()) {
+				case BEGIN_ARRAY -> readRecordItems(reader);
+				case BEGIN_OBJECT -> readTopLevelObject(reader);
+				case NULL -> {
+					reader.nextNull();
+					yield null;
+				}
+				default -> LenientJson.nextString(reader);
+			};
+			records.add(new RecordField(key, value));
+		}
+		reader.endObject();
+		return records;
+	}
+
+	/**
+	 * Reads a styles object, as found in an entry's {@code data.json} or the index schema.
+	 */
+	public static Map<String, StyleInfo> readStyles(JsonReader reader) throws IOException {
+		if (!LenientJson.beginObject(reader)) return Map.of();
+		Map<String, StyleInfo> styles = new HashMap<>();
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			if (!LenientJson.beginObject(reader)) continue;
+			StyleInfo style = new StyleInfo();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case "depth" -> style.depth = LenientJson.nextInt(reader);
+					case "headerText" -> style.headerText = LenientJson.nextString(reader);
+					case "isOrdered" -> style.isOrdered = LenientJson.nextBoolean(reader);
+					default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+			styles.put(key, style);
+		}
+		reader.endObject();
+		return styles;
+	}
+
+	/**
+	 * A record that is an object is shown as a nested list when it has items and as its JSON text
+	 * otherwise; only that rare second shape is read as a tree, to reproduce the text.
+	 */
+	private static Object readTopLevelObject(JsonReader reader) {
+		JsonObject object = JsonParser.parseReader(reader).getAsJsonObject();
+		if (!object.has("items")) {
+			return object.toString();
+		}
+		return toRecordNode(object);
+	}
+
+	private static RecordNode toRecordNode(JsonObject object) {
+		String title = object.has("title") && object.get("title").isJsonPrimitive() ? object.get("title").getAsString() : null;
+		boolean isOrdered = object.has("isOrdered") && object.get("isOrdered").isJsonPrimitive() && object.get("isOrdered").getAsBoolean();
+		List<Object> items = null;
+		if (object.has("items")) {
+			items = new ArrayList<>();
+			if (object.get("items").isJsonArray()) {
+				for (JsonElement item : object.getAsJsonArray("items")) {
+					if (item.isJsonPrimitive()) {
+						items.add(item.getAsString());
+					} else if (item.isJsonObject()) {
+						items.add(toRecordNode(item.getAsJsonObject()));
+					}
+				}
+			}
+		}
+		return new RecordNode(title, isOrdered, items);
+	}
+
+	private static List<Object> readRecordItems(JsonReader reader) throws IOException {
+		List<Object> items = new ArrayList<>();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			switch (reader.peek()) {
+				case STRING, NUMBER, BOOLEAN -> items.add(LenientJson.nextString(reader));
+				case BEGIN_OBJECT -> items.add(readRecordNode(reader));
+				default -> reader.skipValue();
+			}
+		}
+		reader.endArray();
+		return items;
+	}
+
+	private static RecordNode readRecordNode(JsonReader reader) throws IOException {
+		String title = null;
+		boolean isOrdered = false;
+		List<Object> items = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "title" -> title = LenientJson.nextString(reader);
+				case "isOrdered" -> isOrdered = Boolean.TRUE.equals(LenientJson.nextBoolean(reader));
+				case "items" -> {
+					if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+						items = readRecordItems(reader);
+					} else {
+						reader.skipValue();
+						items = new ArrayList<>();
+					}
+				}
+				default -> reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return new RecordNode(title, isOrdered, items);
+	}
+
+	/**
+	 * One submission record. The value is a {@code String} for scalars and objects without items,
+	 * a {@code List} of {@code String} and {@link RecordNode} items for arrays, or a {@link RecordNode}.
+	 */
+	public record RecordField(String key, Object value) {
+	}
+
+	/**
+	 * A nested list in a record; {@code items} is {@code null} when the object had none.
+	 */
+	public record RecordNode(String title, boolean isOrdered, List<Object> items) {
+	}
+
+	public static final class StyleInfo {
+		Integer depth;
+		String headerText;
+		Boolean isOrdered;
+	}
+
+	/**
+	 * A record key with its schema style applied and the sections it nests under, outermost first.
+	 */
+	private record Section(String key, String headerText, boolean isOrdered, Section[] parents) {
+		String headerText(Map<String, StyleInfo> overrides) {
+			StyleInfo style = overrides.isEmpty() ? null : overrides.get(key);
+			return style != null && style.headerText != null ? style.headerText : headerText;
+		}
+
+		boolean isOrdered(Map<String, StyleInfo> overrides) {
+			StyleInfo style = overrides.isEmpty() ? null : overrides.get(key);
+			return style != null && style.isOrdered != null ? style.isOrdered : isOrdered;
+		}
+	}
+
+	private static final class SectionLines {
+		final String title;
+		final List<String> lines = new ArrayList<>();
+
+		SectionLines(String title) {
+			this.title = title != null ? title : "";
+		}
+
+		void addLines(CharSequence text, int start, int end) {
+			int lineStart = start;
+			for (int i = start; i <= end; i++) {
+				if (i < end && text.charAt(i) != '\n') continue;
+				int lineEnd = i;
+				while (lineEnd > lineStart && Character.isWhitespace(text.charAt(lineEnd - 1))) lineEnd--;
+				if (lineEnd > lineStart) {
+					lines.add(text.subSequence(lineStart, lineEnd).toString());
+				}
+				lineStart = i + 1;
+			}
+		}
+	}
+}
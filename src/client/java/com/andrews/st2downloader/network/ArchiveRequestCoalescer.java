@@ -0,0 +1,57 @@
+package com.andrews.st2downloader.network;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight table for remote loads: while a load for a key is in flight, later callers for the
+ * same key share its result instead of issuing their own request. Each caller receives its own copy
+ * of the shared future, so cancelling or completing one never affects the others.
+ */
+final class ArchiveRequestCoalescer {
+	private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong issued = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	@SuppressWarnings("unchecked")
+	<T> CompletableFuture<T> load(String key, Supplier<CompletableFuture<T>> loader) {
+		CompletableFuture<T> shared = new CompletableFuture<>();
+		CompletableFuture<?> existing = inFlight.putIfAbsent(key, shared);
+		if (existing != null) {
+			coalesced.incrementAndGet();
+			return ((CompletableFuture<T>) existing).copy();
+		}
+		issued.incrementAndGet();
+		CompletableFuture<T> source;
+		try {
+			source = loader.get();
+		} catch (RuntimeException e) {
+			source = CompletableFuture.failedFuture(e);
+		}
+		source.whenComplete((value, throwable) -> {
+			// Leave the table before completing, so a caller reacting to the result starts a fresh load.
+			inFlight.remove(key, shared);
+			if (throwable != null) {
+				shared.completeExceptionally(throwable);
+			} else {
+				shared.complete(value);
+			}
+		});
+		return shared.copy();
+	}
+
+	long issuedCount() {
+		return issued.get();
+	}
+
+	long coalescedCount() {
+		return coalesced.get();
+	}
+
+	int inFlightCount() {
+		return inFlight.size();
+	}
+}
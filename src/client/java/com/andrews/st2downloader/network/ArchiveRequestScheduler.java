@@ -0,0 +1,237 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decides which waiting request is sent next. Requests wait in one queue per {@link Priority};
+ * whenever a slot frees up the highest class that may start goes first, so a click never waits
+ * behind a scroll's worth of thumbnails or a mirror run.
+ * <p>
+ * Three limits apply together: {@code maxConcurrentRequests} across everything, a fixed limit per
+ * class, and {@code httpMaxConnectionsPerHost}. The last {@link #INTERACTIVE_RESERVE} global slots
+ * and the last slot per host are only ever given to interactive requests, so one can start even
+ * while the lower classes are saturated. A queued request can be promoted when a more urgent
+ * caller starts waiting on the same URL.
+ * <p>
+ * While a host is rate limiting us, prefetch and background requests to it stay queued, then run
+ * one at a time for {@link #COOLDOWN_MILLIS}; what the user is looking at keeps its full share.
+ */
+final class ArchiveRequestScheduler {
+	private static final int INTERACTIVE_RESERVE = 2;
+	// After a throttle lifts, yielding classes run one request at a time for this long.
+	private static final long COOLDOWN_MILLIS = 30_000;
+
+	enum Priority {
+		/** The detail panel and anything else the user is actively waiting on. */
+		INTERACTIVE(Integer.MAX_VALUE, 30, true),
+		/** Thumbnails of grid cards on screen. */
+		VISIBLE(8, 45, true),
+		/** Details of posts the user may click next. */
+		PREFETCH(3, 60, false),
+		/** Channel mirroring and other long-running crawls. Streams to files, so never hedged. */
+		BACKGROUND(4, 600, false);
+
+		final int limit;
+		final int deadlineSeconds;
+		final boolean hedged;
+
+		Priority(int limit, int deadlineSeconds, boolean hedged) {
+			this.limit = limit;
+			this.deadlineSeconds = deadlineSeconds;
+			this.hedged = hedged;
+		}
+
+		/** Whether this class waits out a host's rate limiting instead of adding to it. */
+		boolean yieldsToBackpressure() {
+			return this == PREFETCH || this == BACKGROUND;
+		}
+	}
+
+	private static final class Task {
+		final String host;
+		final String key;
+		final Consumer<Runnable> start;
+		Priority priority;
+		boolean started;
+
+		Task(String host, String key, Priority priority, Consumer<Runnable> start) {
+			this.host = host;
+			this.key = key;
+			this.priority = priority;
+			this.start = start;
+		}
+	}
+
+	private final Map<Priority, ArrayDeque<Task>> queues = new EnumMap<>(Priority.class);
+	private final Map<Priority, Integer> classInFlight = new EnumMap<>(Priority.class);
+	private final Map<String, Integer> hostInFlight = new HashMap<>();
+	private final Map<String, Task> queuedByKey = new HashMap<>();
+	private final Map<String, Long> throttledUntil = new HashMap<>();
+	private final AtomicLong queued = new AtomicLong();
+	private final AtomicLong promoted = new AtomicLong();
+	private int inFlight;
+
+	ArchiveRequestScheduler() {
+		for (Priority priority : Priority.values()) {
+			queues.put(priority, new ArrayDeque<>());
+			classInFlight.put(priority, 0);
+		}
+	}
+
+	/**
+	 * Runs {@code start} now if every limit allows it, otherwise once they do. It is handed the
+	 * callback that gives the slot back, which must run once the request is done.
+	 */
+	void submit(String host, String key, Priority priority, Consumer<Runnable> start) {
+		Task task = new Task(host, key, priority, start);
+		synchronized (this) {
+			queues.get(priority).add(task);
+			queuedByKey.putIfAbsent(key, task);
+		}
+		dispatch();
+		synchronized (this) {
+			if (!task.started) {
+				queued.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Moves a queued request for {@code key} up to {@code priority}, if it is waiting in a lower class.
+	 */
+	void promote(String key, Priority priority) {
+		boolean moved = false;
+		synchronized (this) {
+			Task task = queuedByKey.get(key);
+			if (task != null && task.priority.ordinal() > priority.ordinal()) {
+				queues.get(task.priority).remove(task);
+				task.priority = priority;
+				queues.get(priority).add(task);
+				promoted.incrementAndGet();
+				moved = true;
+			}
+		}
+		if (moved) {
+			dispatch();
+		}
+	}
+
+	private void release(Task task) {
+		synchronized (this) {
+			inFlight--;
+			classInFlight.merge(task.priority, -1, Integer::sum);
+			hostInFlight.merge(task.host, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+		}
+		dispatch();
+	}
+
+	/**
+	 * Marks {@code host} as rate limiting us for {@code delayMillis}: prefetch and background requests
+	 * to it wait until then, and trickle for a while after.
+	 */
+	void throttle(String host, long delayMillis) {
+		long until = System.currentTimeMillis() + delayMillis;
+		synchronized (this) {
+			throttledUntil.merge(host, until, Math::max);
+		}
+		CompletableFuture.delayedExecutor(delayMillis + 1, TimeUnit.MILLISECONDS).execute(this::dispatch);
+		CompletableFuture.delayedExecutor(delayMillis + COOLDOWN_MILLIS + 1, TimeUnit.MILLISECONDS).execute(this::dispatch);
+	}
+
+	synchronized boolean isThrottled(String host) {
+		return System.currentTimeMillis() < throttledUntil.getOrDefault(host, 0L);
+	}
+
+	/**
+	 * Whether any host is throttled or cooling down from it.
+	 */
+	synchronized boolean isThrottled() {
+		long now = System.currentTimeMillis();
+		throttledUntil.values().removeIf(until -> now >= until + COOLDOWN_MILLIS);
+		return !throttledUntil.isEmpty();
+	}
+
+	long queuedCount() {
+		return queued.get();
+	}
+
+	long promotedCount() {
+		return promoted.get();
+	}
+
+	private void dispatch() {
+		List<Task> ready = new ArrayList<>();
+		synchronized (this) {
+			for (Priority priority : Priority.values()) {
+				Iterator<Task> iterator = queues.get(priority).iterator();
+				while (iterator.hasNext()) {
+					Task task = iterator.next();
+					if (!canStart(task)) {
+						// A request held back only by its host does not block the rest of its class.
+						if (classFull(priority) || globalFull(priority)) break;
+						continue;
+					}
+					iterator.remove();
+					queuedByKey.remove(task.key, task);
+					begin(task);
+					ready.add(task);
+				}
+			}
+		}
+		for (Task task : ready) {
+			task.start.accept(() -> release(task));
+		}
+	}
+
+	private boolean canStart(Task task) {
+		int hostLimit = DownloadSettings.getInstance().getHttpMaxConnectionsPerHost();
+		if (task.priority != Priority.INTERACTIVE && hostLimit > 1) {
+			hostLimit--;
+		}
+		return !globalFull(task.priority) && !classFull(task.priority) && hostInFlight.getOrDefault(task.host, 0) < hostLimit
+			&& !heldBack(task);
+	}
+
+	private boolean heldBack(Task task) {
+		if (!task.priority.yieldsToBackpressure()) {
+			return false;
+		}
+		Long until = throttledUntil.get(task.host);
+		if (until == null) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		if (now < until) {
+			return true;
+		}
+		return now < until + COOLDOWN_MILLIS && classInFlight.get(task.priority) >= 1;
+	}
+
+	private boolean globalFull(Priority priority) {
+		int limit = DownloadSettings.getInstance().getMaxConcurrentRequests();
+		return inFlight >= (priority == Priority.INTERACTIVE ? limit : limit - INTERACTIVE_RESERVE);
+	}
+
+	private boolean classFull(Priority priority) {
+		return classInFlight.get(priority) >= priority.limit;
+	}
+
+	private void begin(Task task) {
+		task.started = true;
+		inFlight++;
+		classInFlight.merge(task.priority, 1, Integer::sum);
+		hostInFlight.merge(task.host, 1, Integer::sum);
+	}
+}
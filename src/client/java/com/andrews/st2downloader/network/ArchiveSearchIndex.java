@@ -0,0 +1,1045 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchiveChannel;
+import com.andrews.st2downloader.models.ArchiveDateFilter;
+import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.models.ArchiveSearchResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Columnar view of a server's posts used to answer searches without scanning every summary.
+ * <p>
+ * Posts are stored by ordinal, ordered by most recent update first, so the default sort is a plain
+ * bit walk and an updated-at window is a contiguous ordinal run. Tags and channels are kept as
+ * posting bitsets; archived-at windows are resolved with a binary search over a sorted copy.
+ * Name and code sorts are permutations precomputed from {@link NaturalSortKey} byte keys.
+ * Authors keep the dictionary ids from {@code persistent.idx} with a sorted posting list each, so
+ * an author filter only ever touches that author's posts. Every summary carries its ordinal, so
+ * callers can keep per-post state in plain arrays instead of maps keyed by post id.
+ */
+final class ArchiveSearchIndex {
+	private final ArchivePostSummary[] posts;
+	private final Map<String, Integer> ordinalsByKey;
+	private final long fingerprint;
+	private final long[] updatedDesc;
+	private final long[] archivedAsc;
+	private final int[] archivedOrder;
+	private final int[] nameOrder;
+	private final int[] nameRank;
+	private final int[] codeOrder;
+	private final int[] codeRank;
+
+	private final String[] titleLower;
+	private final String[] codeLower;
+
+	private final String[] channelPaths;
+	private final Map<String, Integer> channelIds;
+	private final BitSet[] channelPostings;
+	private final int[] channelOf;
+
+	private final String[] tagKeys;
+	private final String[] tagNames;
+	private final Map<String, Integer> tagIds;
+	private final BitSet[] tagPostings;
+	private final int[][] postTags;
+
+	private final String[] authorNames;
+	private final String[] authorKeys;
+	private final Map<String, Integer> authorIds;
+	private final int[][] authorPostings;
+	private final int[][] postAuthors;
+
+	private final long estimatedBytes;
+
+	private ArchiveSearchIndex(
+		ArchivePostSummary[] posts,
+		String[] channelPaths,
+		int[] channelOf,
+		String[] tagNames,
+		int[][] postTags,
+		String[] authorNames,
+		int[][] postAuthors,
+		int[] archivedOrder,
+		int[] nameOrder,
+		int[] codeOrder
+	) {
+		int count = posts.length;
+		this.posts = posts;
+		this.channelPaths = channelPaths;
+		this.channelOf = channelOf;
+		this.tagNames = tagNames;
+		this.postTags = postTags;
+		this.authorNames = authorNames;
+		this.postAuthors = postAuthors;
+		this.archivedOrder = archivedOrder;
+		this.nameOrder = nameOrder;
+		this.codeOrder = codeOrder;
+
+		// Everything below is a single linear pass over the columns above, whether they were just
+		// built or read back from a snapshot.
+		this.ordinalsByKey = new HashMap<>(count * 2);
+		this.updatedDesc = new long[count];
+		this.titleLower = new String[count];
+		this.codeLower = new String[count];
+		long hash = 0x9E3779B97F4A7C15L ^ count;
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			ArchivePostSummary post = posts[ordinal];
+			String key = postKey(post);
+			ordinalsByKey.putIfAbsent(key, ordinal);
+			updatedDesc[ordinal] = getUpdatedTimestamp(post);
+			titleLower[ordinal] = post.title() != null ? post.title().toLowerCase(Locale.ROOT) : "";
+			codeLower[ordinal] = post.code() != null ? post.code().toLowerCase(Locale.ROOT) : "";
+			hash = hash * 31 + key.hashCode();
+			hash = hash * 31 + updatedDesc[ordinal];
+		}
+		this.fingerprint = hash;
+
+		this.channelIds = new HashMap<>();
+		for (int i = 0; i < channelPaths.length; i++) {
+			channelIds.put(channelPaths[i].toLowerCase(Locale.ROOT), i);
+		}
+		this.tagKeys = new String[tagNames.length];
+		this.tagIds = new HashMap<>();
+		for (int i = 0; i < tagNames.length; i++) {
+			tagKeys[i] = tagNames[i].toLowerCase(Locale.ROOT);
+			tagIds.put(tagKeys[i], i);
+		}
+		this.authorKeys = new String[authorNames.length];
+		this.authorIds = new HashMap<>();
+		for (int i = 0; i < authorNames.length; i++) {
+			authorKeys[i] = authorNames[i].toLowerCase(Locale.ROOT);
+			authorIds.put(authorKeys[i], i);
+		}
+
+		this.channelPostings = new BitSet[channelPaths.length];
+		for (int i = 0; i < channelPostings.length; i++) {
+			channelPostings[i] = new BitSet(count);
+		}
+		this.tagPostings = new BitSet[tagKeys.length];
+		for (int i = 0; i < tagPostings.length; i++) {
+			tagPostings[i] = new BitSet(count);
+		}
+		int[] authorPostingSizes = new int[authorNames.length];
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			if (channelOf[ordinal] >= 0) {
+				channelPostings[channelOf[ordinal]].set(ordinal);
+			}
+			for (int tagId : postTags[ordinal]) {
+				tagPostings[tagId].set(ordinal);
+			}
+			for (int authorId : postAuthors[ordinal]) {
+				authorPostingSizes[authorId]++;
+			}
+		}
+		this.authorPostings = new int[authorNames.length][];
+		for (int i = 0; i < authorPostings.length; i++) {
+			authorPostings[i] = new int[authorPostingSizes[i]];
+		}
+		int[] authorFill = new int[authorNames.length];
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			for (int authorId : postAuthors[ordinal]) {
+				authorPostings[authorId][authorFill[authorId]++] = ordinal;
+			}
+		}
+
+		this.archivedAsc = new long[count];
+		for (int i = 0; i < count; i++) {
+			archivedAsc[i] = posts[archivedOrder[i]].archivedAt();
+		}
+		this.nameRank = invert(nameOrder);
+		this.codeRank = invert(codeOrder);
+		this.estimatedBytes = estimateBytes();
+	}
+
+	/**
+	 * @param authorIds per-post author ids into {@code authors}, parallel to {@code posts}
+	 */
+	static ArchiveSearchIndex build(
+		List<ArchivePostSummary> posts,
+		List<List<Integer>> authorIds,
+		List<String> authors,
+		List<ArchiveChannel> channels
+	) {
+		return build(posts, authorIds, authors, channels, null, null);
+	}
+
+	/**
+	 * Builds the index, reusing orderings precomputed by the archive when they are supplied.
+	 * {@code newestOrder} and {@code archivedOrder} are positions into {@code posts}; each is only
+	 * trusted after a linear check that it is a complete permutation in the right order, and is
+	 * sorted locally otherwise.
+	 */
+	static ArchiveSearchIndex build(
+		List<ArchivePostSummary> posts,
+		List<List<Integer>> authorIds,
+		List<String> authors,
+		List<ArchiveChannel> channels,
+		int[] newestOrder,
+		int[] archivedOrder
+	) {
+		List<ArchivePostSummary> source = posts != null ? posts : List.of();
+		List<List<Integer>> sourceAuthorIds = authorIds != null ? authorIds : List.of();
+		List<String> authorDictionary = authors != null ? authors : List.of();
+
+		List<Integer> positions = presortedPositions(source, newestOrder);
+		if (positions == null) {
+			positions = new ArrayList<>(source.size());
+			for (int i = 0; i < source.size(); i++) {
+				if (source.get(i) != null) {
+					positions.add(i);
+				}
+			}
+			positions.sort(Comparator.comparingLong((Integer i) -> getUpdatedTimestamp(source.get(i))).reversed());
+		}
+
+		int count = positions.size();
+		ArchivePostSummary[] ordered = new ArchivePostSummary[count];
+		int[] channelOf = new int[count];
+		int[][] postTags = new int[count][];
+		int[][] postAuthors = new int[count][];
+
+		List<String> paths = new ArrayList<>();
+		Map<String, Integer> channelIds = new HashMap<>();
+		if (channels != null) {
+			for (ArchiveChannel channel : channels) {
+				if (channel != null && channel.path() != null) {
+					registerChannel(paths, channelIds, channel.path());
+				}
+			}
+		}
+
+		// Fold case-only duplicates in the author table into one id so a filter hits every spelling.
+		List<String> names = new ArrayList<>();
+		Map<String, Integer> authorKeyIds = new HashMap<>();
+		int[] authorRemap = new int[authorDictionary.size()];
+		for (int i = 0; i < authorRemap.length; i++) {
+			String name = authorDictionary.get(i);
+			if (name == null || name.isBlank()) {
+				authorRemap[i] = -1;
+				continue;
+			}
+			String key = name.toLowerCase(Locale.ROOT);
+			Integer id = authorKeyIds.get(key);
+			if (id == null) {
+				id = names.size();
+				names.add(name);
+				authorKeyIds.put(key, id);
+			}
+			authorRemap[i] = id;
+		}
+
+		List<String> tagDisplayNames = new ArrayList<>();
+		Map<String, Integer> tagIds = new HashMap<>();
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			int position = positions.get(ordinal);
+			ArchivePostSummary post = source.get(position).withOrdinal(ordinal);
+			ordered[ordinal] = post;
+			channelOf[ordinal] = post.channelPath() != null ? registerChannel(paths, channelIds, post.channelPath()) : -1;
+
+			int[] ids = new int[post.tags().length];
+			int size = 0;
+			for (String tag : post.tags()) {
+				if (tag == null) continue;
+				String key = tag.toLowerCase(Locale.ROOT);
+				Integer id = tagIds.get(key);
+				if (id == null) {
+					id = tagDisplayNames.size();
+					tagDisplayNames.add(tag);
+					tagIds.put(key, id);
+				}
+				ids[size++] = id;
+			}
+			postTags[ordinal] = size == ids.length ? ids : Arrays.copyOf(ids, size);
+
+			List<Integer> rawAuthors = position < sourceAuthorIds.size() ? sourceAuthorIds.get(position) : null;
+			postAuthors[ordinal] = remapAuthors(rawAuthors, authorRemap);
+		}
+
+		int[] archivedOrdinals = presortedArchived(ordered, positions, source.size(), archivedOrder);
+		if (archivedOrdinals == null) {
+			archivedOrdinals = sortedOrdinals(count, Comparator.comparingLong(ordinal -> ordered[ordinal].archivedAt()));
+		}
+		NaturalSortKey sortKey = new NaturalSortKey(Locale.getDefault());
+		byte[][] nameKeys = new byte[count][];
+		byte[][] codeKeys = new byte[count][];
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			nameKeys[ordinal] = sortKey.of(ordered[ordinal].title());
+			codeKeys[ordinal] = sortKey.of(ordered[ordinal].code());
+		}
+		int[] nameOrder = sortedOrdinals(count, (a, b) -> Arrays.compareUnsigned(nameKeys[a], nameKeys[b]));
+		int[] codeOrder = sortedOrdinals(count, (a, b) -> Arrays.compareUnsigned(codeKeys[a], codeKeys[b]));
+
+		return new ArchiveSearchIndex(
+			ordered,
+			paths.toArray(new String[0]),
+			channelOf,
+			tagDisplayNames.toArray(new String[0]),
+			postTags,
+			names.toArray(new String[0]),
+			postAuthors,
+			archivedOrdinals,
+			nameOrder,
+			codeOrder
+		);
+	}
+
+	/**
+	 * Writes the columns that need sorting or dictionary building; the rest is rederived on read.
+	 */
+	void writeTo(ArchiveIndexSnapshot.Writer writer) throws IOException {
+		writer.writeInt(posts.length);
+		for (ArchivePostSummary post : posts) {
+			writer.writeString(post.id());
+			writer.writeString(post.title());
+			writer.writeString(post.channelName());
+			writer.writeString(post.channelCode());
+			writer.writeString(post.channelCategory());
+			writer.writeString(post.channelPath());
+			writer.writeString(post.entryPath());
+			writer.writeString(post.code());
+			writer.writeStrings(post.tags());
+			writer.writeStrings(post.authors());
+			writer.writeLong(post.archivedAt());
+			writer.writeLong(post.updatedAt());
+			writer.writeString(post.mainImagePath());
+		}
+		writer.writeStrings(channelPaths);
+		writer.writeInts(channelOf);
+		writer.writeStrings(tagNames);
+		writer.writeIntArrays(postTags);
+		writer.writeStrings(authorNames);
+		writer.writeIntArrays(postAuthors);
+		writer.writeInts(archivedOrder);
+		writer.writeInts(nameOrder);
+		writer.writeInts(codeOrder);
+	}
+
+	static ArchiveSearchIndex read(ArchiveIndexSnapshot.Reader reader) {
+		ArchivePostSummary[] posts = new ArchivePostSummary[reader.readLength(1)];
+		for (int i = 0; i < posts.length; i++) {
+			posts[i] = new ArchivePostSummary(
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readString(),
+				reader.readStrings(),
+				reader.readStrings(),
+				reader.readLong(),
+				reader.readLong(),
+				reader.readString(),
+				i
+			);
+		}
+		String[] channelPaths = reader.readStrings();
+		int[] channelOf = reader.readInts();
+		String[] tagNames = reader.readStrings();
+		int[][] postTags = reader.readIntArrays();
+		String[] authorNames = reader.readStrings();
+		int[][] postAuthors = reader.readIntArrays();
+		int[] archivedOrder = reader.readInts();
+		int[] nameOrder = reader.readInts();
+		int[] codeOrder = reader.readInts();
+		int count = posts.length;
+		if (channelOf.length != count || postTags.length != count || postAuthors.length != count
+			|| archivedOrder.length != count || nameOrder.length != count || codeOrder.length != count) {
+			throw new IllegalStateException("Snapshot columns do not match post count " + count);
+		}
+		return new ArchiveSearchIndex(posts, channelPaths, channelOf, tagNames, postTags, authorNames, postAuthors,
+			archivedOrder, nameOrder, codeOrder);
+	}
+
+	int size() {
+		return posts.length;
+	}
+
+	/**
+	 * Approximate heap footprint of this index, including the post summaries it holds.
+	 */
+	long estimatedBytes() {
+		return estimatedBytes;
+	}
+
+	/**
+	 * Identifies the exact post set and ordinal layout, so derived data cached on disk can be
+	 * checked against the index it was computed from.
+	 */
+	long fingerprint() {
+		return fingerprint;
+	}
+
+	ArchivePostSummary post(int ordinal) {
+		return posts[ordinal];
+	}
+
+	int ordinalOf(ArchivePostSummary post) {
+		if (post == null) return -1;
+		int assigned = post.ordinal();
+		if (assigned >= 0 && assigned < posts.length && posts[assigned] == post) {
+			return assigned;
+		}
+		Integer ordinal = ordinalsByKey.get(postKey(post));
+		return ordinal != null ? ordinal : -1;
+	}
+
+	int channelOf(int ordinal) {
+		return channelOf[ordinal];
+	}
+
+	int[] tagsOf(int ordinal) {
+		return postTags[ordinal];
+	}
+
+	int[] authorsOf(int ordinal) {
+		return postAuthors[ordinal];
+	}
+
+	int tagCount() {
+		return tagNames.length;
+	}
+
+	String tagName(int tagId) {
+		return tagNames[tagId];
+	}
+
+	int tagPostCount(int tagId) {
+		return tagPostings[tagId].cardinality();
+	}
+
+	int authorCount() {
+		return authorNames.length;
+	}
+
+	String authorName(int authorId) {
+		return authorNames[authorId];
+	}
+
+	int authorPostCount(int authorId) {
+		return authorPostings[authorId].length;
+	}
+
+	int channelPostCount(String path) {
+		Integer channel = path != null ? channelIds.get(path.toLowerCase(Locale.ROOT)) : null;
+		return channel != null ? channelPostings[channel].cardinality() : 0;
+	}
+
+	List<ArchivePostSummary> channelPosts(String path) {
+		Integer channel = path != null ? channelIds.get(path.toLowerCase(Locale.ROOT)) : null;
+		if (channel == null) {
+			return List.of();
+		}
+		BitSet postings = channelPostings[channel];
+		List<ArchivePostSummary> result = new ArrayList<>(postings.cardinality());
+		for (int ordinal = postings.nextSetBit(0); ordinal >= 0; ordinal = postings.nextSetBit(ordinal + 1)) {
+			result.add(posts[ordinal]);
+		}
+		return result;
+	}
+
+	ArchiveSearchResult search(
+		String query,
+		String sort,
+		String tagFilter,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelFilter,
+		List<String> authorFilter,
+		ArchiveDateFilter dateFilter,
+		List<ArchiveChannel> channels,
+		int page,
+		int itemsPerPage
+	) {
+		return search(query, sort, tagFilter, includeTags, excludeTags, channelFilter, authorFilter, dateFilter, null,
+			channels, page, itemsPerPage);
+	}
+
+	/**
+	 * Searches as above, keeping only ordinals set in {@code restrictTo} when it is not {@code null}.
+	 */
+	ArchiveSearchResult search(
+		String query,
+		String sort,
+		String tagFilter,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelFilter,
+		List<String> authorFilter,
+		ArchiveDateFilter dateFilter,
+		BitSet restrictTo,
+		List<ArchiveChannel> channels,
+		int page,
+		int itemsPerPage
+	) {
+		Filter filter = prepare(query, tagFilter, includeTags, excludeTags, channelFilter, authorFilter, dateFilter);
+		filter.restrict = restrictTo;
+		int[] ordered;
+		if (filter.impossible) {
+			ordered = new int[0];
+		} else if (filter.authors != null) {
+			ordered = orderCandidates(scanAuthors(filter), sort);
+		} else {
+			ordered = orderMatches(filterBits(filter), sort);
+		}
+
+		Map<String, Integer> channelCounts = new LinkedHashMap<>();
+		for (ArchiveChannel channel : channels) {
+			if (channel != null && channel.path() != null) {
+				channelCounts.put(channel.path(), 0);
+			}
+		}
+		Map<String, Integer> tagCounts = new LinkedHashMap<>();
+		Map<String, Integer> authorCounts = new LinkedHashMap<>();
+		for (int ordinal : ordered) {
+			for (int authorId : postAuthors[ordinal]) {
+				authorCounts.merge(authorNames[authorId], 1, Integer::sum);
+			}
+			int channel = channelOf[ordinal];
+			if (channel < 0) continue;
+			channelCounts.merge(channelPaths[channel], 1, Integer::sum);
+			for (int tagId : postTags[ordinal]) {
+				tagCounts.merge(tagKeys[tagId], 1, Integer::sum);
+			}
+		}
+
+		int perPage = Math.max(itemsPerPage, 1);
+		int totalItems = ordered.length;
+		int totalPages = Math.max(1, (int) Math.ceil(totalItems / (double) perPage));
+		int startIndex = Math.min(totalItems, Math.max(0, (page - 1) * perPage));
+		int endIndex = Math.min(totalItems, startIndex + perPage);
+
+		List<ArchivePostSummary> pageItems = new ArrayList<>(endIndex - startIndex);
+		for (int i = startIndex; i < endIndex; i++) {
+			pageItems.add(posts[ordered[i]]);
+		}
+
+		return new ArchiveSearchResult(pageItems, totalPages, totalItems, channelCounts, tagCounts, authorCounts);
+	}
+
+	private Filter prepare(
+		String query,
+		String tagFilter,
+		List<String> includeTags,
+		List<String> excludeTags,
+		List<String> channelFilter,
+		List<String> authorFilter,
+		ArchiveDateFilter dateFilter
+	) {
+		Filter filter = new Filter();
+
+		if (channelFilter != null && !channelFilter.isEmpty()) {
+			filter.channels = new boolean[channelPaths.length];
+			for (String path : channelFilter) {
+				Integer channel = channelIds.get(path != null ? path.toLowerCase(Locale.ROOT) : "");
+				if (channel != null) {
+					filter.channels[channel] = true;
+				}
+			}
+		}
+
+		if (authorFilter != null && !authorFilter.isEmpty()) {
+			List<Integer> known = new ArrayList<>();
+			for (String author : authorFilter) {
+				Integer id = author != null ? authorIds.get(author.toLowerCase(Locale.ROOT)) : null;
+				if (id != null) {
+					known.add(id);
+				}
+			}
+			filter.authors = known.stream().mapToInt(Integer::intValue).toArray();
+			filter.impossible |= filter.authors.length == 0;
+		}
+
+		// Unknown timestamps are stored as 0 and never fall inside an active window.
+		if (dateFilter != null && dateFilter.isUpdatedActive()) {
+			filter.updatedActive = true;
+			filter.updatedAfter = Math.max(dateFilter.updatedAfter(), 1L);
+			filter.updatedBefore = dateFilter.updatedBefore();
+			filter.impossible |= filter.updatedAfter >= filter.updatedBefore;
+		}
+		if (dateFilter != null && dateFilter.isArchivedActive()) {
+			filter.archivedActive = true;
+			filter.archivedAfter = Math.max(dateFilter.archivedAfter(), 1L);
+			filter.archivedBefore = dateFilter.archivedBefore();
+			filter.impossible |= filter.archivedAfter >= filter.archivedBefore;
+		}
+
+		String normalizedTag = tagFilter != null ? tagFilter.toLowerCase(Locale.ROOT).trim() : "";
+		if (!normalizedTag.isEmpty()) {
+			filter.tagMatches = new boolean[tagKeys.length];
+			for (int i = 0; i < tagKeys.length; i++) {
+				filter.tagMatches[i] = tagKeys[i].contains(normalizedTag);
+			}
+		}
+
+		filter.include = resolveTags(includeTags);
+		if (filter.include.length < countNonEmpty(includeTags)) {
+			filter.impossible = true;
+		}
+		filter.exclude = resolveTags(excludeTags);
+
+		String normalizedQuery = query != null ? query.toLowerCase(Locale.ROOT).trim() : "";
+		if (!normalizedQuery.isEmpty()) {
+			filter.query = normalizedQuery;
+			filter.queryAuthors = new boolean[authorKeys.length];
+			for (int i = 0; i < authorKeys.length; i++) {
+				filter.queryAuthors[i] = authorKeys[i].contains(normalizedQuery);
+			}
+		}
+
+		return filter;
+	}
+
+	private BitSet filterBits(Filter filter) {
+		BitSet result = new BitSet(posts.length);
+
+		if (filter.channels != null) {
+			for (int i = 0; i < filter.channels.length; i++) {
+				if (filter.channels[i]) {
+					result.or(channelPostings[i]);
+				}
+			}
+		} else {
+			result.set(0, posts.length);
+		}
+
+		if (filter.restrict != null) {
+			result.and(filter.restrict);
+		}
+
+		if ((filter.updatedActive || filter.archivedActive) && !result.isEmpty()) {
+			result.and(dateRange(filter));
+		}
+
+		if (filter.tagMatches != null && !result.isEmpty()) {
+			BitSet tagged = new BitSet(posts.length);
+			for (int i = 0; i < filter.tagMatches.length; i++) {
+				if (filter.tagMatches[i]) {
+					tagged.or(tagPostings[i]);
+				}
+			}
+			result.and(tagged);
+		}
+
+		for (int tagId : filter.include) {
+			result.and(tagPostings[tagId]);
+		}
+		for (int tagId : filter.exclude) {
+			result.andNot(tagPostings[tagId]);
+		}
+
+		if (filter.query != null) {
+			for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+				if (!matchesQuery(ordinal, filter)) {
+					result.clear(ordinal);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Walks only the posting lists of the requested authors, so the cost is bounded by their post
+	 * count rather than the size of the archive. Returns surviving ordinals in ascending order.
+	 */
+	private int[] scanAuthors(Filter filter) {
+		int[] candidates;
+		if (filter.authors.length == 1) {
+			candidates = authorPostings[filter.authors[0]];
+		} else {
+			int total = 0;
+			for (int authorId : filter.authors) {
+				total += authorPostings[authorId].length;
+			}
+			int[] merged = new int[total];
+			int offset = 0;
+			for (int authorId : filter.authors) {
+				int[] posting = authorPostings[authorId];
+				System.arraycopy(posting, 0, merged, offset, posting.length);
+				offset += posting.length;
+			}
+			Arrays.sort(merged);
+			candidates = merged;
+		}
+
+		int[] survivors = new int[candidates.length];
+		int size = 0;
+		int previous = -1;
+		for (int ordinal : candidates) {
+			if (ordinal == previous) continue;
+			previous = ordinal;
+			if (accepts(ordinal, filter)) {
+				survivors[size++] = ordinal;
+			}
+		}
+		return Arrays.copyOf(survivors, size);
+	}
+
+	private boolean accepts(int ordinal, Filter filter) {
+		if (filter.restrict != null && !filter.restrict.get(ordinal)) return false;
+		if (filter.channels != null) {
+			int channel = channelOf[ordinal];
+			if (channel < 0 || !filter.channels[channel]) return false;
+		}
+		if (filter.updatedActive) {
+			long updatedAt = updatedDesc[ordinal];
+			if (updatedAt < filter.updatedAfter || updatedAt >= filter.updatedBefore) return false;
+		}
+		if (filter.archivedActive) {
+			long archivedAt = posts[ordinal].archivedAt();
+			if (archivedAt < filter.archivedAfter || archivedAt >= filter.archivedBefore) return false;
+		}
+		if (filter.tagMatches != null) {
+			boolean matched = false;
+			for (int tagId : postTags[ordinal]) {
+				if (filter.tagMatches[tagId]) {
+					matched = true;
+					break;
+				}
+			}
+			if (!matched) return false;
+		}
+		for (int tagId : filter.include) {
+			if (!tagPostings[tagId].get(ordinal)) return false;
+		}
+		for (int tagId : filter.exclude) {
+			if (tagPostings[tagId].get(ordinal)) return false;
+		}
+		return filter.query == null || matchesQuery(ordinal, filter);
+	}
+
+	/**
+	 * Posts inside every active window: the updated window is one run of ordinals, the archived
+	 * window one run of {@code archivedOrder}, and the two are intersected.
+	 */
+	private BitSet dateRange(Filter filter) {
+		BitSet range = new BitSet(posts.length);
+		if (filter.updatedActive) {
+			// Ordinals are already in descending update order, so the window is a single run.
+			range.set(firstBelow(updatedDesc, filter.updatedBefore), firstBelow(updatedDesc, filter.updatedAfter));
+		}
+		if (filter.archivedActive) {
+			BitSet archived = new BitSet(posts.length);
+			int from = lowerBound(archivedAsc, filter.archivedAfter);
+			int to = lowerBound(archivedAsc, filter.archivedBefore);
+			for (int i = from; i < to; i++) {
+				archived.set(archivedOrder[i]);
+			}
+			if (filter.updatedActive) {
+				range.and(archived);
+			} else {
+				range = archived;
+			}
+		}
+		return range;
+	}
+
+	private int[] orderMatches(BitSet matches, String sort) {
+		int[] ordered = new int[matches.cardinality()];
+		int size = 0;
+		for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+			ordered[size++] = ordinal;
+		}
+		int[] permutation = permutationFor(sort);
+		if (permutation == null) {
+			return ordered;
+		}
+		if (ordered.length < permutation.length / 8) {
+			return sortByRank(ordered, rankFor(sort));
+		}
+		size = 0;
+		for (int i = 0; i < permutation.length && size < ordered.length; i++) {
+			if (matches.get(permutation[i])) {
+				ordered[size++] = permutation[i];
+			}
+		}
+		return ordered;
+	}
+
+	private int[] orderCandidates(int[] ascending, String sort) {
+		int[] rank = rankFor(sort);
+		return rank != null ? sortByRank(ascending, rank) : ascending;
+	}
+
+	private int[] permutationFor(String sort) {
+		return switch (sort != null ? sort : "") {
+			case "name" -> nameOrder;
+			case "code" -> codeOrder;
+			default -> null;
+		};
+	}
+
+	private int[] rankFor(String sort) {
+		return switch (sort != null ? sort : "") {
+			case "name" -> nameRank;
+			case "code" -> codeRank;
+			default -> null;
+		};
+	}
+
+	private boolean matchesQuery(int ordinal, Filter filter) {
+		if (titleLower[ordinal].contains(filter.query) || codeLower[ordinal].contains(filter.query)) {
+			return true;
+		}
+		for (int authorId : postAuthors[ordinal]) {
+			if (filter.queryAuthors[authorId]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int[] resolveTags(List<String> tags) {
+		if (tags == null || tags.isEmpty()) {
+			return new int[0];
+		}
+		int[] ids = new int[tags.size()];
+		int size = 0;
+		for (String tag : tags) {
+			if (tag == null || tag.isEmpty()) continue;
+			Integer id = tagIds.get(tag.toLowerCase(Locale.ROOT));
+			if (id != null) {
+				ids[size++] = id;
+			}
+		}
+		return Arrays.copyOf(ids, size);
+	}
+
+	private static int countNonEmpty(List<String> values) {
+		if (values == null) return 0;
+		int count = 0;
+		for (String value : values) {
+			if (value != null && !value.isEmpty()) count++;
+		}
+		return count;
+	}
+
+	private long estimateBytes() {
+		long bytes = 0;
+		for (int ordinal = 0; ordinal < posts.length; ordinal++) {
+			ArchivePostSummary post = posts[ordinal];
+			bytes += 72 + stringBytes(post.id()) + stringBytes(post.title()) + stringBytes(post.entryPath()) + stringBytes(post.code());
+			bytes += arrayBytes(post.tags().length, 4) + arrayBytes(post.authors().length, 4);
+			bytes += stringBytes(titleLower[ordinal]) + stringBytes(codeLower[ordinal]);
+			bytes += arrayBytes(postTags[ordinal].length, 4) + arrayBytes(postAuthors[ordinal].length, 4);
+			bytes += 48; // ordinalsByKey entry
+		}
+		// posts, titleLower, codeLower, postTags, postAuthors, channelOf and the five permutations/ranks
+		bytes += 11 * arrayBytes(posts.length, 4);
+		bytes += 2 * arrayBytes(posts.length, 8);
+		bytes += (long) (tagPostings.length + channelPostings.length) * arrayBytes((posts.length + 63) / 64, 8);
+		for (int[] posting : authorPostings) {
+			bytes += arrayBytes(posting.length, 4);
+		}
+		for (String[] dictionary : new String[][] { tagNames, tagKeys, authorNames, authorKeys, channelPaths }) {
+			bytes += arrayBytes(dictionary.length, 4);
+			for (String value : dictionary) {
+				bytes += stringBytes(value) + 48;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Rough size of a compact (Latin-1) string: object header, fields and backing array.
+	 */
+	static long stringBytes(String value) {
+		return value == null ? 0 : 40 + value.length();
+	}
+
+	static long arrayBytes(int length, int elementSize) {
+		return 16 + (long) length * elementSize;
+	}
+
+	private static int registerChannel(List<String> paths, Map<String, Integer> channelIds, String path) {
+		String key = path.toLowerCase(Locale.ROOT);
+		Integer id = channelIds.get(key);
+		if (id == null) {
+			id = paths.size();
+			paths.add(path);
+			channelIds.put(key, id);
+		}
+		return id;
+	}
+
+	private static int[] remapAuthors(List<Integer> rawAuthors, int[] authorRemap) {
+		if (rawAuthors == null || rawAuthors.isEmpty()) {
+			return new int[0];
+		}
+		int[] ids = new int[rawAuthors.size()];
+		int size = 0;
+		for (Integer raw : rawAuthors) {
+			if (raw == null || raw < 0 || raw >= authorRemap.length || authorRemap[raw] < 0) continue;
+			int id = authorRemap[raw];
+			boolean duplicate = false;
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					duplicate = true;
+					break;
+				}
+			}
+			if (!duplicate) {
+				ids[size++] = id;
+			}
+		}
+		return size == ids.length ? ids : Arrays.copyOf(ids, size);
+	}
+
+	private static int[] sortedOrdinals(int count, Comparator<Integer> comparator) {
+		Integer[] boxed = new Integer[count];
+		for (int i = 0; i < boxed.length; i++) {
+			boxed[i] = i;
+		}
+		Arrays.sort(boxed, comparator);
+		int[] order = new int[boxed.length];
+		for (int i = 0; i < boxed.length; i++) {
+			order[i] = boxed[i];
+		}
+		return order;
+	}
+
+	/**
+	 * Returns {@code order} as positions if it covers every post exactly once from most to least
+	 * recently updated, or {@code null} so the caller sorts instead.
+	 */
+	private static List<Integer> presortedPositions(List<ArchivePostSummary> source, int[] order) {
+		if (order == null || order.length != source.size()) {
+			return null;
+		}
+		BitSet seen = new BitSet(order.length);
+		List<Integer> positions = new ArrayList<>(order.length);
+		long previous = Long.MAX_VALUE;
+		for (int position : order) {
+			if (position < 0 || position >= order.length || seen.get(position) || source.get(position) == null) {
+				return null;
+			}
+			long updated = getUpdatedTimestamp(source.get(position));
+			if (updated > previous) {
+				return null;
+			}
+			seen.set(position);
+			positions.add(position);
+			previous = updated;
+		}
+		return positions;
+	}
+
+	/**
+	 * Maps a precomputed archived-at ordering from positions to ordinals, or returns {@code null}
+	 * when it is missing or inconsistent with {@code ordered}.
+	 */
+	private static int[] presortedArchived(ArchivePostSummary[] ordered, List<Integer> positions, int sourceSize, int[] order) {
+		if (order == null || order.length != ordered.length) {
+			return null;
+		}
+		int[] ordinalOfPosition = new int[sourceSize];
+		Arrays.fill(ordinalOfPosition, -1);
+		for (int ordinal = 0; ordinal < positions.size(); ordinal++) {
+			ordinalOfPosition[positions.get(ordinal)] = ordinal;
+		}
+		BitSet seen = new BitSet(ordered.length);
+		int[] ordinals = new int[order.length];
+		long previous = Long.MIN_VALUE;
+		for (int i = 0; i < order.length; i++) {
+			int position = order[i];
+			int ordinal = position >= 0 && position < sourceSize ? ordinalOfPosition[position] : -1;
+			if (ordinal < 0 || seen.get(ordinal) || ordered[ordinal].archivedAt() < previous) {
+				return null;
+			}
+			seen.set(ordinal);
+			ordinals[i] = ordinal;
+			previous = ordered[ordinal].archivedAt();
+		}
+		return ordinals;
+	}
+
+	private static int[] invert(int[] permutation) {
+		int[] rank = new int[permutation.length];
+		for (int i = 0; i < permutation.length; i++) {
+			rank[permutation[i]] = i;
+		}
+		return rank;
+	}
+
+	private static int[] sortByRank(int[] ordinals, int[] rank) {
+		long[] keyed = new long[ordinals.length];
+		for (int i = 0; i < ordinals.length; i++) {
+			keyed[i] = ((long) rank[ordinals[i]] << 32) | ordinals[i];
+		}
+		Arrays.sort(keyed);
+		int[] sorted = new int[ordinals.length];
+		for (int i = 0; i < keyed.length; i++) {
+			sorted[i] = (int) keyed[i];
+		}
+		return sorted;
+	}
+
+	private static int lowerBound(long[] ascending, long value) {
+		int low = 0;
+		int high = ascending.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (ascending[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static int firstBelow(long[] descending, long value) {
+		int low = 0;
+		int high = descending.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (descending[mid] >= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	static String postKey(ArchivePostSummary post) {
+		return post.id() != null ? post.id() : post.channelPath() + "/" + post.entryPath();
+	}
+
+	static long getUpdatedTimestamp(ArchivePostSummary post) {
+		if (post == null) return 0L;
+		long updated = post.updatedAt();
+		if (updated > 0) return updated;
+		return post.archivedAt();
+	}
+
+	private static final class Filter {
+		private boolean impossible;
+		private BitSet restrict;
+		private boolean[] channels;
+		private int[] authors;
+		private boolean updatedActive;
+		private long updatedAfter;
+		private long updatedBefore;
+		private boolean archivedActive;
+		private long archivedAfter;
+		private long archivedBefore;
+		private boolean[] tagMatches;
+		private int[] include = new int[0];
+		private int[] exclude = new int[0];
+		private String query;
+		private boolean[] queryAuthors;
+	}
+}
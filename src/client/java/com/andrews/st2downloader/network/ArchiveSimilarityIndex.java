@@ -0,0 +1,211 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchivePostSummary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinHash signatures over each post's channel, tags and authors, bucketed with LSH banding so
+ * "similar designs" only compares a post against the few others that share a band.
+ * <p>
+ * Band buckets are a single sorted {@code long[]} of {@code (bandKey << 32) | ordinal}; a lookup is a
+ * binary search per band. Signatures and buckets are stored in the {@link ArchiveIndexSnapshot}
+ * alongside the search index they were computed from.
+ */
+final class ArchiveSimilarityIndex {
+	private static final int HASHES = 32;
+	private static final int BANDS = 8;
+	private static final int ROWS = HASHES / BANDS;
+	private static final int MAX_CANDIDATES = 4096;
+	private static final long[] MULTIPLIERS = new long[HASHES];
+	private static final long[] OFFSETS = new long[HASHES];
+
+	static {
+		long seed = 0x5354324C4954L;
+		for (int i = 0; i < HASHES; i++) {
+			seed = mix(seed + 0x9E3779B97F4A7C15L);
+			MULTIPLIERS[i] = seed | 1L;
+			seed = mix(seed + 0x9E3779B97F4A7C15L);
+			OFFSETS[i] = seed;
+		}
+	}
+
+	private final int postCount;
+	private final int[] signatures;
+	private final long[] bandEntries;
+
+	private ArchiveSimilarityIndex(int postCount, int[] signatures, long[] bandEntries) {
+		this.postCount = postCount;
+		this.signatures = signatures;
+		this.bandEntries = bandEntries;
+	}
+
+	static ArchiveSimilarityIndex build(ArchiveSearchIndex index) {
+		int count = index.size();
+		int[] signatures = new int[count * HASHES];
+		List<Long> entries = new ArrayList<>(count * BANDS);
+		int[] signature = new int[HASHES];
+
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			Arrays.fill(signature, Integer.MAX_VALUE);
+			boolean hasFeatures = false;
+			int channel = index.channelOf(ordinal);
+			if (channel >= 0) {
+				addFeature(signature, featureHash(1, channel));
+				hasFeatures = true;
+			}
+			for (int tagId : index.tagsOf(ordinal)) {
+				addFeature(signature, featureHash(2, tagId));
+				hasFeatures = true;
+			}
+			for (int authorId : index.authorsOf(ordinal)) {
+				addFeature(signature, featureHash(3, authorId));
+				hasFeatures = true;
+			}
+			System.arraycopy(signature, 0, signatures, ordinal * HASHES, HASHES);
+			if (!hasFeatures) continue;
+			for (int band = 0; band < BANDS; band++) {
+				entries.add(((long) bandKey(signatures, ordinal, band) << 32) | ordinal);
+			}
+		}
+
+		long[] bandEntries = new long[entries.size()];
+		for (int i = 0; i < bandEntries.length; i++) {
+			bandEntries[i] = entries.get(i);
+		}
+		Arrays.sort(bandEntries);
+		return new ArchiveSimilarityIndex(count, signatures, bandEntries);
+	}
+
+	long estimatedBytes() {
+		return ArchiveSearchIndex.arrayBytes(signatures.length, 4) + ArchiveSearchIndex.arrayBytes(bandEntries.length, 8);
+	}
+
+	/**
+	 * Returns up to {@code limit} ordinals most similar to {@code ordinal}, best first. Ties favour
+	 * the more recently updated post.
+	 */
+	int[] nearest(int ordinal, int limit) {
+		if (ordinal < 0 || ordinal >= postCount || limit <= 0) {
+			return new int[0];
+		}
+		int[] candidates = new int[Math.min(MAX_CANDIDATES, BANDS * 64)];
+		int size = 0;
+		for (int band = 0; band < BANDS && size < MAX_CANDIDATES; band++) {
+			long key = (long) bandKey(signatures, ordinal, band) << 32;
+			int from = lowerBound(bandEntries, key);
+			for (int i = from; i < bandEntries.length && (bandEntries[i] & 0xFFFFFFFF00000000L) == key; i++) {
+				int candidate = (int) bandEntries[i];
+				if (candidate == ordinal) continue;
+				if (size == candidates.length) {
+					if (size >= MAX_CANDIDATES) break;
+					candidates = Arrays.copyOf(candidates, Math.min(MAX_CANDIDATES, size * 2));
+				}
+				candidates[size++] = candidate;
+			}
+		}
+		if (size == 0) {
+			return new int[0];
+		}
+
+		Arrays.sort(candidates, 0, size);
+		long[] scored = new long[size];
+		int scoredSize = 0;
+		int previous = -1;
+		for (int i = 0; i < size; i++) {
+			int candidate = candidates[i];
+			if (candidate == previous) continue;
+			previous = candidate;
+			int matches = 0;
+			int base = ordinal * HASHES;
+			int other = candidate * HASHES;
+			for (int h = 0; h < HASHES; h++) {
+				if (signatures[base + h] == signatures[other + h]) {
+					matches++;
+				}
+			}
+			// Higher agreement first, then lower ordinal (more recent) first.
+			scored[scoredSize++] = ((long) (HASHES - matches) << 32) | candidate;
+		}
+		Arrays.sort(scored, 0, scoredSize);
+
+		int[] result = new int[Math.min(limit, scoredSize)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = (int) scored[i];
+		}
+		return result;
+	}
+
+	List<ArchivePostSummary> nearestPosts(ArchiveSearchIndex index, ArchivePostSummary post, int limit) {
+		int[] ordinals = nearest(index.ordinalOf(post), limit);
+		List<ArchivePostSummary> result = new ArrayList<>(ordinals.length);
+		for (int ordinal : ordinals) {
+			result.add(index.post(ordinal));
+		}
+		return result;
+	}
+
+	void writeTo(ArchiveIndexSnapshot.Writer writer) throws IOException {
+		writer.writeInt(HASHES);
+		writer.writeInts(signatures);
+		writer.writeLongs(bandEntries);
+	}
+
+	static ArchiveSimilarityIndex read(ArchiveIndexSnapshot.Reader reader, ArchiveSearchIndex index) {
+		if (reader.readInt() != HASHES) {
+			throw new IllegalStateException("Snapshot similarity uses a different hash count");
+		}
+		int[] signatures = reader.readInts();
+		long[] bandEntries = reader.readLongs();
+		if (signatures.length != index.size() * HASHES) {
+			throw new IllegalStateException("Snapshot similarity does not match post count " + index.size());
+		}
+		return new ArchiveSimilarityIndex(index.size(), signatures, bandEntries);
+	}
+
+	private static void addFeature(int[] signature, long feature) {
+		for (int i = 0; i < HASHES; i++) {
+			int value = (int) ((feature * MULTIPLIERS[i] + OFFSETS[i]) >>> 33);
+			if (value < signature[i]) {
+				signature[i] = value;
+			}
+		}
+	}
+
+	private static long featureHash(int type, int id) {
+		return mix(((long) type << 32) | (id & 0xFFFFFFFFL));
+	}
+
+	private static int bandKey(int[] signatures, int ordinal, int band) {
+		int base = ordinal * HASHES + band * ROWS;
+		int hash = band;
+		for (int r = 0; r < ROWS; r++) {
+			hash = hash * 0x01000193 ^ signatures[base + r];
+		}
+		// Keep the band number in the top bits so different bands never share a bucket.
+		return (band << 28) | (hash & 0x0FFFFFFF);
+	}
+
+	private static int lowerBound(long[] sorted, long value) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,340 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.config.ServerDictionary;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses where archive files are downloaded from. Each server's repository can be served by
+ * several interchangeable sources: GitHub's raw host, then the mirrors listed on its
+ * {@link ServerEntry}, then any the player configured (a CDN, a self-hosted copy, a LAN cache).
+ * <p>
+ * URLs everywhere else stay on the canonical raw host, so caches and the offline mirror key on
+ * one spelling. {@link ArchiveHttpClient} asks {@link #route} for the order to try sources in just
+ * before sending. A background probe times a one-byte fetch of {@code persistent.idx} from every
+ * source every few minutes and prefers the fastest healthy one; sources that fail real requests
+ * twice in a row are skipped until they answer a probe again.
+ * <p>
+ * A source is written as a base URL, optionally with {@code {owner}}, {@code {repo}} and
+ * {@code {branch}} placeholders, e.g. {@code https://cdn.jsdelivr.net/gh/{owner}/{repo}@{branch}/}.
+ */
+public final class ArchiveSourceSelector {
+	private static final String PROBE_PATH = "persistent.idx";
+	private static final long PROBE_INTERVAL_MILLIS = 5L * 60L * 1000L;
+	// Re-probe soon after the preferred source starts failing, rather than waiting out the interval.
+	private static final long FAILURE_PROBE_DELAY_MILLIS = 15_000;
+	private static final int PROBE_TIMEOUT_SECONDS = 5;
+	private static final int FAILURES_BEFORE_UNHEALTHY = 2;
+	// Traffic moves to a faster source only when it is clearly faster, so close timings do not flap.
+	private static final double SWITCH_RATIO = 0.8;
+
+	private static final Map<String, ServerSources> SOURCES = new ConcurrentHashMap<>();
+
+	private ArchiveSourceSelector() {
+	}
+
+	/**
+	 * One source as last measured, for the network debug screen.
+	 *
+	 * @param latencyMillis time to the probe's response headers, or -1 before the first probe
+	 * @param checkedAt     wall-clock time of the last probe, or 0
+	 */
+	public record SourceStatus(String baseUrl, long latencyMillis, boolean healthy, boolean selected, int failures, long checkedAt) {
+	}
+
+	/**
+	 * The sources of {@code server} in the order they are tried, the preferred one first.
+	 */
+	public static List<SourceStatus> getStatus(ServerEntry server) {
+		ServerSources sources = sourcesOf(server);
+		// Like route(), a server without mirrors has nothing to rank and is never probed.
+		if (sources.sources.size() > 1) {
+			sources.probeIfDue();
+		}
+		return sources.status();
+	}
+
+	/**
+	 * Probes every source of {@code server} now.
+	 */
+	public static CompletableFuture<Void> probe(ServerEntry server) {
+		return sourcesOf(server).probe();
+	}
+
+	/**
+	 * The URLs to try for {@code uri}, best first. URIs outside any archive come back unchanged.
+	 */
+	static List<URI> route(URI uri) {
+		String url = uri.toString();
+		for (ServerEntry server : ServerDictionary.getServers()) {
+			String canonical = ArchiveNetworkManager.rawUrlPrefix(server);
+			if (!url.startsWith(canonical)) {
+				continue;
+			}
+			ServerSources sources = sourcesOf(server);
+			if (sources.sources.size() == 1) {
+				return List.of(uri);
+			}
+			sources.probeIfDue();
+			String path = url.substring(canonical.length());
+			List<URI> routes = new ArrayList<>();
+			for (Source source : sources.ordered()) {
+				routes.add(URI.create(source.baseUrl + path));
+			}
+			return routes;
+		}
+		return List.of(uri);
+	}
+
+	/**
+	 * Whether {@code uri} was routed to a source other than the canonical raw host.
+	 */
+	static boolean isMirror(URI uri) {
+		Source source = sourceOf(uri);
+		return source != null && !source.canonical;
+	}
+
+	static void reportSuccess(URI uri) {
+		Source source = sourceOf(uri);
+		if (source != null) {
+			synchronized (source.owner) {
+				source.failures = 0;
+				source.healthy = true;
+			}
+		}
+	}
+
+	static void reportFailure(URI uri) {
+		Source source = sourceOf(uri);
+		if (source == null || source.owner.sources.size() == 1) {
+			// With nowhere to fail over to, there is nothing to decide.
+			return;
+		}
+		boolean becameUnhealthy;
+		synchronized (source.owner) {
+			source.failures++;
+			becameUnhealthy = source.healthy && source.failures >= FAILURES_BEFORE_UNHEALTHY;
+			if (becameUnhealthy) {
+				source.healthy = false;
+			}
+		}
+		if (becameUnhealthy) {
+			System.err.println("Archive source unhealthy, failing over: " + source.baseUrl);
+			source.owner.reselect();
+			source.owner.probeAfter(FAILURE_PROBE_DELAY_MILLIS);
+		}
+	}
+
+	private static Source sourceOf(URI uri) {
+		String url = uri.toString();
+		for (ServerSources sources : SOURCES.values()) {
+			for (Source source : sources.sources) {
+				if (url.startsWith(source.baseUrl)) {
+					return source;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static ServerSources sourcesOf(ServerEntry server) {
+		List<String> baseUrls = baseUrls(server);
+		String key = ArchiveNetworkManager.serverKey(server);
+		ServerSources current = SOURCES.get(key);
+		if (current != null && current.baseUrls.equals(baseUrls)) {
+			return current;
+		}
+		// First use, or the configured mirrors changed: start over with fresh measurements.
+		ServerSources fresh = new ServerSources(baseUrls);
+		SOURCES.put(key, fresh);
+		return fresh;
+	}
+
+	private static List<String> baseUrls(ServerEntry server) {
+		Set<String> urls = new LinkedHashSet<>();
+		urls.add(ArchiveNetworkManager.rawUrlPrefix(server));
+		List<String> templates = new ArrayList<>();
+		if (server.mirrorBaseUrls() != null) {
+			templates.addAll(server.mirrorBaseUrls());
+		}
+		templates.addAll(DownloadSettings.getInstance().getArchiveMirrors(server));
+		for (String template : templates) {
+			String url = expand(template, server);
+			if (url != null) {
+				urls.add(url);
+			}
+		}
+		return List.copyOf(urls);
+	}
+
+	private static String expand(String template, ServerEntry server) {
+		if (template == null || template.isBlank()) {
+			return null;
+		}
+		// The canonical prefix already has the owner, repository and branch defaults filled in.
+		String[] parts = URI.create(ArchiveNetworkManager.rawUrlPrefix(server)).getPath().split("/");
+		int last = parts.length - 1;
+		String url = template.trim()
+			.replace("{owner}", parts[last - 2])
+			.replace("{repo}", parts[last - 1])
+			.replace("{branch}", parts[last]);
+		try {
+			String scheme = URI.create(url).getScheme();
+			if (!"https".equals(scheme) && !"http".equals(scheme)) {
+				System.err.println("Ignoring archive mirror without an http(s) URL: " + template);
+				return null;
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println("Ignoring malformed archive mirror: " + template);
+			return null;
+		}
+		return url.endsWith("/") ? url : url + "/";
+	}
+
+	/**
+	 * One source's measurements. Only read or written while holding its owner's monitor, so a
+	 * reselection never sees a half-applied probe result.
+	 */
+	private static final class Source {
+		final ServerSources owner;
+		final String baseUrl;
+		final boolean canonical;
+		long latencyMillis = -1;
+		boolean healthy = true;
+		int failures;
+		long checkedAt;
+
+		Source(ServerSources owner, String baseUrl, boolean canonical) {
+			this.owner = owner;
+			this.baseUrl = baseUrl;
+			this.canonical = canonical;
+		}
+	}
+
+	/**
+	 * The sources of one server and which of them is preferred.
+	 */
+	private static final class ServerSources {
+		final List<String> baseUrls;
+		final List<Source> sources = new ArrayList<>();
+		private Source selected;
+		private long lastProbe;
+		private CompletableFuture<Void> probing;
+
+		ServerSources(List<String> baseUrls) {
+			this.baseUrls = baseUrls;
+			for (int i = 0; i < baseUrls.size(); i++) {
+				sources.add(new Source(this, baseUrls.get(i), i == 0));
+			}
+			selected = sources.get(0);
+		}
+
+		synchronized List<Source> ordered() {
+			List<Source> ordered = new ArrayList<>(sources);
+			// Preferred first, then healthy sources by latency with unmeasured ones last, then the rest in configured order.
+			ordered.sort(Comparator.comparingInt((Source source) -> source == selected ? 0 : source.healthy ? 1 : 2)
+				.thenComparingLong(source -> source.latencyMillis < 0 ? Long.MAX_VALUE : source.latencyMillis));
+			return ordered;
+		}
+
+		synchronized List<SourceStatus> status() {
+			List<SourceStatus> status = new ArrayList<>();
+			for (Source source : ordered()) {
+				status.add(new SourceStatus(source.baseUrl, source.latencyMillis, source.healthy, source == selected, source.failures, source.checkedAt));
+			}
+			return status;
+		}
+
+		void probeIfDue() {
+			if (System.currentTimeMillis() - lastProbe >= PROBE_INTERVAL_MILLIS) {
+				probe();
+			}
+		}
+
+		void probeAfter(long delayMillis) {
+			CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(this::probe);
+		}
+
+		synchronized CompletableFuture<Void> probe() {
+			if (probing != null && !probing.isDone()) {
+				return probing;
+			}
+			lastProbe = System.currentTimeMillis();
+			List<CompletableFuture<Void>> probes = new ArrayList<>();
+			for (Source source : sources) {
+				probes.add(probe(source));
+			}
+			probing = CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).thenRun(this::reselect);
+			return probing;
+		}
+
+		private CompletableFuture<Void> probe(Source source) {
+			HttpRequest request = HttpRequest.newBuilder()
+				.uri(URI.create(source.baseUrl + PROBE_PATH))
+				.timeout(Duration.ofSeconds(PROBE_TIMEOUT_SECONDS))
+				.header("Range", "bytes=0-0")
+				.header("User-Agent", ArchiveNetworkManager.USER_AGENT)
+				.GET()
+				.build();
+			long start = System.nanoTime();
+			return ArchiveHttpClient.sendOnce(request, HttpResponse.BodyHandlers.discarding())
+				.handle((response, throwable) -> {
+					long latency = (System.nanoTime() - start) / 1_000_000;
+					boolean healthy = response != null && (response.statusCode() == 200 || response.statusCode() == 206);
+					synchronized (source.owner) {
+						source.checkedAt = System.currentTimeMillis();
+						source.healthy = healthy;
+						source.latencyMillis = healthy ? latency : -1;
+						if (healthy) {
+							source.failures = 0;
+						}
+					}
+					return null;
+				});
+		}
+
+		/**
+		 * Prefers the fastest healthy source, keeping the current one unless another is clearly faster.
+		 */
+		synchronized void reselect() {
+			Source fastest = null;
+			for (Source source : sources) {
+				if (source.healthy && source.latencyMillis >= 0 && (fastest == null || source.latencyMillis < fastest.latencyMillis)) {
+					fastest = source;
+				}
+			}
+			if (fastest == null) {
+				for (Source source : sources) {
+					if (source.healthy) {
+						fastest = source;
+						break;
+					}
+				}
+			}
+			if (fastest == null) {
+				// Nothing answers; keep trying the canonical host first.
+				selected = sources.get(0);
+				return;
+			}
+			boolean keep = selected.healthy && selected.latencyMillis >= 0
+				&& fastest.latencyMillis >= selected.latencyMillis * SWITCH_RATIO;
+			if (!keep && selected != fastest) {
+				selected = fastest;
+			}
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchiveChannel;
+import com.andrews.st2downloader.models.ArchiveSuggestion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sorted-array prefix index over the tag, author, channel and title dictionaries.
+ * <p>
+ * Every suggestion is reachable from its full lowercase label and, for multi-word labels, from the
+ * start of each later word, so "sorter" also completes "Compact Item Sorter". Keys are stored as
+ * (entry, offset) pairs into the lowercase labels rather than as substrings. A lookup is one binary
+ * search followed by a scan of the matching key run; posts are never touched. Runs longer than
+ * {@link #MAX_SCAN} keys, which only short prefixes have, are ranked when the index is built so a
+ * keystroke never scans more than that.
+ */
+final class ArchiveSuggestionIndex {
+	private static final int MAX_SCAN = 2048;
+	// How many completions are kept per precomputed prefix; more than the search bar ever shows.
+	private static final int TOP_K = 16;
+
+	private final ArchiveSuggestion[] entries;
+	private final String[] labelKeys;
+	private final int[] keyEntries;
+	private final int[] keyOffsets;
+	// Best completions, in rank order, of every prefix whose key run is longer than MAX_SCAN.
+	private final Map<String, int[]> topByPrefix;
+
+	private ArchiveSuggestionIndex(ArchiveSuggestion[] entries, int[] keyEntries, int[] keyOffsets, Map<String, int[]> topByPrefix) {
+		this.entries = entries;
+		this.labelKeys = new String[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			labelKeys[i] = entries[i].label().toLowerCase(Locale.ROOT);
+		}
+		this.keyEntries = keyEntries;
+		this.keyOffsets = keyOffsets;
+		this.topByPrefix = topByPrefix;
+	}
+
+	static ArchiveSuggestionIndex build(ArchiveSearchIndex index, List<ArchiveChannel> channels) {
+		List<ArchiveSuggestion> entries = new ArrayList<>();
+		for (int i = 0; i < index.tagCount(); i++) {
+			String tag = index.tagName(i);
+			entries.add(new ArchiveSuggestion(ArchiveSuggestion.Type.TAG, tag, tag, index.tagPostCount(i)));
+		}
+		for (int i = 0; i < index.authorCount(); i++) {
+			String author = index.authorName(i);
+			entries.add(new ArchiveSuggestion(ArchiveSuggestion.Type.AUTHOR, author, author, index.authorPostCount(i)));
+		}
+		if (channels != null) {
+			for (ArchiveChannel channel : channels) {
+				if (channel == null || channel.path() == null || channel.name() == null) continue;
+				entries.add(new ArchiveSuggestion(
+					ArchiveSuggestion.Type.CHANNEL,
+					channel.path(),
+					channel.name(),
+					index.channelPostCount(channel.path())
+				));
+			}
+		}
+		Map<String, int[]> titleCounts = new LinkedHashMap<>();
+		Map<String, String> titleLabels = new HashMap<>();
+		for (int ordinal = 0; ordinal < index.size(); ordinal++) {
+			String title = index.post(ordinal).title();
+			if (title == null || title.isBlank()) continue;
+			String key = title.toLowerCase(Locale.ROOT);
+			titleCounts.computeIfAbsent(key, k -> new int[1])[0]++;
+			titleLabels.putIfAbsent(key, title);
+		}
+		for (Map.Entry<String, int[]> entry : titleCounts.entrySet()) {
+			String title = titleLabels.get(entry.getKey());
+			entries.add(new ArchiveSuggestion(ArchiveSuggestion.Type.TITLE, title, title, entry.getValue()[0]));
+		}
+
+		List<Long> keyList = new ArrayList<>();
+		for (int entryId = 0; entryId < entries.size(); entryId++) {
+			String label = entries.get(entryId).label().toLowerCase(Locale.ROOT);
+			for (int start = 0; start < label.length(); start++) {
+				boolean wordStart = start == 0 || !Character.isLetterOrDigit(label.charAt(start - 1));
+				if (!wordStart || !Character.isLetterOrDigit(label.charAt(start))) continue;
+				keyList.add(((long) entryId << 32) | start);
+			}
+		}
+
+		ArchiveSuggestion[] entryArray = entries.toArray(new ArchiveSuggestion[0]);
+		String[] labels = new String[entryArray.length];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = entryArray[i].label().toLowerCase(Locale.ROOT);
+		}
+		keyList.sort((a, b) -> compareKeys(labels, a, b));
+
+		int[] keyEntries = new int[keyList.size()];
+		int[] keyOffsets = new int[keyList.size()];
+		for (int i = 0; i < keyEntries.length; i++) {
+			long key = keyList.get(i);
+			keyEntries[i] = (int) (key >>> 32);
+			keyOffsets[i] = (int) key;
+		}
+		ArchiveSuggestionIndex suggestions = new ArchiveSuggestionIndex(entryArray, keyEntries, keyOffsets, new HashMap<>());
+		suggestions.rankLongRuns(0, keyEntries.length, 0);
+		return suggestions;
+	}
+
+	/**
+	 * Ranks every prefix of the keys in {@code [from, to)}, which share their first {@code depth}
+	 * characters, whose run is longer than {@link #MAX_SCAN}. Runs at one depth are disjoint, so each
+	 * level of the recursion reads every key at most once.
+	 */
+	private void rankLongRuns(int from, int to, int depth) {
+		if (to - from <= MAX_SCAN) {
+			return;
+		}
+		if (depth > 0) {
+			topByPrefix.put(labelKeys[keyEntries[from]].substring(keyOffsets[from], keyOffsets[from] + depth), rank(from, to, TOP_K));
+		}
+		int i = from;
+		// Keys that end at this depth sort first and have no longer prefix to split into.
+		while (i < to && keyLength(i) == depth) {
+			i++;
+		}
+		while (i < to) {
+			char next = keyChar(i, depth);
+			int end = i + 1;
+			while (end < to && keyChar(end, depth) == next) {
+				end++;
+			}
+			rankLongRuns(i, end, depth + 1);
+			i = end;
+		}
+	}
+
+	void writeTo(ArchiveIndexSnapshot.Writer writer) throws IOException {
+		writer.writeInt(entries.length);
+		for (ArchiveSuggestion entry : entries) {
+			writer.writeInt(entry.type().ordinal());
+			writer.writeString(entry.value());
+			writer.writeString(entry.label());
+			writer.writeInt(entry.count());
+		}
+		writer.writeInts(keyEntries);
+		writer.writeInts(keyOffsets);
+		String[] prefixes = topByPrefix.keySet().toArray(new String[0]);
+		int[][] tops = new int[prefixes.length][];
+		for (int i = 0; i < prefixes.length; i++) {
+			tops[i] = topByPrefix.get(prefixes[i]);
+		}
+		writer.writeStrings(prefixes);
+		writer.writeIntArrays(tops);
+	}
+
+	static ArchiveSuggestionIndex read(ArchiveIndexSnapshot.Reader reader) {
+		ArchiveSuggestion.Type[] types = ArchiveSuggestion.Type.values();
+		ArchiveSuggestion[] entries = new ArchiveSuggestion[reader.readLength(16)];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new ArchiveSuggestion(types[reader.readInt()], reader.readString(), reader.readString(), reader.readInt());
+		}
+		int[] keyEntries = reader.readInts();
+		int[] keyOffsets = reader.readInts();
+		if (keyOffsets.length != keyEntries.length) {
+			throw new IllegalStateException("Snapshot suggestion keys are inconsistent");
+		}
+		for (int entryId : keyEntries) {
+			if (entryId < 0 || entryId >= entries.length) {
+				throw new IllegalStateException("Snapshot suggestion key out of range: " + entryId);
+			}
+		}
+		String[] prefixes = reader.readStrings();
+		int[][] tops = reader.readIntArrays();
+		if (tops.length != prefixes.length) {
+			throw new IllegalStateException("Snapshot suggestion prefixes are inconsistent");
+		}
+		Map<String, int[]> topByPrefix = new HashMap<>();
+		for (int i = 0; i < prefixes.length; i++) {
+			for (int entryId : tops[i]) {
+				if (entryId < 0 || entryId >= entries.length) {
+					throw new IllegalStateException("Snapshot suggestion out of range: " + entryId);
+				}
+			}
+			topByPrefix.put(prefixes[i], tops[i]);
+		}
+		return new ArchiveSuggestionIndex(entries, keyEntries, keyOffsets, topByPrefix);
+	}
+
+	long estimatedBytes() {
+		long bytes = ArchiveSearchIndex.arrayBytes(entries.length, 4) + ArchiveSearchIndex.arrayBytes(labelKeys.length, 4);
+		for (int i = 0; i < entries.length; i++) {
+			// Values and labels are shared with the search index; the lowercase keys are not.
+			bytes += 32 + ArchiveSearchIndex.stringBytes(labelKeys[i]);
+		}
+		for (Map.Entry<String, int[]> top : topByPrefix.entrySet()) {
+			bytes += 48 + ArchiveSearchIndex.stringBytes(top.getKey()) + ArchiveSearchIndex.arrayBytes(top.getValue().length, 4);
+		}
+		return bytes + ArchiveSearchIndex.arrayBytes(keyEntries.length, 4) + ArchiveSearchIndex.arrayBytes(keyOffsets.length, 4);
+	}
+
+	/**
+	 * Returns up to {@code limit} completions for {@code prefix}. Matches on the start of the label
+	 * rank ahead of matches on a later word; within each group larger result counts come first.
+	 */
+	List<ArchiveSuggestion> suggest(String prefix, int limit) {
+		String normalized = prefix != null ? prefix.toLowerCase(Locale.ROOT).trim() : "";
+		if (normalized.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+
+		int[] ranked = topByPrefix.get(normalized);
+		// A precomputed list shorter than TOP_K already holds every match.
+		if (ranked == null || limit > ranked.length && ranked.length == TOP_K) {
+			int from = lowerBound(normalized);
+			int to = from;
+			while (to < keyEntries.length && labelKeys[keyEntries[to]].startsWith(normalized, keyOffsets[to])) {
+				to++;
+			}
+			ranked = rank(from, to, limit);
+		}
+
+		List<ArchiveSuggestion> result = new ArrayList<>(Math.min(limit, ranked.length));
+		for (int i = 0; i < ranked.length && result.size() < limit; i++) {
+			result.add(entries[ranked[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * The best {@code limit} entries among the keys in {@code [from, to)}, best first. An entry
+	 * reached through several of its words counts once, as a label-start match if any key is one.
+	 */
+	private int[] rank(int from, int to, int limit) {
+		Map<Integer, Boolean> matched = new HashMap<>();
+		for (int i = from; i < to; i++) {
+			matched.merge(keyEntries[i], keyOffsets[i] == 0, Boolean::logicalOr);
+		}
+		// The worst of the best so far sits on top, so the run is ranked in one pass without a sort.
+		Comparator<Map.Entry<Integer, Boolean>> worstFirst = (x, y) -> compareMatches(y, x);
+		PriorityQueue<Map.Entry<Integer, Boolean>> best = new PriorityQueue<>(Math.min(limit, matched.size()) + 1, worstFirst);
+		for (Map.Entry<Integer, Boolean> match : matched.entrySet()) {
+			best.add(match);
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+		int[] ranked = new int[best.size()];
+		for (int i = ranked.length - 1; i >= 0; i--) {
+			ranked[i] = best.poll().getKey();
+		}
+		return ranked;
+	}
+
+	/**
+	 * Label-start matches first, then larger result counts, shorter labels and alphabetical order.
+	 */
+	private int compareMatches(Map.Entry<Integer, Boolean> a, Map.Entry<Integer, Boolean> b) {
+		if (!a.getValue().equals(b.getValue())) {
+			return a.getValue() ? -1 : 1;
+		}
+		ArchiveSuggestion first = entries[a.getKey()];
+		ArchiveSuggestion second = entries[b.getKey()];
+		int order = Integer.compare(second.count(), first.count());
+		if (order == 0) {
+			order = Integer.compare(first.label().length(), second.label().length());
+		}
+		if (order == 0) {
+			order = String.CASE_INSENSITIVE_ORDER.compare(first.label(), second.label());
+		}
+		return order != 0 ? order : Integer.compare(a.getKey(), b.getKey());
+	}
+
+	private int keyLength(int key) {
+		return labelKeys[keyEntries[key]].length() - keyOffsets[key];
+	}
+
+	private char keyChar(int key, int index) {
+		return labelKeys[keyEntries[key]].charAt(keyOffsets[key] + index);
+	}
+
+	private int lowerBound(String value) {
+		int low = 0;
+		int high = keyEntries.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (compareRegion(labelKeys[keyEntries[mid]], keyOffsets[mid], value, 0) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static int compareKeys(String[] labels, long a, long b) {
+		return compareRegion(labels[(int) (a >>> 32)], (int) a, labels[(int) (b >>> 32)], (int) b);
+	}
+
+	/**
+	 * Compares {@code a.substring(aFrom)} with {@code b.substring(bFrom)} without allocating.
+	 */
+	private static int compareRegion(String a, int aFrom, String b, int bFrom) {
+		int aLength = a.length() - aFrom;
+		int bLength = b.length() - bFrom;
+		int limit = Math.min(aLength, bLength);
+		for (int i = 0; i < limit; i++) {
+			int diff = a.charAt(aFrom + i) - b.charAt(bFrom + i);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return aLength - bLength;
+	}
+}
@@ -0,0 +1,75 @@
+package com.andrews.st2downloader.network;
+
+import com.andrews.st2downloader.models.ArchivePostSummary;
+
+import java.util.BitSet;
+
+/**
+ * Posts added, updated or removed on a server since the user's last visit, for one index version. Lookups
+ * are a bit test when the post comes from that version and a key lookup otherwise.
+ */
+public final class ArchiveVisitDiff {
+	private final ArchiveSearchIndex index;
+	private final boolean hasBaseline;
+	private final BitSet added;
+	private final BitSet updated;
+	private final BitSet changed;
+	private final int removedCount;
+
+	ArchiveVisitDiff(ArchiveSearchIndex index, boolean hasBaseline, BitSet added, BitSet updated, int removedCount) {
+		this.index = index;
+		this.hasBaseline = hasBaseline;
+		this.added = added;
+		this.updated = updated;
+		this.changed = (BitSet) added.clone();
+		this.changed.or(updated);
+		this.removedCount = removedCount;
+	}
+
+	/**
+	 * Whether a previous visit was recorded; on a first visit nothing counts as new.
+	 */
+	public boolean hasBaseline() {
+		return hasBaseline;
+	}
+
+	public boolean isNew(ArchivePostSummary post) {
+		int ordinal = ordinalOf(post);
+		return ordinal >= 0 && added.get(ordinal);
+	}
+
+	public boolean isUpdated(ArchivePostSummary post) {
+		int ordinal = ordinalOf(post);
+		return ordinal >= 0 && updated.get(ordinal);
+	}
+
+	public int newCount() {
+		return added.cardinality();
+	}
+
+	public int updatedCount() {
+		return updated.cardinality();
+	}
+
+	public int removedCount() {
+		return removedCount;
+	}
+
+	public boolean isEmpty() {
+		return added.isEmpty() && updated.isEmpty() && removedCount == 0;
+	}
+
+	/**
+	 * Ordinals of new and updated posts in the index this diff was computed for.
+	 */
+	BitSet changedOrdinals() {
+		return changed;
+	}
+
+	private int ordinalOf(ArchivePostSummary post) {
+		if (post == null || changed.isEmpty()) {
+			return -1;
+		}
+		return index.ordinalOf(post);
+	}
+}
@@ -0,0 +1,169 @@
+package com.andrews.st2downloader.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Compact record of the posts a server showed on the user's last visit: one 64-bit hash of each
+ * post key, sorted ascending, with the {@code updatedAt} it had then. Comparing it with a freshly
+ * loaded index is a single merge pass over two sorted arrays.
+ */
+final class ArchiveVisitLog {
+	static final String FILE_NAME = "last-seen.bin";
+
+	private static final int MAGIC = 0x53543256; // "ST2V"
+	private static final int FORMAT_VERSION = 1;
+
+	private final long[] keys;
+	private final long[] updatedAt;
+	// Index ordinal of each key; only present for logs taken from a loaded index.
+	private final int[] ordinals;
+
+	private ArchiveVisitLog(long[] keys, long[] updatedAt, int[] ordinals) {
+		this.keys = keys;
+		this.updatedAt = updatedAt;
+		this.ordinals = ordinals;
+	}
+
+	static ArchiveVisitLog of(ArchiveSearchIndex index) {
+		int count = index.size();
+		long[] hashes = new long[count];
+		int[] ordinals = new int[count];
+		for (int ordinal = 0; ordinal < count; ordinal++) {
+			hashes[ordinal] = hash(ArchiveSearchIndex.postKey(index.post(ordinal)));
+			ordinals[ordinal] = ordinal;
+		}
+		sortByHash(ordinals, hashes);
+
+		long[] keys = new long[count];
+		long[] updatedAt = new long[count];
+		for (int i = 0; i < count; i++) {
+			int ordinal = ordinals[i];
+			keys[i] = hashes[ordinal];
+			updatedAt[i] = index.post(ordinal).updatedAt();
+		}
+		return new ArchiveVisitLog(keys, updatedAt, ordinals);
+	}
+
+	/**
+	 * Sorts {@code ordinals} by their hash with a bottom-up merge sort, so no ordinal is boxed.
+	 */
+	private static void sortByHash(int[] ordinals, long[] hashes) {
+		int[] source = ordinals;
+		int[] target = new int[ordinals.length];
+		for (int width = 1; width < ordinals.length; width *= 2) {
+			for (int low = 0; low < ordinals.length; low += width * 2) {
+				int middle = Math.min(low + width, ordinals.length);
+				int high = Math.min(low + width * 2, ordinals.length);
+				int left = low;
+				int right = middle;
+				for (int i = low; i < high; i++) {
+					target[i] = right >= high || (left < middle && hashes[source[left]] <= hashes[source[right]]) ? source[left++] : source[right++];
+				}
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != ordinals) {
+			System.arraycopy(source, 0, ordinals, 0, ordinals.length);
+		}
+	}
+
+	/**
+	 * Reads the log saved at {@code file}, or returns {@code null} when there is none or it is damaged.
+	 */
+	static ArchiveVisitLog read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+			if (buffer.getInt() != MAGIC || Short.toUnsignedInt(buffer.getShort()) != FORMAT_VERSION) {
+				return null;
+			}
+			int count = buffer.getInt();
+			if (count < 0 || (long) count * 16 != buffer.remaining()) {
+				return null;
+			}
+			long[] keys = new long[count];
+			long[] updatedAt = new long[count];
+			buffer.asLongBuffer().get(keys);
+			buffer.position(buffer.position() + count * 8);
+			buffer.asLongBuffer().get(updatedAt);
+			return new ArchiveVisitLog(keys, updatedAt, null);
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Ignoring unreadable visit log: " + e.getMessage());
+			return null;
+		}
+	}
+
+	void write(Path file) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(10 + keys.length * 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeShort(FORMAT_VERSION);
+		out.writeInt(keys.length);
+		for (long key : keys) {
+			out.writeLong(key);
+		}
+		for (long value : updatedAt) {
+			out.writeLong(value);
+		}
+		out.flush();
+		ArchiveDiskCache.writeAtomically(file, bytes.toByteArray());
+	}
+
+	/**
+	 * Merges this log, taken from {@code index}, against the {@code previous} visit. With no previous
+	 * visit nothing is reported as changed.
+	 */
+	ArchiveVisitDiff diff(ArchiveSearchIndex index, ArchiveVisitLog previous) {
+		BitSet added = new BitSet(index.size());
+		BitSet updated = new BitSet(index.size());
+		if (previous == null) {
+			return new ArchiveVisitDiff(index, false, added, updated, 0);
+		}
+		int removed = 0;
+		int i = 0;
+		int j = 0;
+		while (i < keys.length && j < previous.keys.length) {
+			long current = keys[i];
+			long seen = previous.keys[j];
+			if (current < seen) {
+				added.set(ordinals[i++]);
+			} else if (current > seen) {
+				removed++;
+				j++;
+			} else {
+				if (updatedAt[i] != previous.updatedAt[j]) {
+					updated.set(ordinals[i]);
+				}
+				i++;
+				j++;
+			}
+		}
+		for (; i < keys.length; i++) {
+			added.set(ordinals[i]);
+		}
+		removed += previous.keys.length - j;
+		return new ArchiveVisitDiff(index, true, added, updated, removed);
+	}
+
+	/**
+	 * 64-bit FNV-1a over the UTF-16 code units of {@code value}.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,71 @@
+package com.andrews.st2downloader.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * {@link JsonReader} helpers that accept scalars of the wrong type the way Gson's reflective
+ * binding does, and skip values of an unexpected shape instead of failing the whole document.
+ */
+final class LenientJson {
+	private LenientJson() {
+	}
+
+	static boolean beginArray(JsonReader reader) throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+			reader.skipValue();
+			return false;
+		}
+		reader.beginArray();
+		return true;
+	}
+
+	static boolean beginObject(JsonReader reader) throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+			reader.skipValue();
+			return false;
+		}
+		reader.beginObject();
+		return true;
+	}
+
+	static String nextString(JsonReader reader) throws IOException {
+		return switch (reader.peek()) {
+			case STRING, NUMBER -> reader.nextString();
+			case BOOLEAN -> Boolean.toString(reader.nextBoolean());
+			default -> {
+				reader.skipValue();
+				yield null;
+			}
+		};
+	}
+
+	static Boolean nextBoolean(JsonReader reader) throws IOException {
+		return switch (reader.peek()) {
+			case BOOLEAN -> reader.nextBoolean();
+			case STRING -> Boolean.parseBoolean(reader.nextString());
+			default -> {
+				reader.skipValue();
+				yield null;
+			}
+		};
+	}
+
+	static Long nextLong(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NUMBER || reader.peek() == JsonToken.STRING) {
+			return reader.nextLong();
+		}
+		reader.skipValue();
+		return null;
+	}
+
+	static Integer nextInt(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NUMBER || reader.peek() == JsonToken.STRING) {
+			return reader.nextInt();
+		}
+		reader.skipValue();
+		return null;
+	}
+}
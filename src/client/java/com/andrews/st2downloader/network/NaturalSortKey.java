@@ -0,0 +1,80 @@
+package com.andrews.st2downloader.network;
+
+import java.io.ByteArrayOutputStream;
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * Builds compact byte keys that order strings the way a person reads them: case and accents are
+ * ignored through the locale's primary collation strength, and runs of digits compare by numeric
+ * value, so "Sorter 2" sorts before "Sorter 10".
+ * <p>
+ * A key is a sequence of big-endian 16-bit units compared unsigned. Text contributes its primary
+ * collation weights, a digit run contributes a marker, its significant digit count and its digits,
+ * and the string ends with a zero unit so a prefix always sorts first. Not thread-safe; use one
+ * instance per index build.
+ */
+final class NaturalSortKey {
+	private static final int END = 0x0000;
+	private static final int NUMBER = 0x0001;
+	private static final int MIN_TEXT_WEIGHT = 0x0002;
+
+	private final Collator collator;
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+	NaturalSortKey(Locale locale) {
+		this.collator = Collator.getInstance(locale);
+		this.collator.setStrength(Collator.PRIMARY);
+		this.collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+	}
+
+	byte[] of(String value) {
+		out.reset();
+		if (value != null) {
+			int length = value.length();
+			int start = 0;
+			while (start < length) {
+				int end = start;
+				boolean digits = Character.digit(value.charAt(start), 10) >= 0;
+				while (end < length && (Character.digit(value.charAt(end), 10) >= 0) == digits) {
+					end++;
+				}
+				if (digits) {
+					appendNumber(value, start, end);
+				} else {
+					appendText(value.substring(start, end));
+				}
+				start = end;
+			}
+		}
+		writeUnit(END);
+		return out.toByteArray();
+	}
+
+	private void appendText(String text) {
+		// The primary section of a collation key is a run of non-zero 16-bit weights ending in 0x0000.
+		byte[] key = collator.getCollationKey(text).toByteArray();
+		for (int i = 0; i + 1 < key.length; i += 2) {
+			int weight = ((key[i] & 0xFF) << 8) | (key[i + 1] & 0xFF);
+			if (weight == 0) break;
+			writeUnit(Math.max(MIN_TEXT_WEIGHT, weight));
+		}
+	}
+
+	private void appendNumber(String value, int start, int end) {
+		while (start < end - 1 && Character.digit(value.charAt(start), 10) == 0) {
+			start++;
+		}
+		int significant = Character.digit(value.charAt(start), 10) == 0 ? 0 : end - start;
+		writeUnit(NUMBER);
+		writeUnit(Math.min(0xFFFF, significant));
+		for (int i = end - significant; i < end; i++) {
+			writeUnit(Character.digit(value.charAt(i), 10) + 1);
+		}
+	}
+
+	private void writeUnit(int unit) {
+		out.write(unit >>> 8);
+		out.write(unit);
+	}
+}
@@ -0,0 +1,45 @@
+package com.andrews.st2downloader.network;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide LRU of encoded thumbnail bytes keyed by image URL, bounded by total size. Grid widgets
+ * are recreated with every screen, so this is what lets a reopened (or prewarmed) browser show its
+ * first page without fetching the images again. Decoding and texture upload stay with the widget.
+ */
+final class ThumbnailCache {
+	private static final long MAX_BYTES = 16L * 1024 * 1024;
+
+	private static final LinkedHashMap<String, byte[]> ENTRIES = new LinkedHashMap<>(64, 0.75f, true);
+	private static long totalBytes = 0;
+
+	private ThumbnailCache() {
+	}
+
+	static synchronized byte[] get(String url) {
+		return ENTRIES.get(url);
+	}
+
+	static synchronized void put(String url, byte[] bytes) {
+		if (url == null || bytes == null || bytes.length > MAX_BYTES) {
+			return;
+		}
+		byte[] previous = ENTRIES.put(url, bytes);
+		if (previous != null) {
+			totalBytes -= previous.length;
+		}
+		totalBytes += bytes.length;
+		Iterator<Map.Entry<String, byte[]>> iterator = ENTRIES.entrySet().iterator();
+		while (totalBytes > MAX_BYTES && iterator.hasNext()) {
+			totalBytes -= iterator.next().getValue().length;
+			iterator.remove();
+		}
+	}
+
+	static synchronized void clear() {
+		ENTRIES.clear();
+		totalBytes = 0;
+	}
+}
@@ -4,16 +4,16 @@ import com.andrews.st2downloader.config.DownloadSettings;
 import com.andrews.st2downloader.config.ServerDictionary;
 import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
 import com.andrews.st2downloader.models.ArchiveAttachment;
+import com.andrews.st2downloader.network.ArchiveChannelMirror;
+import com.andrews.st2downloader.network.ArchiveHttpClient;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
@@ -139,12 +139,14 @@ public class AttachmentManager {
             System.out.println("[Download] Starting download from: " + downloadUrl);
             System.out.println("[Download] File: " + file.name());
 
-            String encodedUrl = downloadUrl.replace(" ", "%20");
+            byte[] mirrored = ArchiveChannelMirror.readMirroredFile(downloadUrl);
+            if (mirrored != null) {
+                System.out.println("[Download] Using mirrored copy (" + mirrored.length + " bytes)");
+                saveDownloaded(file, mirrored);
+                return;
+            }
 
-            HttpClient httpClient = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(30))
-                    .followRedirects(HttpClient.Redirect.ALWAYS)
-                    .build();
+            String encodedUrl = downloadUrl.replace(" ", "%20");
 
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(encodedUrl))
@@ -153,7 +155,7 @@ public class AttachmentManager {
                     .build();
 
             System.out.println("[Download] Sending request...");
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofByteArray())
                     .thenAccept(response -> handleDownloadResponse(file, response))
                     .exceptionally(e -> {
                         handleDownloadError(e);
@@ -191,7 +193,11 @@ public class AttachmentManager {
             return;
         }
 
-        saveAsync(file, response.body())
+        saveDownloaded(file, response.body());
+    }
+
+    private void saveDownloaded(ArchiveAttachment file, byte[] data) {
+        saveAsync(file, data)
                 .thenAccept(result -> {
                     final String finalFileName = result.fileName();
                     final Path finalPath = result.path();
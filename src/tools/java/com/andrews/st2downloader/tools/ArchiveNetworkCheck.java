@@ -0,0 +1,147 @@
+package com.andrews.st2downloader.tools;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.config.ServerDictionary;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+import com.andrews.st2downloader.models.ArchiveDateFilter;
+import com.andrews.st2downloader.models.ArchiveNetworkStats;
+import com.andrews.st2downloader.models.ArchivePostDetail;
+import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.tools.ArchiveStubServer.Faults;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks that the client recovers the way it should from what the archive hosts do to it, against
+ * {@link ArchiveStubServer}s serving the fixture checkout, and exits non-zero when a check fails.
+ * <p>
+ * Checks run in one client, each on entries the earlier ones have not loaded: concurrent loads of
+ * one entry share a single fetch, a 429 is retried no sooner than its {@code Retry-After}, and a
+ * raw host answering only 503s is failed over to a configured mirror.
+ * <p>
+ * Usage: {@code ArchiveNetworkCheck [archive checkout]}, by default the fixture under
+ * {@code src/tools/fixture/archive}.
+ */
+public final class ArchiveNetworkCheck {
+	private static final String DEFAULT_FIXTURE = "src/tools/fixture/archive";
+	private static final int FIXTURE_ENTRIES = 8;
+	private static final int CONCURRENT_LOADS = 8;
+	// The stub sends Retry-After: 1 with every 429.
+	private static final long RETRY_AFTER_MILLIS = 1000;
+
+	private static int failures;
+
+	private ArchiveNetworkCheck() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path root = Path.of(args.length > 0 ? args[0] : DEFAULT_FIXTURE);
+		if (!Files.isRegularFile(root.resolve("persistent.idx"))) {
+			System.err.println("Usage: ArchiveNetworkCheck [archive checkout with persistent.idx]");
+			System.exit(2);
+		}
+
+		try (ArchiveStubServer primary = new ArchiveStubServer(root, 0, Faults.NONE);
+			ArchiveStubServer mirror = new ArchiveStubServer(root, 0, Faults.NONE)) {
+			// Both are read once when the client classes load, so they must be set before first use.
+			System.setProperty(DownloadSettings.GAME_DIR_PROPERTY, Files.createTempDirectory("st2-check").toString());
+			System.setProperty("st2downloader.rawBase", primary.baseUrl());
+			ServerEntry server = ServerDictionary.getDefaultServer();
+
+			List<ArchivePostSummary> posts = ArchiveNetworkManager.searchPosts(server, "", "newest", "", null, null, null, null,
+				ArchiveDateFilter.NONE, 1, FIXTURE_ENTRIES).join().posts();
+			if (!expect("index", posts.size() == FIXTURE_ENTRIES, "expected " + FIXTURE_ENTRIES + " entries, got " + posts.size())) {
+				System.exit(1);
+			}
+			checkCoalescing(server, primary, posts.get(0));
+			checkRateLimit(server, primary, posts.subList(1, 4));
+			checkFailover(server, primary, mirror, posts.subList(4, FIXTURE_ENTRIES));
+		}
+
+		System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	private static void checkCoalescing(ServerEntry server, ArchiveStubServer primary, ArchivePostSummary post) {
+		String path = dataPath(post);
+		ArchiveNetworkStats before = ArchiveNetworkManager.getStats();
+		List<CompletableFuture<ArchivePostDetail>> loads = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_LOADS; i++) {
+			loads.add(ArchiveNetworkManager.getPostDetails(server, post));
+		}
+		int failed = await(loads);
+		ArchiveNetworkStats after = ArchiveNetworkManager.getStats();
+		expect("coalescing", failed == 0 && primary.requestsFor(path) == 1 && after.requestsCoalesced() > before.requestsCoalesced(),
+			CONCURRENT_LOADS + " loads, " + failed + " failed, " + primary.requestsFor(path) + " fetches of " + path
+				+ ", " + (after.requestsCoalesced() - before.requestsCoalesced()) + " coalesced");
+	}
+
+	private static void checkRateLimit(ServerEntry server, ArchiveStubServer primary, List<ArchivePostSummary> posts) {
+		ArchiveStubServer.Stats stubBefore = primary.stats();
+		ArchiveNetworkStats before = ArchiveNetworkManager.getStats();
+		primary.setFaults(new Faults(0, 0, 0, 2, 0, 0));
+		long start = System.nanoTime();
+		int failed = await(load(server, posts));
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		primary.setFaults(Faults.NONE);
+		long injected = primary.stats().rateLimited() - stubBefore.rateLimited();
+		ArchiveNetworkStats after = ArchiveNetworkManager.getStats();
+		expect("429 retry-after", failed == 0 && injected > 0 && after.requestsRetried() > before.requestsRetried()
+				&& elapsedMillis >= RETRY_AFTER_MILLIS,
+			posts.size() + " loads, " + failed + " failed, " + injected + " answered 429, "
+				+ (after.requestsRetried() - before.requestsRetried()) + " retried, done in " + elapsedMillis + " ms");
+	}
+
+	private static void checkFailover(ServerEntry server, ArchiveStubServer primary, ArchiveStubServer mirror, List<ArchivePostSummary> posts) {
+		ArchiveNetworkStats before = ArchiveNetworkManager.getStats();
+		primary.setFaults(new Faults(0, 0, 0, 0, 1, 0));
+		DownloadSettings.getInstance().setArchiveMirrors(server, List.of(mirror.baseUrl() + "/{owner}/{repo}/{branch}/"));
+		int failed = await(load(server, posts));
+		long served = posts.stream().filter(post -> mirror.requestsFor(dataPath(post)) > 0).count();
+		ArchiveNetworkStats after = ArchiveNetworkManager.getStats();
+		expect("failover", failed == 0 && served == posts.size() && after.sourceFailovers() > before.sourceFailovers(),
+			posts.size() + " loads, " + failed + " failed, " + served + " served by the mirror, "
+				+ (after.sourceFailovers() - before.sourceFailovers()) + " failovers");
+	}
+
+	private static List<CompletableFuture<ArchivePostDetail>> load(ServerEntry server, List<ArchivePostSummary> posts) {
+		List<CompletableFuture<ArchivePostDetail>> loads = new ArrayList<>();
+		for (ArchivePostSummary post : posts) {
+			loads.add(ArchiveNetworkManager.getPostDetails(server, post));
+		}
+		return loads;
+	}
+
+	/**
+	 * Waits for every load and returns how many failed.
+	 */
+	private static int await(List<? extends CompletableFuture<?>> loads) {
+		int failed = 0;
+		for (CompletableFuture<?> load : loads) {
+			try {
+				load.join();
+			} catch (RuntimeException e) {
+				failed++;
+			}
+		}
+		return failed;
+	}
+
+	private static String dataPath(ArchivePostSummary post) {
+		return post.channelPath() + "/" + post.entryPath() + "/data.json";
+	}
+
+	private static boolean expect(String name, boolean passed, String detail) {
+		System.out.printf("%-4s %-16s %s%n", passed ? "PASS" : "FAIL", name, detail);
+		if (!passed) {
+			failures++;
+		}
+		return passed;
+	}
+}
@@ -0,0 +1,194 @@
+package com.andrews.st2downloader.tools;
+
+import com.andrews.st2downloader.config.DownloadSettings;
+import com.andrews.st2downloader.config.ServerDictionary;
+import com.andrews.st2downloader.config.ServerDictionary.ServerEntry;
+import com.andrews.st2downloader.models.ArchiveAttachment;
+import com.andrews.st2downloader.models.ArchiveDateFilter;
+import com.andrews.st2downloader.models.ArchiveNetworkStats;
+import com.andrews.st2downloader.models.ArchivePostDetail;
+import com.andrews.st2downloader.models.ArchivePostSummary;
+import com.andrews.st2downloader.models.ArchiveSearchResult;
+import com.andrews.st2downloader.network.ArchiveHttpClient;
+import com.andrews.st2downloader.network.ArchiveNetworkManager;
+import com.andrews.st2downloader.tools.ArchiveStubServer.Faults;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Drives the client's network paths end to end against an {@link ArchiveStubServer} serving a
+ * local archive checkout, and reports what each step cost.
+ * <p>
+ * The client runs in this JVM with a scratch game directory, so every run starts cold. Steps run in
+ * the order a player causes them: the first page of the browser, its thumbnails, opening posts,
+ * their full images and attachment downloads, then the first page again warm. Attachments are
+ * fetched with the request the attachment manager sends, since the manager itself needs a running
+ * game to save into. Each step reports its operations' latency percentiles alongside the requests
+ * and bytes the stub served for it.
+ * <p>
+ * Usage: {@code ArchivePerfHarness <archive checkout> [--server <id>] [--posts <n>] [--page-size <n>]}
+ * plus the fault options of {@link Faults#parse}. A small generated checkout is kept under
+ * {@code src/tools/fixture/archive}; {@link ArchiveNetworkCheck} asserts against the same fixture.
+ */
+public final class ArchivePerfHarness {
+	private ArchivePerfHarness() {
+	}
+
+	private record Step(String name, List<Long> latenciesNanos, int failures) {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new HashMap<>();
+		Path root = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].startsWith("--") && i + 1 < args.length) {
+				options.put(args[i], args[++i]);
+			} else {
+				root = Path.of(args[i]);
+			}
+		}
+		if (root == null || !Files.isRegularFile(root.resolve("persistent.idx"))) {
+			System.err.println("Usage: ArchivePerfHarness <archive checkout with persistent.idx> [--server <id>] [--posts <n>] [--page-size <n>]"
+				+ " [--latency <ms>] [--jitter <ms>] [--bandwidth <KiB/s>] [--rate-limit-every <n>] [--fail-rate <p>] [--drop-rate <p>]");
+			System.exit(2);
+		}
+		int posts = Integer.parseInt(options.getOrDefault("--posts", "10"));
+		int pageSize = Integer.parseInt(options.getOrDefault("--page-size", "20"));
+		Faults faults = Faults.parse(options);
+
+		try (ArchiveStubServer stub = new ArchiveStubServer(root, 0, faults)) {
+			// Both are read once when the client classes load, so they must be set before first use.
+			System.setProperty(DownloadSettings.GAME_DIR_PROPERTY, Files.createTempDirectory("st2-perf").toString());
+			System.setProperty("st2downloader.rawBase", stub.baseUrl());
+			ServerEntry server = ServerDictionary.findById(options.get("--server")).orElse(ServerDictionary.getDefaultServer());
+			System.out.printf("server=%s stub=%s faults=%s%n%n", server.id(), stub.baseUrl(), faults);
+			System.out.printf("%-12s %5s %5s %9s %9s %9s %9s %7s %12s%n",
+				"step", "ops", "fail", "p50 ms", "p90 ms", "p99 ms", "max ms", "reqs", "bytes");
+
+			Run run = new Run(stub);
+			List<ArchivePostSummary> page = run.step("index", () -> List.of(search(server, pageSize)))
+				.stream().flatMap(result -> result.posts().stream()).toList();
+			run.step("thumbnails", () -> map(page, post -> ArchiveNetworkManager.getThumbnailBytes(server, post)));
+			List<ArchivePostDetail> details = run.step("details",
+				() -> map(page.subList(0, Math.min(posts, page.size())), post -> ArchiveNetworkManager.getPostDetails(server, post)));
+			List<String> images = details.stream().flatMap(detail -> detail.images().stream()).toList();
+			run.step("images", () -> map(images, ArchiveNetworkManager::getImageBytes));
+			List<ArchiveAttachment> attachments = details.stream()
+				.flatMap(detail -> detail.attachments().stream())
+				.filter(ArchiveAttachment::isDownloadable)
+				.toList();
+			run.step("attachments", () -> map(attachments, ArchivePerfHarness::download));
+			run.step("warm page", () -> {
+				List<CompletableFuture<?>> warm = new ArrayList<>();
+				for (ArchivePostSummary post : search(server, pageSize).join().posts()) {
+					warm.add(ArchiveNetworkManager.getThumbnailBytes(server, post));
+				}
+				return warm;
+			});
+
+			ArchiveStubServer.Stats stats = stub.stats();
+			ArchiveNetworkStats client = ArchiveNetworkManager.getStats();
+			System.out.printf("%nstub: requests=%d %s bytes=%,d notFound=%d injected429=%d injected503=%d dropped=%d%n",
+				stats.requests(), new TreeMap<>(stats.requestsByKind()), stats.bytesSent(), stats.notFound(),
+				stats.rateLimited(), stats.failed(), stats.dropped());
+			System.out.printf("client: httpRequests=%d queued=%d promoted=%d retried=%d hedged=%d rateLimited=%d coalesced=%d%n",
+				client.httpRequests(), client.requestsQueued(), client.requestsPromoted(), client.requestsRetried(),
+				client.requestsHedged(), client.rateLimited(), client.requestsCoalesced());
+			System.out.printf("index versions: live %d, pinned handles %d, resident %d (%.1f MB)%n",
+				client.liveSnapshots(), client.openHandles(), client.residentIndexes(), client.residentIndexBytes() / (1024.0 * 1024.0));
+		}
+		System.exit(0);
+	}
+
+	private static CompletableFuture<ArchiveSearchResult> search(ServerEntry server, int pageSize) {
+		return ArchiveNetworkManager.searchPosts(server, "", "newest", "", null, null, null, null, ArchiveDateFilter.NONE, 1, pageSize);
+	}
+
+	private static CompletableFuture<byte[]> download(ArchiveAttachment attachment) {
+		HttpRequest request = HttpRequest.newBuilder()
+			.uri(URI.create(attachment.downloadUrl().replace(" ", "%20")))
+			.GET()
+			.header("User-Agent", ArchiveNetworkManager.USER_AGENT)
+			.build();
+		return ArchiveHttpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(HttpResponse::body);
+	}
+
+	private static <T, R> List<CompletableFuture<R>> map(List<T> items, Function<T, CompletableFuture<R>> start) {
+		List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+		for (T item : items) {
+			futures.add(start.apply(item));
+		}
+		return futures;
+	}
+
+	/**
+	 * Times the operations of each step, all started together as the screen would, and prints a row
+	 * per step with the stub's counters for just that step.
+	 */
+	private static final class Run {
+		private final ArchiveStubServer stub;
+
+		Run(ArchiveStubServer stub) {
+			this.stub = stub;
+		}
+
+		<R> List<R> step(String name, Supplier<List<? extends CompletableFuture<? extends R>>> operations) {
+			ArchiveStubServer.Stats before = stub.stats();
+			long start = System.nanoTime();
+			List<? extends CompletableFuture<? extends R>> futures = operations.get();
+			List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+			List<CompletableFuture<?>> timed = new ArrayList<>();
+			for (CompletableFuture<? extends R> future : futures) {
+				timed.add(future.handle((value, throwable) -> {
+					latencies.add(System.nanoTime() - start);
+					return null;
+				}));
+			}
+			CompletableFuture.allOf(timed.toArray(new CompletableFuture<?>[0])).join();
+			List<R> results = new ArrayList<>();
+			int failures = 0;
+			for (CompletableFuture<? extends R> future : futures) {
+				if (future.isCompletedExceptionally()) {
+					failures++;
+				} else if (future.join() != null) {
+					// Posts without an image load to null; that is not a failure.
+					results.add(future.join());
+				}
+			}
+			print(new Step(name, latencies, failures), before, stub.stats());
+			return results;
+		}
+
+		private static void print(Step step, ArchiveStubServer.Stats before, ArchiveStubServer.Stats after) {
+			List<Long> sorted = new ArrayList<>(step.latenciesNanos());
+			Collections.sort(sorted);
+			System.out.printf("%-12s %5d %5d %9.1f %9.1f %9.1f %9.1f %7d %,12d%n",
+				step.name(), sorted.size(), step.failures(),
+				percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+				sorted.isEmpty() ? 0.0 : sorted.get(sorted.size() - 1) / 1e6,
+				after.requests() - before.requests(), after.bytesSent() - before.bytesSent());
+		}
+
+		private static double percentile(List<Long> sorted, double fraction) {
+			if (sorted.isEmpty()) {
+				return 0;
+			}
+			int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+			return sorted.get(Math.max(0, index)) / 1e6;
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package com.andrews.st2downloader.tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a local archive checkout the way {@code raw.githubusercontent.com} serves the repository,
+ * so the client's network paths can be exercised without GitHub.
+ * <p>
+ * Any {@code /<owner>/<repo>/<branch>/<path>} maps to {@code <path>} under the checkout, so every
+ * server in the dictionary reads the same fixture. Faults are injected per request: a fixed delay
+ * plus jitter before the headers, a per-response bandwidth cap, a 429 on every nth request, and a
+ * share of 503s and dropped connections.
+ * <p>
+ * Usage: {@code ArchiveStubServer <archive checkout> [--port <n>]} plus the fault options of
+ * {@link Faults#parse}; serves until killed.
+ */
+public final class ArchiveStubServer implements AutoCloseable {
+	private static final int CHUNK_BYTES = 16 * 1024;
+
+	/**
+	 * What to do to requests. Rates are probabilities between 0 and 1.
+	 *
+	 * @param rateLimitEvery answer every nth request with 429 and {@code Retry-After: 1}; 0 disables
+	 * @param bytesPerSecond cap on each response body; 0 means unlimited
+	 */
+	public record Faults(long latencyMillis, long jitterMillis, long bytesPerSecond, int rateLimitEvery, double failureRate, double dropRate) {
+		public static final Faults NONE = new Faults(0, 0, 0, 0, 0, 0);
+
+		/**
+		 * Reads {@code --latency <ms>}, {@code --jitter <ms>}, {@code --bandwidth <KiB/s>},
+		 * {@code --rate-limit-every <n>}, {@code --fail-rate <p>} and {@code --drop-rate <p>} from
+		 * {@code options}, leaving anything else in place.
+		 */
+		public static Faults parse(Map<String, String> options) {
+			return new Faults(
+				Long.parseLong(options.getOrDefault("--latency", "0")),
+				Long.parseLong(options.getOrDefault("--jitter", "0")),
+				Long.parseLong(options.getOrDefault("--bandwidth", "0")) * 1024,
+				Integer.parseInt(options.getOrDefault("--rate-limit-every", "0")),
+				Double.parseDouble(options.getOrDefault("--fail-rate", "0")),
+				Double.parseDouble(options.getOrDefault("--drop-rate", "0"))
+			);
+		}
+	}
+
+	/**
+	 * Counters since the server started. Requests are grouped by kind: {@code index}, {@code json},
+	 * {@code image}, {@code litematic}, {@code zip} or {@code other}.
+	 */
+	public record Stats(Map<String, Long> requestsByKind, long bytesSent, long notFound, long rateLimited, long failed, long dropped) {
+		public long requests() {
+			return requestsByKind.values().stream().mapToLong(Long::longValue).sum();
+		}
+	}
+
+	private final Path root;
+	private volatile Faults faults;
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "ArchiveStubServer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Map<String, AtomicLong> requestsByKind = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> requestsByPath = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicLong notFound = new AtomicLong();
+	private final AtomicLong rateLimited = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	public ArchiveStubServer(Path root, int port, Faults faults) throws IOException {
+		this.root = root.toAbsolutePath().normalize();
+		this.faults = faults;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new ConcurrentHashMap<>();
+		Path root = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].startsWith("--") && i + 1 < args.length) {
+				options.put(args[i], args[++i]);
+			} else {
+				root = Path.of(args[i]);
+			}
+		}
+		if (root == null || !Files.isDirectory(root)) {
+			System.err.println("Usage: ArchiveStubServer <archive checkout> [--port <n>] [--latency <ms>] [--jitter <ms>]"
+				+ " [--bandwidth <KiB/s>] [--rate-limit-every <n>] [--fail-rate <p>] [--drop-rate <p>]");
+			System.exit(2);
+		}
+		ArchiveStubServer stub = new ArchiveStubServer(root, Integer.parseInt(options.getOrDefault("--port", "8787")), Faults.parse(options));
+		System.out.println("Serving " + stub.root + " at " + stub.baseUrl() + " with " + stub.faults);
+	}
+
+	/**
+	 * The value to give {@code st2downloader.rawBase} so the client fetches from this server.
+	 */
+	public String baseUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	public Stats stats() {
+		Map<String, Long> byKind = new ConcurrentHashMap<>();
+		requestsByKind.forEach((kind, count) -> byKind.put(kind, count.get()));
+		return new Stats(Map.copyOf(byKind), bytesSent.get(), notFound.get(), rateLimited.get(), failed.get(), dropped.get());
+	}
+
+	/**
+	 * Requests so far for {@code path}, relative to the checkout.
+	 */
+	public long requestsFor(String path) {
+		AtomicLong count = requestsByPath.get(path);
+		return count != null ? count.get() : 0;
+	}
+
+	/**
+	 * Applies {@code faults} to requests from now on.
+	 */
+	public void setFaults(Faults faults) {
+		this.faults = faults;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String path = exchange.getRequestURI().getPath();
+			requestsByKind.computeIfAbsent(kindOf(path), kind -> new AtomicLong()).incrementAndGet();
+			requestsByPath.computeIfAbsent(relativePath(path), key -> new AtomicLong()).incrementAndGet();
+			long n = sequence.incrementAndGet();
+			Faults faults = this.faults;
+			sleep(faults.latencyMillis() + (faults.jitterMillis() > 0 ? ThreadLocalRandom.current().nextLong(faults.jitterMillis() + 1) : 0));
+
+			if (faults.rateLimitEvery() > 0 && n % faults.rateLimitEvery() == 0) {
+				rateLimited.incrementAndGet();
+				exchange.getResponseHeaders().add("Retry-After", "1");
+				exchange.sendResponseHeaders(429, -1);
+				return;
+			}
+			double roll = ThreadLocalRandom.current().nextDouble();
+			if (roll < faults.dropRate()) {
+				// Closing without a status line looks like a connection reset to the client.
+				dropped.incrementAndGet();
+				return;
+			}
+			if (roll < faults.dropRate() + faults.failureRate()) {
+				failed.incrementAndGet();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			Path file = resolve(path);
+			if (file == null || !Files.isRegularFile(file)) {
+				notFound.incrementAndGet();
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			byte[] body = Files.readAllBytes(file);
+			int start = 0;
+			int end = body.length;
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			if (range != null && range.startsWith("bytes=") && body.length > 0) {
+				String[] bounds = range.substring("bytes=".length()).split("-", 2);
+				start = Math.min(body.length - 1, Integer.parseInt(bounds[0]));
+				end = bounds.length > 1 && !bounds[1].isEmpty() ? Math.min(body.length, Integer.parseInt(bounds[1]) + 1) : body.length;
+				exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + body.length);
+			}
+			exchange.sendResponseHeaders(range != null && body.length > 0 ? 206 : 200, end - start);
+			write(exchange.getResponseBody(), body, start, end, faults);
+		}
+	}
+
+	private void write(OutputStream out, byte[] body, int start, int end, Faults faults) throws IOException {
+		long began = System.nanoTime();
+		for (int offset = start; offset < end; offset += CHUNK_BYTES) {
+			int length = Math.min(CHUNK_BYTES, end - offset);
+			out.write(body, offset, length);
+			bytesSent.addAndGet(length);
+			if (faults.bytesPerSecond() > 0) {
+				// Sleep until the bytes written so far fit under the cap.
+				long due = (offset + length - start) * 1_000L / faults.bytesPerSecond();
+				sleep(due - (System.nanoTime() - began) / 1_000_000L);
+			}
+		}
+	}
+
+	private Path resolve(String path) {
+		String relative = relativePath(path);
+		if (relative.isEmpty()) {
+			return null;
+		}
+		Path file = root.resolve(relative).normalize();
+		return file.startsWith(root) ? file : null;
+	}
+
+	private static String relativePath(String path) {
+		// Drop the /<owner>/<repo>/<branch> prefix the client puts on every raw URL.
+		String[] parts = path.split("/", 5);
+		return parts.length < 5 ? "" : parts[4];
+	}
+
+	private static String kindOf(String path) {
+		String name = path.toLowerCase(Locale.ROOT);
+		if (name.endsWith(".idx")) return "index";
+		if (name.endsWith(".json")) return "json";
+		if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".gif") || name.endsWith(".webp")) return "image";
+		if (name.endsWith(".litematic")) return "litematic";
+		if (name.endsWith(".zip")) return "zip";
+		return "other";
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package com.andrews.st2downloader.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Converts a v1 {@code persistent.idx} into the v2 block layout read by the client, so the format
+ * can be exercised against real archives before the archive generator emits it.
+ * <p>
+ * Dictionaries, styles, channel metadata and entry encodings are copied byte for byte; only the
+ * framing changes. Each channel's entries become one deflate block, and the newest-first and
+ * archived-at orderings are written as sections. The output is read back and checked before the
+ * command reports sizes and decode times.
+ * <p>
+ * Usage: {@code PersistentIndexV2Generator <v1 input> <v2 output> [--no-sections]}
+ */
+public final class PersistentIndexV2Generator {
+	private static final int VERSION_SEQUENTIAL = 1;
+	private static final int VERSION_BLOCKED = 2;
+	private static final int SECTION_NEWEST_ORDER = 1;
+	private static final int SECTION_ARCHIVED_ORDER = 2;
+
+	private PersistentIndexV2Generator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: PersistentIndexV2Generator <v1 input> <v2 output> [--no-sections]");
+			System.exit(2);
+		}
+		boolean sections = !(args.length > 2 && args[2].equals("--no-sections"));
+		byte[] input = Files.readAllBytes(Path.of(args[0]));
+
+		long start = System.nanoTime();
+		V1Index index = V1Index.read(input);
+		long v1Nanos = System.nanoTime() - start;
+
+		byte[] output = write(input, index, sections);
+		Files.write(Path.of(args[1]), output);
+
+		start = System.nanoTime();
+		verify(output, index);
+		long v2Nanos = System.nanoTime() - start;
+
+		System.out.printf("channels=%d entries=%d%n", index.channels.size(), index.entryCount());
+		System.out.printf("v1 %,d bytes, sequential walk %.2f ms%n", input.length, v1Nanos / 1e6);
+		System.out.printf("v2 %,d bytes (%.1f%%), inflate all blocks %.2f ms%n",
+			output.length, 100.0 * output.length / input.length, v2Nanos / 1e6);
+	}
+
+	private static byte[] write(byte[] input, V1Index index, boolean withSections) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream(input.length);
+		List<int[]> blocks = new ArrayList<>();
+		for (V1Channel channel : index.channels) {
+			byte[] raw = Arrays.copyOfRange(input, channel.entriesStart, channel.entriesEnd);
+			byte[] compressed = deflate(raw);
+			blocks.add(new int[]{channel.entryCount(), data.size(), compressed.length, raw.length});
+			data.write(compressed);
+		}
+
+		List<int[]> sections = new ArrayList<>();
+		if (withSections) {
+			List<V1Entry> entries = index.entries();
+			Integer[] newest = positions(entries.size());
+			Arrays.sort(newest, Comparator.comparingLong((Integer i) -> entries.get(i).effectiveUpdatedAt()).reversed());
+			sections.add(new int[]{SECTION_NEWEST_ORDER, data.size(), newest.length * 4});
+			data.write(encodeInts(newest));
+
+			Integer[] archived = positions(entries.size());
+			Arrays.sort(archived, Comparator.comparingLong((Integer i) -> entries.get(i).archivedAt));
+			sections.add(new int[]{SECTION_ARCHIVED_ORDER, data.size(), archived.length * 4});
+			data.write(encodeInts(archived));
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+		ByteBuffer prefix = ByteBuffer.allocate(10).order(ByteOrder.BIG_ENDIAN);
+		prefix.putShort((short) VERSION_BLOCKED).putLong(index.updatedAt);
+		out.write(prefix.array());
+		out.write(input, 10, index.dictionariesEnd - 10);
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize(index, sections.size())).order(ByteOrder.LITTLE_ENDIAN);
+		header.putShort((short) index.channels.size());
+		for (int i = 0; i < index.channels.size(); i++) {
+			V1Channel channel = index.channels.get(i);
+			header.put(input, channel.headerStart, channel.headerEnd - channel.headerStart);
+			for (int value : blocks.get(i)) {
+				header.putInt(value);
+			}
+		}
+		header.putShort((short) sections.size());
+		for (int[] section : sections) {
+			header.putShort((short) section[0]).putInt(section[1]).putInt(section[2]);
+		}
+		out.write(header.array());
+		data.writeTo(out);
+		return out.toByteArray();
+	}
+
+	private static int headerSize(V1Index index, int sectionCount) {
+		int size = 2 + 2 + sectionCount * 10;
+		for (V1Channel channel : index.channels) {
+			size += channel.headerEnd - channel.headerStart + 16;
+		}
+		return size;
+	}
+
+	/**
+	 * Walks the v2 framing and checks that every block inflates back to the original entry bytes.
+	 */
+	private static void verify(byte[] output, V1Index index) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(output).order(ByteOrder.BIG_ENDIAN);
+		if (Short.toUnsignedInt(buffer.getShort()) != VERSION_BLOCKED || buffer.getLong() != index.updatedAt) {
+			throw new IllegalStateException("v2 prefix mismatch");
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(index.dictionariesEnd);
+		int channelCount = Short.toUnsignedInt(buffer.getShort());
+		int[][] blocks = new int[channelCount][];
+		for (int i = 0; i < channelCount; i++) {
+			V1Channel channel = index.channels.get(i);
+			buffer.position(buffer.position() + channel.headerEnd - channel.headerStart);
+			blocks[i] = new int[]{buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt()};
+		}
+		int sectionCount = Short.toUnsignedInt(buffer.getShort());
+		int dataStart = buffer.position() + sectionCount * 10;
+		for (int i = 0; i < channelCount; i++) {
+			V1Channel channel = index.channels.get(i);
+			int[] block = blocks[i];
+			try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(output, dataStart + block[1], block[2]))) {
+				byte[] raw = in.readNBytes(block[3]);
+				if (block[0] != channel.entryCount() || in.read() != -1
+					|| !Arrays.equals(raw, 0, raw.length, index.source, channel.entriesStart, channel.entriesEnd)) {
+					throw new IllegalStateException("Block for channel " + i + " does not round-trip");
+				}
+			}
+		}
+	}
+
+	private static byte[] deflate(byte[] raw) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(raw.length / 3 + 64);
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+			out.write(raw);
+		} finally {
+			deflater.end();
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Integer[] positions(int count) {
+		Integer[] positions = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			positions[i] = i;
+		}
+		return positions;
+	}
+
+	private static byte[] encodeInts(Integer[] values) {
+		ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+		for (int value : values) {
+			buffer.putInt(value);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Byte ranges of a v1 file; only the fields needed to reframe it are decoded.
+	 */
+	private static final class V1Index {
+		final byte[] source;
+		final long updatedAt;
+		final int dictionariesEnd;
+		final List<V1Channel> channels = new ArrayList<>();
+
+		private V1Index(byte[] source, long updatedAt, int dictionariesEnd) {
+			this.source = source;
+			this.updatedAt = updatedAt;
+			this.dictionariesEnd = dictionariesEnd;
+		}
+
+		static V1Index read(byte[] source) {
+			ByteBuffer buffer = ByteBuffer.wrap(source).order(ByteOrder.BIG_ENDIAN);
+			int version = Short.toUnsignedInt(buffer.getShort());
+			if (version != VERSION_SEQUENTIAL) {
+				throw new IllegalArgumentException("Expected a v1 persistent index, found version " + version);
+			}
+			long updatedAt = buffer.getLong();
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			for (int list = 0; list < 3; list++) {
+				int count = Short.toUnsignedInt(buffer.getShort());
+				for (int i = 0; i < count; i++) {
+					skipString(buffer);
+				}
+			}
+			int stylesLength = buffer.getInt();
+			if (stylesLength < 0) {
+				throw new IllegalArgumentException("Invalid schema styles length: " + Integer.toUnsignedLong(stylesLength));
+			}
+			buffer.position(buffer.position() + stylesLength);
+
+			V1Index index = new V1Index(source, updatedAt, buffer.position());
+			while (buffer.hasRemaining()) {
+				index.channels.add(V1Channel.read(buffer));
+			}
+			return index;
+		}
+
+		int entryCount() {
+			int count = 0;
+			for (V1Channel channel : channels) {
+				count += channel.entryCount();
+			}
+			return count;
+		}
+
+		List<V1Entry> entries() {
+			List<V1Entry> entries = new ArrayList<>(entryCount());
+			for (V1Channel channel : channels) {
+				entries.addAll(channel.entries);
+			}
+			return entries;
+		}
+	}
+
+	private static final class V1Channel {
+		int headerStart;
+		int headerEnd;
+		int entriesStart;
+		int entriesEnd;
+		final List<V1Entry> entries = new ArrayList<>();
+
+		static V1Channel read(ByteBuffer buffer) {
+			V1Channel channel = new V1Channel();
+			channel.headerStart = buffer.position();
+			skipString(buffer);
+			skipString(buffer);
+			skipString(buffer);
+			buffer.getShort();
+			skipShorts(buffer);
+			skipString(buffer);
+			channel.headerEnd = buffer.position();
+
+			long count = Integer.toUnsignedLong(buffer.getInt());
+			if (count > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Channel entries exceed max int: " + count);
+			}
+			channel.entriesStart = buffer.position();
+			for (int i = 0; i < count; i++) {
+				channel.entries.add(V1Entry.read(buffer));
+			}
+			channel.entriesEnd = buffer.position();
+			return channel;
+		}
+
+		int entryCount() {
+			return entries.size();
+		}
+	}
+
+	private record V1Entry(long updatedAt, long archivedAt) {
+		static V1Entry read(ByteBuffer buffer) {
+			skipString(buffer);
+			skipString(buffer);
+			skipString(buffer);
+			skipShorts(buffer);
+			skipShorts(buffer);
+			buffer.order(ByteOrder.BIG_ENDIAN);
+			long updatedAt = buffer.getLong();
+			long archivedAt = buffer.getLong();
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			skipString(buffer);
+			skipString(buffer);
+			return new V1Entry(updatedAt, archivedAt);
+		}
+
+		long effectiveUpdatedAt() {
+			return updatedAt > 0 ? updatedAt : archivedAt;
+		}
+	}
+
+	private static void skipString(ByteBuffer buffer) {
+		int length = Short.toUnsignedInt(buffer.getShort());
+		buffer.position(buffer.position() + length);
+	}
+
+	private static void skipShorts(ByteBuffer buffer) {
+		int count = Short.toUnsignedInt(buffer.getShort());
+		buffer.position(buffer.position() + count * 2);
+	}
+}
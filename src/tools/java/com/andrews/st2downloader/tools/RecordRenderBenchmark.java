@@ -0,0 +1,160 @@
+package com.andrews.st2downloader.tools;
+
+import com.andrews.st2downloader.models.ArchiveRecordSection;
+import com.andrews.st2downloader.network.ArchiveRecordRenderer;
+import com.andrews.st2downloader.network.ArchiveRecordRenderer.RecordField;
+import com.andrews.st2downloader.network.ArchiveRecordRenderer.StyleInfo;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long rendering submission records takes next to reading them, over entry
+ * {@code data.json} files from a real archive checkout.
+ * <p>
+ * Each sample is streamed the way the client reads it, keeping the records and styles and skipping
+ * everything else, then rendered with a renderer compiled from the schema styles. Both steps are
+ * repeated until the JIT has settled before the timed rounds.
+ * <p>
+ * Usage: {@code RecordRenderBenchmark <data.json file or directory>... [--schema <styles.json>] [--rounds <n>]}
+ */
+public final class RecordRenderBenchmark {
+	private static final int WARMUP_ROUNDS = 200;
+	// Results are folded in here so the timed loops cannot be optimized away.
+	private static long sink;
+
+	private RecordRenderBenchmark() {
+	}
+
+	private record Sample(Path file, byte[] body) {
+	}
+
+	private record Parsed(List<RecordField> records, Map<String, StyleInfo> styles) {
+	}
+
+	public static void main(String[] args) throws IOException {
+		List<Path> inputs = new ArrayList<>();
+		Path schemaFile = null;
+		int rounds = 500;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "--schema" -> schemaFile = Path.of(args[++i]);
+				case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+				default -> inputs.add(Path.of(args[i]));
+			}
+		}
+		if (inputs.isEmpty()) {
+			System.err.println("Usage: RecordRenderBenchmark <data.json file or directory>... [--schema <styles.json>] [--rounds <n>]");
+			System.exit(2);
+		}
+
+		List<Sample> samples = collect(inputs);
+		if (samples.isEmpty()) {
+			System.err.println("No data.json files found");
+			System.exit(1);
+		}
+		Map<String, StyleInfo> schemaStyles = Map.of();
+		if (schemaFile != null) {
+			try (JsonReader reader = new JsonReader(new StringReader(Files.readString(schemaFile)))) {
+				schemaStyles = ArchiveRecordRenderer.readStyles(reader);
+			}
+		}
+
+		long start = System.nanoTime();
+		ArchiveRecordRenderer renderer = ArchiveRecordRenderer.compile(schemaStyles);
+		long compileNanos = System.nanoTime() - start;
+
+		List<Parsed> parsed = new ArrayList<>(samples.size());
+		long bytes = 0;
+		int sections = 0;
+		for (Sample sample : samples) {
+			Parsed entry = parse(sample.body());
+			parsed.add(entry);
+			bytes += sample.body().length;
+			sections += renderer.render(entry.records(), entry.styles()).size();
+		}
+
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			sink += parseAll(samples) + renderAll(renderer, parsed);
+		}
+		long parseNanos = 0;
+		long renderNanos = 0;
+		for (int round = 0; round < rounds; round++) {
+			start = System.nanoTime();
+			sink += parseAll(samples);
+			parseNanos += System.nanoTime() - start;
+			start = System.nanoTime();
+			sink += renderAll(renderer, parsed);
+			renderNanos += System.nanoTime() - start;
+		}
+
+		double perEntryParse = parseNanos / 1e3 / rounds / samples.size();
+		double perEntryRender = renderNanos / 1e3 / rounds / samples.size();
+		System.out.printf("samples=%d bytes=%,d sections=%d schemaKeys=%d compile %.2f ms%n",
+			samples.size(), bytes, sections, schemaStyles.size(), compileNanos / 1e6);
+		System.out.printf("read   %8.2f us/entry%n", perEntryParse);
+		System.out.printf("render %8.2f us/entry (%.1f%% of read + render)%n",
+			perEntryRender, 100.0 * perEntryRender / (perEntryParse + perEntryRender));
+	}
+
+	private static List<Sample> collect(List<Path> inputs) throws IOException {
+		List<Sample> samples = new ArrayList<>();
+		for (Path input : inputs) {
+			if (Files.isDirectory(input)) {
+				try (Stream<Path> files = Files.walk(input)) {
+					for (Path file : files.filter(path -> path.getFileName().toString().equals("data.json")).sorted().toList()) {
+						samples.add(new Sample(file, Files.readAllBytes(file)));
+					}
+				}
+			} else {
+				samples.add(new Sample(input, Files.readAllBytes(input)));
+			}
+		}
+		return samples;
+	}
+
+	private static Parsed parse(byte[] body) throws IOException {
+		List<RecordField> records = List.of();
+		Map<String, StyleInfo> styles = Map.of();
+		try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case "records" -> records = ArchiveRecordRenderer.readRecords(reader);
+					case "styles" -> styles = ArchiveRecordRenderer.readStyles(reader);
+					default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+		}
+		return new Parsed(records, styles);
+	}
+
+	private static int parseAll(List<Sample> samples) throws IOException {
+		int records = 0;
+		for (Sample sample : samples) {
+			records += parse(sample.body()).records().size();
+		}
+		return records;
+	}
+
+	private static int renderAll(ArchiveRecordRenderer renderer, List<Parsed> parsed) {
+		int lines = 0;
+		for (Parsed entry : parsed) {
+			for (ArchiveRecordSection section : renderer.render(entry.records(), entry.styles())) {
+				lines += section.lines().size();
+			}
+		}
+		return lines;
+	}
+}